@@ -0,0 +1,120 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.benchmark;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.results.RunResult;
+
+/**
+ * Compares the scores of a benchmark run with those of a baseline run. Scores
+ * are stored as properties, keyed by benchmark name and parameters, so the
+ * scores of one run can be kept as the baseline of later runs.
+ */
+final class BaselineComparison {
+
+    private BaselineComparison() {
+    }
+
+    /**
+     * Returns the primary score of every result, keyed by benchmark name and
+     * parameters. The score of a throughput benchmark is prefixed with
+     * <code>+</code>, as higher is better; the other modes measure time, where
+     * lower is better.
+     */
+    static Properties getScores(Collection runResults) {
+        Properties scores = new Properties();
+        for (Iterator i = runResults.iterator(); i.hasNext();) {
+            RunResult result = (RunResult) i.next();
+            String prefix = result.getParams().getMode() == Mode.Throughput ? "+" : "";
+            scores.setProperty(getKey(result.getParams()), prefix + result.getPrimaryResult().getScore());
+        }
+        return scores;
+    }
+
+    /**
+     * Returns a description of every benchmark whose score is worse than its
+     * baseline score by more than the given fraction. Benchmarks missing from
+     * the baseline are skipped.
+     */
+    static List findRegressions(Properties scores, Properties baseline, double threshold) {
+        List regressions = new ArrayList();
+        for (Iterator i = scores.keySet().iterator(); i.hasNext();) {
+            String key = (String) i.next();
+            String baselineScore = baseline.getProperty(key);
+            if (baselineScore == null) {
+                continue;
+            }
+            String score = scores.getProperty(key);
+            boolean higherIsBetter = score.startsWith("+");
+            double value = Double.parseDouble(score);
+            double baselineValue = Double.parseDouble(baselineScore);
+            double change = (value - baselineValue) / baselineValue;
+            if ((higherIsBetter ? -change : change) > threshold) {
+                regressions.add(key + ": " + baselineValue + " -> " + value);
+            }
+        }
+        return regressions;
+    }
+
+    static Properties load(File file) throws IOException {
+        Properties properties = new Properties();
+        InputStream in = new FileInputStream(file);
+        try {
+            properties.load(in);
+        }
+        finally {
+            in.close();
+        }
+        return properties;
+    }
+
+    static void store(Properties scores, File file) throws IOException {
+        OutputStream out = new FileOutputStream(file);
+        try {
+            scores.store(out, "Benchmark scores, + marks scores where higher is better");
+        }
+        finally {
+            out.close();
+        }
+    }
+
+    private static String getKey(BenchmarkParams params) {
+        StringBuffer key = new StringBuffer(params.getBenchmark());
+        String separator = "(";
+        for (Iterator i = params.getParamsKeys().iterator(); i.hasNext();) {
+            String name = (String) i.next();
+            key.append(separator).append(name).append('=').append(params.getParam(name));
+            separator = ",";
+        }
+        if (!separator.equals("(")) {
+            key.append(')');
+        }
+        return key.toString();
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.benchmark;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * Form object of the benchmarks, with properties of the common field types.
+ */
+public class BenchmarkBean {
+
+    /**
+     * Names of all properties.
+     */
+    public static final String[] PROPERTIES = { "name", "street", "city", "zip", "email", "phone", "age", "salary",
+            "birthDate", "active" };
+
+    private String name;
+
+    private String street;
+
+    private String city;
+
+    private String zip;
+
+    private String email;
+
+    private String phone;
+
+    private int age;
+
+    private BigDecimal salary;
+
+    private Date birthDate;
+
+    private boolean active;
+
+    /**
+     * Creates a bean with valid values that differ by <code>seed</code>.
+     */
+    public static BenchmarkBean create(int seed) {
+        BenchmarkBean bean = new BenchmarkBean();
+        bean.setName("Name " + seed);
+        bean.setStreet("Street " + seed);
+        bean.setCity("City " + seed);
+        bean.setZip(String.valueOf(10000 + seed % 90000));
+        bean.setEmail("user" + seed + "@example.com");
+        bean.setPhone("555-" + seed);
+        bean.setAge(18 + seed % 60);
+        bean.setSalary(new BigDecimal(1000 + seed));
+        bean.setBirthDate(new Date(seed * 86400000L));
+        bean.setActive(seed % 2 == 0);
+        return bean;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getStreet() {
+        return street;
+    }
+
+    public void setStreet(String street) {
+        this.street = street;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public void setCity(String city) {
+        this.city = city;
+    }
+
+    public String getZip() {
+        return zip;
+    }
+
+    public void setZip(String zip) {
+        this.zip = zip;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getPhone() {
+        return phone;
+    }
+
+    public void setPhone(String phone) {
+        this.phone = phone;
+    }
+
+    public int getAge() {
+        return age;
+    }
+
+    public void setAge(int age) {
+        this.age = age;
+    }
+
+    public BigDecimal getSalary() {
+        return salary;
+    }
+
+    public void setSalary(BigDecimal salary) {
+        this.salary = salary;
+    }
+
+    public Date getBirthDate() {
+        return birthDate;
+    }
+
+    public void setBirthDate(Date birthDate) {
+        this.birthDate = birthDate;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+}
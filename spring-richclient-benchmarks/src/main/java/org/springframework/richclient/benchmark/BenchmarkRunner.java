@@ -0,0 +1,74 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs all benchmarks of this package headless with the GC profiler, so the
+ * results include the allocation rate per operation next to the throughput,
+ * and writes them as JSON to the file given as the first argument (by default
+ * <code>jmh-result.json</code>). The primary scores are also written as
+ * properties to the file given as the second argument (by default
+ * <code>jmh-scores.properties</code>).
+ * <p>
+ * To gate on regressions, keep the scores file of an earlier run and pass it
+ * as the <code>benchmark.baseline</code> system property. The exit code is
+ * then 1 if a benchmark is worse than its baseline score by more than the
+ * fraction given as the <code>benchmark.threshold</code> system property
+ * (by default 0.1). The build does not archive the baseline.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        String resultFile = args.length > 0 ? args[0] : "jmh-result.json";
+        String scoresFile = args.length > 1 ? args[1] : "jmh-scores.properties";
+        Options options = new OptionsBuilder()
+                .include(BenchmarkRunner.class.getPackage().getName() + ".*Benchmark")
+                .addProfiler(GCProfiler.class)
+                .jvmArgsAppend("-Djava.awt.headless=true")
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile)
+                .build();
+        Properties scores = BaselineComparison.getScores(new Runner(options).run());
+        BaselineComparison.store(scores, new File(scoresFile));
+
+        String baselineFile = System.getProperty("benchmark.baseline", "");
+        if (baselineFile.length() > 0) {
+            double threshold = Double.parseDouble(System.getProperty("benchmark.threshold", "0.1"));
+            Properties baseline = BaselineComparison.load(new File(baselineFile));
+            List regressions = BaselineComparison.findRegressions(scores, baseline, threshold);
+            for (Iterator i = regressions.iterator(); i.hasNext();) {
+                System.out.println("Regression: " + i.next());
+            }
+            System.exit(regressions.isEmpty() ? 0 : 1);
+        }
+    }
+}
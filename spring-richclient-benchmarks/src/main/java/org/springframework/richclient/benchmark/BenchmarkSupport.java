@@ -0,0 +1,113 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.benchmark;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.richclient.application.Application;
+import org.springframework.richclient.application.ApplicationServicesLocator;
+import org.springframework.richclient.application.config.DefaultApplicationLifecycleAdvisor;
+import org.springframework.richclient.application.support.DefaultApplicationServices;
+import org.springframework.richclient.widget.table.PropertyColumnTableDescription;
+import org.springframework.richclient.widget.table.TableDescription;
+import org.springframework.rules.Rules;
+import org.springframework.rules.constraint.Constraint;
+import org.springframework.rules.support.DefaultRulesSource;
+
+/**
+ * Sets up the application services the benchmarked classes look up, the same
+ * way <code>SpringRichTestCase</code> does for the tests.
+ */
+final class BenchmarkSupport {
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * Loads application services with an empty message source and the rules
+     * of {@link #createRulesSource()}.
+     */
+    static DefaultApplicationServices loadApplicationServices() {
+        Application.load(null);
+        StaticApplicationContext applicationContext = new StaticApplicationContext();
+        DefaultApplicationServices applicationServices = new DefaultApplicationServices(applicationContext);
+        new ApplicationServicesLocator(applicationServices);
+
+        DefaultApplicationLifecycleAdvisor advisor = new DefaultApplicationLifecycleAdvisor();
+        Application application = new Application(advisor);
+        advisor.setApplication(application);
+        Application.instance().setApplicationContext(applicationContext);
+        applicationServices.setApplicationContext(applicationContext);
+
+        applicationServices.setMessageSource(new StaticMessageSource());
+        applicationServices.setRulesSource(createRulesSource());
+        applicationContext.refresh();
+        return applicationServices;
+    }
+
+    /**
+     * Creates rules for all properties of {@link BenchmarkBean}, several of
+     * them per property.
+     */
+    static DefaultRulesSource createRulesSource() {
+        Rules rules = new Rules(BenchmarkBean.class);
+        rules.add("name", new Constraint[] { rules.required(), rules.maxLength(50) });
+        rules.add("street", new Constraint[] { rules.required(), rules.maxLength(80) });
+        rules.add("city", new Constraint[] { rules.required(), rules.maxLength(50) });
+        rules.add("zip", new Constraint[] { rules.required(), rules.regexp("[0-9]{5}") });
+        rules.add("email", new Constraint[] { rules.required(), rules.regexp("[^@]+@[^@]+\\.[a-z]+") });
+        rules.add("phone", rules.maxLength(20));
+        rules.add("age", rules.range(0, 150));
+        rules.add("salary", new Constraint[] { rules.required(), rules.gte(new BigDecimal(0)) });
+        rules.add("birthDate", rules.required());
+
+        DefaultRulesSource rulesSource = new DefaultRulesSource();
+        rulesSource.addRules(rules);
+        return rulesSource;
+    }
+
+    /**
+     * Creates <code>count</code> different beans.
+     */
+    static List createBeans(int count) {
+        List beans = new ArrayList(count);
+        for (int i = 0; i < count; i++) {
+            beans.add(BenchmarkBean.create(i));
+        }
+        return beans;
+    }
+
+    /**
+     * Describes a table of {@link BenchmarkBean}s with a column for most of
+     * their properties.
+     */
+    static TableDescription createTableDescription() {
+        PropertyColumnTableDescription tableDescription = new PropertyColumnTableDescription("benchmarkTable",
+                BenchmarkBean.class);
+        tableDescription.addPropertyColumn("name");
+        tableDescription.addPropertyColumn("city");
+        tableDescription.addPropertyColumn("zip");
+        tableDescription.addPropertyColumn("email");
+        tableDescription.addPropertyColumn("age");
+        tableDescription.addPropertyColumn("salary");
+        tableDescription.addPropertyColumn("birthDate");
+        return tableDescription;
+    }
+}
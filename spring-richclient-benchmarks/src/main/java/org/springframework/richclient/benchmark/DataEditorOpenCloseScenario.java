@@ -0,0 +1,128 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.benchmark;
+
+import java.util.List;
+
+import javax.swing.JComponent;
+
+import org.springframework.richclient.form.AbstractForm;
+import org.springframework.richclient.form.FormModelHelper;
+import org.springframework.richclient.form.builder.TableFormBuilder;
+import org.springframework.richclient.widget.editor.DefaultDataEditorWidget;
+import org.springframework.richclient.widget.editor.provider.AbstractDataProvider;
+
+/**
+ * Creates, opens, closes and drops a {@link DefaultDataEditorWidget} with a
+ * table and a detail form many times, as opening and closing editors does. All
+ * editors share one data provider, whose observers are tracked to detect
+ * editors that stay registered after they are closed.
+ */
+public class DataEditorOpenCloseScenario extends UiScenario {
+
+    private final int cycles;
+
+    private InMemoryDataProvider dataProvider;
+
+    public DataEditorOpenCloseScenario(int cycles) {
+        super("Open and close data editor " + cycles + " times");
+        this.cycles = cycles;
+    }
+
+    protected void setUp() {
+        dataProvider = new InMemoryDataProvider(BenchmarkSupport.createBeans(1000));
+    }
+
+    protected void run() {
+        for (int i = 0; i < cycles; i++) {
+            DefaultDataEditorWidget dataEditor = new DefaultDataEditorWidget("benchmarkEditor", dataProvider,
+                    new DetailForm(), BenchmarkSupport.createTableDescription(), null);
+            dataEditor.getComponent();
+            dataEditor.getTableWidget().setRows(dataProvider.getList(null));
+            dataEditor.onAboutToShow();
+            dataEditor.onAboutToHide();
+        }
+    }
+
+    protected void tearDown() {
+        dataProvider = null;
+    }
+
+    protected int getListenerCount() {
+        return dataProvider.countObservers();
+    }
+
+    /**
+     * Detail form with a field for every property of {@link BenchmarkBean}.
+     */
+    private static class DetailForm extends AbstractForm {
+
+        DetailForm() {
+            super(FormModelHelper.createFormModel(new BenchmarkBean(), "benchmarkDetail"));
+        }
+
+        protected JComponent createFormControl() {
+            TableFormBuilder builder = new TableFormBuilder(getBindingFactory());
+            for (int i = 0; i < BenchmarkBean.PROPERTIES.length; i++) {
+                builder.add(BenchmarkBean.PROPERTIES[i]);
+                builder.row();
+            }
+            return builder.getForm();
+        }
+    }
+
+    /**
+     * Read-only data provider of a fixed list, which is never refreshed
+     * automatically as that would need an application window.
+     */
+    private static class InMemoryDataProvider extends AbstractDataProvider {
+
+        private final List rows;
+
+        InMemoryDataProvider(List rows) {
+            super("benchmarkDataProvider");
+            this.rows = rows;
+        }
+
+        public List getList(Object criteria) {
+            return rows;
+        }
+
+        public boolean supportsFiltering() {
+            return false;
+        }
+
+        public boolean supportsUpdate() {
+            return false;
+        }
+
+        public boolean supportsCreate() {
+            return false;
+        }
+
+        public boolean supportsClone() {
+            return false;
+        }
+
+        public boolean supportsDelete() {
+            return false;
+        }
+
+        public RefreshPolicy getRefreshPolicy() {
+            return RefreshPolicy.NEVER;
+        }
+    }
+}
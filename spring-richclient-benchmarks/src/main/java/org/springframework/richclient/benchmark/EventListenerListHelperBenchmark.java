@@ -0,0 +1,76 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.benchmark;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.richclient.util.EventListenerListHelper;
+
+/**
+ * Cost of {@link EventListenerListHelper#fire(String, Object)}, which looks up
+ * the listener method and invokes it by reflection on every listener.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class EventListenerListHelperBenchmark {
+
+    @Param( { "0", "1", "10" })
+    public int listenerCount;
+
+    private EventListenerListHelper listeners;
+
+    private PropertyChangeEvent event;
+
+    @Setup
+    public void setUp() {
+        listeners = new EventListenerListHelper(PropertyChangeListener.class);
+        for (int i = 0; i < listenerCount; i++) {
+            listeners.add(new CountingListener());
+        }
+        event = new PropertyChangeEvent(this, "value", "old", "new");
+    }
+
+    @Benchmark
+    public void fire() {
+        listeners.fire("propertyChange", event);
+    }
+
+    private static class CountingListener implements PropertyChangeListener {
+
+        private int count;
+
+        public void propertyChange(PropertyChangeEvent evt) {
+            count++;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.binding.form.support.DefaultFormModel;
+import org.springframework.binding.form.support.FormModelTemplate;
+
+/**
+ * Cost of creating a form model with a field per property of
+ * {@link BenchmarkBean}, directly and from a {@link FormModelTemplate}, and
+ * of binding an existing form model to another form object.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class FormModelBenchmark {
+
+    private BenchmarkBean[] beans;
+
+    private int index;
+
+    private FormModelTemplate template;
+
+    private DefaultFormModel formModel;
+
+    @Setup
+    public void setUp() {
+        BenchmarkSupport.loadApplicationServices();
+        beans = new BenchmarkBean[16];
+        for (int i = 0; i < beans.length; i++) {
+            beans[i] = BenchmarkBean.create(i);
+        }
+        formModel = createFormModel(beans[0]);
+        template = new FormModelTemplate(formModel);
+    }
+
+    @Benchmark
+    public DefaultFormModel create() {
+        return createFormModel(nextBean());
+    }
+
+    @Benchmark
+    public DefaultFormModel createFromTemplate() {
+        return template.createFormModel(nextBean());
+    }
+
+    @Benchmark
+    public void setFormObject() {
+        formModel.setFormObject(nextBean());
+    }
+
+    private DefaultFormModel createFormModel(BenchmarkBean bean) {
+        DefaultFormModel formModel = new DefaultFormModel(bean);
+        for (int i = 0; i < BenchmarkBean.PROPERTIES.length; i++) {
+            formModel.add(BenchmarkBean.PROPERTIES[i]);
+        }
+        return formModel;
+    }
+
+    private BenchmarkBean nextBean() {
+        index = (index + 1) % beans.length;
+        return beans[index];
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.benchmark;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.richclient.widget.table.glazedlists.GlazedListTableWidget;
+
+/**
+ * Populates a {@link GlazedListTableWidget} with many rows at once.
+ */
+public class GlazedListTableScenario extends UiScenario {
+
+    private final int rowCount;
+
+    private List rows;
+
+    private GlazedListTableWidget tableWidget;
+
+    public GlazedListTableScenario(int rowCount) {
+        super("Populate table with " + rowCount + " rows");
+        this.rowCount = rowCount;
+    }
+
+    protected void setUp() {
+        rows = BenchmarkSupport.createBeans(rowCount);
+        tableWidget = new GlazedListTableWidget(Collections.EMPTY_LIST, BenchmarkSupport.createTableDescription());
+    }
+
+    protected void run() {
+        tableWidget.setRows(rows);
+    }
+
+    protected void tearDown() {
+        rows = null;
+        tableWidget = null;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.binding.form.support.DefaultFormModel;
+import org.springframework.binding.validation.ValidationResults;
+import org.springframework.binding.validation.support.RulesValidator;
+
+/**
+ * Cost of {@link RulesValidator#validate(Object)} for a form with several rules
+ * per field, for a valid form object and for one violating a rule of every
+ * field, and of validating a single property as done after each edit.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class RulesValidatorBenchmark {
+
+    private DefaultFormModel validFormModel;
+
+    private RulesValidator validValidator;
+
+    private DefaultFormModel invalidFormModel;
+
+    private RulesValidator invalidValidator;
+
+    @Setup
+    public void setUp() {
+        BenchmarkSupport.loadApplicationServices();
+        validFormModel = createFormModel(BenchmarkBean.create(1));
+        validValidator = new RulesValidator(validFormModel, BenchmarkSupport.createRulesSource());
+
+        BenchmarkBean invalidBean = new BenchmarkBean();
+        invalidBean.setZip("invalid");
+        invalidBean.setEmail("invalid");
+        invalidBean.setPhone("a phone number that is far too long");
+        invalidBean.setAge(200);
+        invalidFormModel = createFormModel(invalidBean);
+        invalidValidator = new RulesValidator(invalidFormModel, BenchmarkSupport.createRulesSource());
+    }
+
+    @Benchmark
+    public ValidationResults validateValid() {
+        return validValidator.validate(validFormModel.getFormObject());
+    }
+
+    @Benchmark
+    public ValidationResults validateInvalid() {
+        return invalidValidator.validate(invalidFormModel.getFormObject());
+    }
+
+    @Benchmark
+    public ValidationResults validateProperty() {
+        return validValidator.validate(validFormModel.getFormObject(), "email");
+    }
+
+    private DefaultFormModel createFormModel(BenchmarkBean bean) {
+        DefaultFormModel formModel = new DefaultFormModel(bean);
+        for (int i = 0; i < BenchmarkBean.PROPERTIES.length; i++) {
+            formModel.add(BenchmarkBean.PROPERTIES[i]);
+        }
+        return formModel;
+    }
+}
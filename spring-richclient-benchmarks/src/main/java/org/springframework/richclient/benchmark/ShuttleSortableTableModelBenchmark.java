@@ -0,0 +1,118 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.table.AbstractTableModel;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.richclient.table.ColumnToSort;
+import org.springframework.richclient.table.ShuttleSortableTableModel;
+import org.springframework.richclient.table.SortOrder;
+
+/**
+ * Cost of sorting a {@link ShuttleSortableTableModel} by an integer column, a
+ * string column and both. Each invocation reverses the sort order, so every
+ * sort has to reorder all rows.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ShuttleSortableTableModelBenchmark {
+
+    @Param( { "1000", "10000" })
+    public int rowCount;
+
+    private ShuttleSortableTableModel tableModel;
+
+    private boolean ascending;
+
+    @Setup
+    public void setUp() {
+        tableModel = new ShuttleSortableTableModel(new RandomTableModel(rowCount));
+    }
+
+    @Benchmark
+    public void sortByIntegerColumn() {
+        tableModel.sortByColumns(new ColumnToSort[] { new ColumnToSort(0, 0, nextSortOrder()) });
+    }
+
+    @Benchmark
+    public void sortByStringColumn() {
+        tableModel.sortByColumns(new ColumnToSort[] { new ColumnToSort(0, 1, nextSortOrder()) });
+    }
+
+    @Benchmark
+    public void sortByTwoColumns() {
+        SortOrder sortOrder = nextSortOrder();
+        tableModel.sortByColumns(new ColumnToSort[] { new ColumnToSort(0, 2, sortOrder),
+                new ColumnToSort(1, 1, sortOrder) });
+    }
+
+    private SortOrder nextSortOrder() {
+        ascending = !ascending;
+        return ascending ? SortOrder.ASCENDING : SortOrder.DESCENDING;
+    }
+
+    /**
+     * Read-only table of an integer, a string and a low-cardinality integer
+     * column, filled with reproducible random values.
+     */
+    private static class RandomTableModel extends AbstractTableModel {
+
+        private final Object[][] rows;
+
+        RandomTableModel(int rowCount) {
+            Random random = new Random(42);
+            rows = new Object[rowCount][];
+            for (int i = 0; i < rowCount; i++) {
+                rows[i] = new Object[] { new Integer(random.nextInt()), "Name " + random.nextInt(rowCount),
+                        new Integer(random.nextInt(10)) };
+            }
+        }
+
+        public int getRowCount() {
+            return rows.length;
+        }
+
+        public int getColumnCount() {
+            return 3;
+        }
+
+        public Class getColumnClass(int columnIndex) {
+            return columnIndex == 1 ? String.class : Integer.class;
+        }
+
+        public Object getValueAt(int rowIndex, int columnIndex) {
+            return rows[rowIndex][columnIndex];
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.benchmark;
+
+import java.util.List;
+
+import javax.swing.JComponent;
+
+import org.springframework.binding.form.ValidatingFormModel;
+import org.springframework.richclient.form.FormModelHelper;
+import org.springframework.richclient.form.binding.swing.SwingBindingFactory;
+import org.springframework.richclient.form.builder.TableFormBuilder;
+
+/**
+ * Builds and lays out a form with a {@link TableFormBuilder}, binding the
+ * properties of several {@link BenchmarkBean}s so the form gets the requested
+ * number of fields of the common field types.
+ */
+public class TableFormBuilderScenario extends UiScenario {
+
+    private final int fieldCount;
+
+    private FormObject formObject;
+
+    private JComponent form;
+
+    public TableFormBuilderScenario(int fieldCount) {
+        super("Build form with " + fieldCount + " fields");
+        this.fieldCount = fieldCount;
+    }
+
+    protected void setUp() {
+        int beanCount = (fieldCount + BenchmarkBean.PROPERTIES.length - 1) / BenchmarkBean.PROPERTIES.length;
+        formObject = new FormObject();
+        formObject.setBeans(BenchmarkSupport.createBeans(beanCount));
+    }
+
+    protected void run() {
+        ValidatingFormModel formModel = FormModelHelper.createFormModel(formObject, "benchmarkForm");
+        TableFormBuilder builder = new TableFormBuilder(new SwingBindingFactory(formModel));
+        for (int i = 0; i < fieldCount; i++) {
+            if (i > 0 && i % 2 == 0) {
+                builder.row();
+            }
+            builder.add("beans[" + i / BenchmarkBean.PROPERTIES.length + "]."
+                    + BenchmarkBean.PROPERTIES[i % BenchmarkBean.PROPERTIES.length]);
+        }
+        form = builder.getForm();
+        form.setSize(form.getPreferredSize());
+        form.validate();
+    }
+
+    protected void tearDown() {
+        formObject = null;
+        form = null;
+    }
+
+    /**
+     * Form object holding the beans whose properties are bound.
+     */
+    public static class FormObject {
+
+        private List beans;
+
+        public List getBeans() {
+            return beans;
+        }
+
+        public void setBeans(List beans) {
+            this.beans = beans;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.benchmark;
+
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.image.BufferedImage;
+
+import javax.swing.JComponent;
+import javax.swing.JScrollPane;
+import javax.swing.JViewport;
+import javax.swing.RepaintManager;
+
+import org.springframework.richclient.widget.table.glazedlists.GlazedListTableWidget;
+
+/**
+ * Scrolls through a {@link GlazedListTableWidget} page by page and renders
+ * every page into an offscreen image. Double buffering is switched off on the
+ * repaint manager, so each page is painted straight into the image, as it
+ * would be painted on screen.
+ */
+public class TableScrollRenderingScenario extends UiScenario {
+
+    private static final int WIDTH = 1024;
+
+    private static final int HEIGHT = 768;
+
+    private final int rowCount;
+
+    private JScrollPane scrollPane;
+
+    private BufferedImage image;
+
+    private boolean doubleBufferingEnabled;
+
+    public TableScrollRenderingScenario(int rowCount) {
+        super("Scroll-render table with " + rowCount + " rows");
+        this.rowCount = rowCount;
+    }
+
+    protected void setUp() {
+        GlazedListTableWidget tableWidget = new GlazedListTableWidget(BenchmarkSupport.createBeans(rowCount),
+                BenchmarkSupport.createTableDescription());
+        JComponent component = tableWidget.getComponent();
+        scrollPane = component instanceof JScrollPane ? (JScrollPane) component : new JScrollPane(tableWidget
+                .getTable());
+        scrollPane.setSize(WIDTH, HEIGHT);
+        scrollPane.validate();
+        image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+
+        RepaintManager repaintManager = RepaintManager.currentManager(scrollPane);
+        doubleBufferingEnabled = repaintManager.isDoubleBufferingEnabled();
+        repaintManager.setDoubleBufferingEnabled(false);
+    }
+
+    protected void run() {
+        JViewport viewport = scrollPane.getViewport();
+        int viewHeight = viewport.getView().getHeight();
+        int pageHeight = viewport.getExtentSize().height;
+        if (pageHeight <= 0) {
+            throw new IllegalStateException("The table has not been laid out");
+        }
+        Graphics2D g = image.createGraphics();
+        try {
+            for (int y = 0; y < viewHeight; y += pageHeight) {
+                viewport.setViewPosition(new Point(0, y));
+                scrollPane.validate();
+                scrollPane.paint(g);
+            }
+        }
+        finally {
+            g.dispose();
+        }
+    }
+
+    protected void tearDown() {
+        if (scrollPane != null) {
+            RepaintManager.currentManager(scrollPane).setDoubleBufferingEnabled(doubleBufferingEnabled);
+        }
+        scrollPane = null;
+        image = null;
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.benchmark;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import javax.swing.SwingUtilities;
+
+/**
+ * Runs the UI performance regression scenarios one after the other and reports,
+ * per scenario, the time spent on the event dispatch thread, the heap retained
+ * while the scenario's objects are alive, the heap left behind after its tear
+ * down and the number of leaked listeners. The report is printed and written
+ * as CSV to the file given as the only argument (by default
+ * <code>ui-performance.csv</code>).
+ * <p>
+ * The scenarios render offscreen, so they run with
+ * <code>-Djava.awt.headless=true</code> as well as under Xvfb. The exit code
+ * is 1 if a scenario failed or leaked listeners.
+ */
+public final class UiPerformanceRunner {
+
+    private UiPerformanceRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String reportFile = args.length > 0 ? args[0] : "ui-performance.csv";
+        BenchmarkSupport.loadApplicationServices();
+
+        UiScenario[] scenarios = { new GlazedListTableScenario(100000), new TableScrollRenderingScenario(100000),
+                new TableFormBuilderScenario(200), new DataEditorOpenCloseScenario(1000) };
+        List results = new ArrayList();
+        boolean failed = false;
+        for (int i = 0; i < scenarios.length; i++) {
+            Result result = run(scenarios[i]);
+            results.add(result);
+            failed |= result.failure != null || result.getLeakedListeners() > 0;
+        }
+        report(results, reportFile);
+        System.exit(failed ? 1 : 0);
+    }
+
+    static Result run(final UiScenario scenario) throws InterruptedException {
+        Result result = new Result(scenario.getName());
+        long heapBefore = usedHeap();
+        try {
+            onEventDispatchThread(new Callable() {
+                public Object call() throws Exception {
+                    scenario.setUp();
+                    return null;
+                }
+            });
+            result.listenersBefore = getListenerCount(scenario);
+            result.nanos = ((Long) onEventDispatchThread(new Callable() {
+                public Object call() throws Exception {
+                    long start = System.nanoTime();
+                    scenario.run();
+                    return new Long(System.nanoTime() - start);
+                }
+            })).longValue();
+            result.listenersAfter = getListenerCount(scenario);
+            result.retainedBytes = usedHeap() - heapBefore;
+        }
+        catch (ExecutionException e) {
+            result.failure = e.getCause();
+        }
+        finally {
+            try {
+                onEventDispatchThread(new Callable() {
+                    public Object call() throws Exception {
+                        scenario.tearDown();
+                        return null;
+                    }
+                });
+            }
+            catch (ExecutionException e) {
+                if (result.failure == null) {
+                    result.failure = e.getCause();
+                }
+            }
+        }
+        result.leakedBytes = usedHeap() - heapBefore;
+        return result;
+    }
+
+    private static int getListenerCount(final UiScenario scenario) throws InterruptedException, ExecutionException {
+        return ((Integer) onEventDispatchThread(new Callable() {
+            public Object call() {
+                return new Integer(scenario.getListenerCount());
+            }
+        })).intValue();
+    }
+
+    private static Object onEventDispatchThread(Callable callable) throws InterruptedException, ExecutionException {
+        FutureTask task = new FutureTask(callable);
+        SwingUtilities.invokeLater(task);
+        Object result = task.get();
+        // let the events posted by the scenario run as well
+        SwingUtilities.invokeAndWait(new Runnable() {
+            public void run() {
+            }
+        });
+        return result;
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static void report(List results, String reportFile) throws IOException {
+        System.out.println();
+        System.out.println(format("Scenario", "EDT ms", "Retained KB", "Leaked KB", "Leaked listeners"));
+        PrintWriter csv = new PrintWriter(new FileWriter(reportFile));
+        try {
+            csv.println("scenario,edtMillis,retainedBytes,leakedBytes,leakedListeners,failure");
+            for (Iterator i = results.iterator(); i.hasNext();) {
+                Result result = (Result) i.next();
+                if (result.failure != null) {
+                    System.out.println(result.name + " failed: " + result.failure);
+                    result.failure.printStackTrace();
+                }
+                else {
+                    System.out.println(format(result.name, String.valueOf(result.nanos / 1000000), String
+                            .valueOf(result.retainedBytes / 1024), String.valueOf(result.leakedBytes / 1024), String
+                            .valueOf(result.getLeakedListeners())));
+                }
+                csv.println(result.name + "," + result.nanos / 1000000 + "," + result.retainedBytes + ","
+                        + result.leakedBytes + "," + result.getLeakedListeners() + ","
+                        + (result.failure != null ? result.failure.getClass().getName() : ""));
+            }
+        }
+        finally {
+            csv.close();
+        }
+    }
+
+    private static String format(String name, String millis, String retained, String leaked, String listeners) {
+        StringBuffer line = new StringBuffer(name);
+        while (line.length() < 40) {
+            line.append(' ');
+        }
+        return line.append(pad(millis, 10)).append(pad(retained, 14)).append(pad(leaked, 12))
+                .append(pad(listeners, 18)).toString();
+    }
+
+    private static String pad(String value, int width) {
+        StringBuffer padded = new StringBuffer();
+        for (int i = value.length(); i < width; i++) {
+            padded.append(' ');
+        }
+        return padded.append(value).toString();
+    }
+
+    /**
+     * Measurements of one scenario.
+     */
+    static class Result {
+
+        private final String name;
+
+        private long nanos;
+
+        private long retainedBytes;
+
+        private long leakedBytes;
+
+        private int listenersBefore = -1;
+
+        private int listenersAfter = -1;
+
+        private Throwable failure;
+
+        Result(String name) {
+            this.name = name;
+        }
+
+        int getLeakedListeners() {
+            return listenersBefore < 0 ? 0 : listenersAfter - listenersBefore;
+        }
+    }
+}
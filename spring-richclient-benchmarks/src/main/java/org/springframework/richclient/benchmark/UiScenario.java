@@ -0,0 +1,63 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.benchmark;
+
+/**
+ * A scenario of the UI performance regression suite, run by
+ * {@link UiPerformanceRunner}. All methods are called on the event dispatch
+ * thread. Only {@link #run()} is timed; the heap is measured before
+ * {@link #setUp()}, after {@link #run()} and after {@link #tearDown()}.
+ */
+public abstract class UiScenario {
+
+    private final String name;
+
+    protected UiScenario(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Builds what the scenario needs before it is measured.
+     */
+    protected void setUp() throws Exception {
+    }
+
+    /**
+     * Performs the measured work.
+     */
+    protected abstract void run() throws Exception;
+
+    /**
+     * Drops all references to what the scenario built, so the heap measured
+     * afterwards only contains what has leaked.
+     */
+    protected void tearDown() throws Exception {
+    }
+
+    /**
+     * Returns the number of listeners registered on the long-lived objects of
+     * this scenario, or <code>-1</code> if the scenario does not track them.
+     * The count is taken before and after {@link #run()}; any difference is
+     * reported as a leak.
+     */
+    protected int getListenerCount() {
+        return -1;
+    }
+}
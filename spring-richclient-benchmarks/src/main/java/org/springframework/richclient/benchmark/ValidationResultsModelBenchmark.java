@@ -0,0 +1,105 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.binding.validation.ValidationListener;
+import org.springframework.binding.validation.ValidationMessage;
+import org.springframework.binding.validation.ValidationResults;
+import org.springframework.binding.validation.support.DefaultValidationMessage;
+import org.springframework.binding.validation.support.DefaultValidationResults;
+import org.springframework.binding.validation.support.DefaultValidationResultsModel;
+import org.springframework.richclient.core.Severity;
+
+/**
+ * Cost of updating a {@link DefaultValidationResultsModel} with listeners for
+ * every property, by replacing all results and by adding and removing a
+ * single message.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ValidationResultsModelBenchmark {
+
+    @Param( { "10", "100" })
+    public int messageCount;
+
+    private DefaultValidationResultsModel resultsModel;
+
+    private ValidationResults[] results;
+
+    private int index;
+
+    private ValidationMessage message;
+
+    @Setup
+    public void setUp() {
+        resultsModel = new DefaultValidationResultsModel();
+        results = new ValidationResults[] { createResults("first"), createResults("second") };
+        for (int i = 0; i < messageCount; i++) {
+            resultsModel.addValidationListener("property" + i, new CountingListener());
+        }
+        resultsModel.addValidationListener(new CountingListener());
+        message = new DefaultValidationMessage("property0", Severity.WARNING, "single message");
+    }
+
+    @Benchmark
+    public void updateValidationResults() {
+        index ^= 1;
+        resultsModel.updateValidationResults(results[index]);
+    }
+
+    @Benchmark
+    public void addRemoveMessage() {
+        resultsModel.addMessage(message);
+        resultsModel.removeMessage(message);
+    }
+
+    private ValidationResults createResults(String text) {
+        List messages = new ArrayList(messageCount);
+        for (int i = 0; i < messageCount; i++) {
+            messages.add(new DefaultValidationMessage("property" + i, i % 3 == 0 ? Severity.ERROR : Severity.INFO,
+                    text + " message " + i));
+        }
+        return new DefaultValidationResults(messages);
+    }
+
+    private static class CountingListener implements ValidationListener {
+
+        private int count;
+
+        public void validationResultsChanged(ValidationResults results) {
+            count++;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.benchmark;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.binding.value.support.BufferedValueModel;
+import org.springframework.binding.value.support.ValueHolder;
+
+/**
+ * Cost of a <code>setValue</code> on the value models every form field is built
+ * of, for the common field types and with or without a value listener. Each
+ * invocation alternates between two preallocated values, so any allocation
+ * reported by the GC profiler is made by the value model itself.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ValueModelBenchmark {
+
+    @Param( { "String", "Integer", "Boolean", "BigDecimal" })
+    public String fieldType;
+
+    @Param( { "false", "true" })
+    public boolean listening;
+
+    private Object[] values;
+
+    private int index;
+
+    private ValueHolder valueHolder;
+
+    private BufferedValueModel bufferedValueModel;
+
+    @Setup
+    public void setUp() {
+        BenchmarkSupport.loadApplicationServices();
+        if ("String".equals(fieldType)) {
+            values = new Object[] { "first value", "second value" };
+        }
+        else if ("Integer".equals(fieldType)) {
+            values = new Object[] { new Integer(1000), new Integer(1001) };
+        }
+        else if ("Boolean".equals(fieldType)) {
+            values = new Object[] { Boolean.TRUE, Boolean.FALSE };
+        }
+        else {
+            values = new Object[] { new BigDecimal("10.50"), new BigDecimal("10.75") };
+        }
+        valueHolder = new ValueHolder(values[0]);
+        bufferedValueModel = new BufferedValueModel(new ValueHolder(values[0]));
+        if (listening) {
+            valueHolder.addValueChangeListener(new CountingListener());
+            bufferedValueModel.addValueChangeListener(new CountingListener());
+        }
+    }
+
+    @Benchmark
+    public void valueHolderSetValue() {
+        valueHolder.setValue(nextValue());
+    }
+
+    @Benchmark
+    public void bufferedValueModelSetValue() {
+        bufferedValueModel.setValue(nextValue());
+    }
+
+    private Object nextValue() {
+        index ^= 1;
+        return values[index];
+    }
+
+    private static class CountingListener implements PropertyChangeListener {
+
+        private int count;
+
+        public void propertyChange(PropertyChangeEvent evt) {
+            count++;
+        }
+    }
+}
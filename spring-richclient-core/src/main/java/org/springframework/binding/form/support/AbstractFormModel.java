@@ -67,6 +67,16 @@ import org.springframework.util.CachingMapDecorator;
 public abstract class AbstractFormModel extends AbstractPropertyChangePublisher implements HierarchicalFormModel,
 		ConfigurableFormModel {
 
+	/**
+	 * Name of the property fired when an update is completed. The new value
+	 * is the set of names of the fields whose value changed during the
+	 * update. The event is only delivered to listeners registered for this
+	 * property name, not to listeners for all properties.
+	 *
+	 * @see #beginUpdate()
+	 */
+	public static final String UPDATED_FIELDS_PROPERTY = "updatedFields";
+
 	private String id;
 
 	private final FormModelMediatingValueModel formObjectHolder;
@@ -126,6 +136,12 @@ public abstract class AbstractFormModel extends AbstractPropertyChangePublisher
 
 	private Class defaultInstanceClass;
 
+	private int updateDepth;
+
+	private boolean completingUpdate;
+
+	private final Set updatedFields = new HashSet();
+
 	protected AbstractFormModel() {
 		this(new ValueHolder());
 	}
@@ -180,19 +196,102 @@ public abstract class AbstractFormModel extends AbstractPropertyChangePublisher
 		return getFormObjectHolder().getValue();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 *
+	 * The form object is swapped within an update, so value change events of
+	 * the form properties are only delivered once all properties hold the
+	 * values of the new form object.
+	 *
+	 * @see #beginUpdate()
+	 */
 	public void setFormObject(Object formObject) {
-		setDeliverValueChangeEvents(false, false);
-		if (formObject == null) {
-			handleSetNullFormObject();
+		beginUpdate();
+		try {
+			if (formObject == null) {
+				handleSetNullFormObject();
+			}
+			else {
+				getFormObjectHolder().setValue(formObject);
+				setEnabled(true);
+			}
+			// this will cause all buffered value models to revert
+			// to the new form objects property values
+			commitTrigger.revert();
+			// only the values of the new form object are clean, changes made
+			// later in an enclosing update stay dirty
+			for (Iterator i = mediatingValueModels.values().iterator(); i.hasNext();) {
+				((DirtyTrackingValueModel) i.next()).clearDirty();
+			}
 		}
-		else {
-			getFormObjectHolder().setValue(formObject);
-			setEnabled(true);
+		finally {
+			endUpdate();
+		}
+	}
+
+	/**
+	 * Starts an update of this form model. Until the matching
+	 * {@link #endUpdate()}, value change events of the form object and the
+	 * form properties are held back, so several properties or the whole form
+	 * object can be changed without listeners observing intermediate states.
+	 * Updates may be nested; only the outermost update delivers the events.
+	 */
+	public void beginUpdate() {
+		if (updateDepth++ == 0) {
+			setDeliverValueChangeEvents(false, false);
+		}
+	}
+
+	/**
+	 * Ends an update started by {@link #beginUpdate()}. Ending the outermost
+	 * update delivers the held back value change events, then calls
+	 * {@link #updateCompleted(Set)} once.
+	 */
+	public void endUpdate() {
+		Assert.state(updateDepth > 0, "endUpdate() called without beginUpdate()");
+		if (--updateDepth > 0) {
+			return;
+		}
+		completingUpdate = true;
+		try {
+			setDeliverValueChangeEvents(true, false);
+		}
+		finally {
+			completingUpdate = false;
+		}
+		Set fields = Collections.unmodifiableSet(new HashSet(updatedFields));
+		updatedFields.clear();
+		updateCompleted(fields);
+	}
+
+	/**
+	 * Returns <code>true</code> while an update is in progress, including the
+	 * delivery of its held back events.
+	 */
+	public boolean isUpdating() {
+		return updateDepth > 0 || completingUpdate;
+	}
+
+	/**
+	 * Called once when the outermost update has delivered its events. The
+	 * default implementation fires {@link #UPDATED_FIELDS_PROPERTY} to the
+	 * listeners registered for it if any field changed. Subclasses may
+	 * override this method to process all changes at once, e.g. to validate.
+	 *
+	 * @param updatedFields names of the fields whose value changed during the
+	 * update
+	 */
+	protected void updateCompleted(Set updatedFields) {
+		if (updatedFields.isEmpty()) {
+			return;
+		}
+		PropertyChangeListener[] listeners = getPropertyChangeListeners(UPDATED_FIELDS_PROPERTY);
+		if (listeners.length > 0) {
+			PropertyChangeEvent event = new PropertyChangeEvent(this, UPDATED_FIELDS_PROPERTY, null, updatedFields);
+			for (int i = 0; i < listeners.length; i++) {
+				listeners[i].propertyChange(event);
+			}
 		}
-		// this will cause all buffered value models to revert
-		// to the new form objects property values
-		commitTrigger.revert();
-		setDeliverValueChangeEvents(true, true);
 	}
 
 	/**
@@ -206,8 +305,12 @@ public abstract class AbstractFormModel extends AbstractPropertyChangePublisher
 	 */
 	private void setDeliverValueChangeEvents(boolean deliverValueChangeEvents, boolean clearValueModels) {
 		formObjectHolder.setDeliverValueChangeEvents(deliverValueChangeEvents);
-		for (Iterator i = mediatingValueModels.values().iterator(); i.hasNext();) {
-			FormModelMediatingValueModel valueModel = (FormModelMediatingValueModel) i.next();
+		for (Iterator i = mediatingValueModels.entrySet().iterator(); i.hasNext();) {
+			Map.Entry entry = (Map.Entry) i.next();
+			FormModelMediatingValueModel valueModel = (FormModelMediatingValueModel) entry.getValue();
+			if (deliverValueChangeEvents && valueModel.hasPendingValueChange()) {
+				updatedFields.add(entry.getKey());
+			}
 			valueModel.setDeliverValueChangeEvents(deliverValueChangeEvents);
 			if (clearValueModels)
 				valueModel.clearDirty();
@@ -414,6 +517,23 @@ public abstract class AbstractFormModel extends AbstractPropertyChangePublisher
 		propertyConversionService.addConverter(fromConverter);
 	}
 
+	/**
+	 * Returns the conversion service holding the converters registered for
+	 * the given property, or <code>null</code> if none were registered.
+	 */
+	ConversionService getPropertyConversionService(String propertyName) {
+		return propertyConversionServices.containsKey(propertyName) ? (ConversionService) propertyConversionServices
+				.get(propertyName) : null;
+	}
+
+	/**
+	 * Uses the given conversion service, holding the converters of another
+	 * form model, for the given property.
+	 */
+	void setPropertyConversionService(String propertyName, ConversionService propertyConversionService) {
+		propertyConversionServices.put(propertyName, propertyConversionService);
+	}
+
 	public ValueModel add(String propertyName) {
 		return add(propertyName, createValueModel(propertyName));
 	}
@@ -423,20 +543,37 @@ public abstract class AbstractFormModel extends AbstractPropertyChangePublisher
 		// code in SwingBindingFactory#createBoundListModel
 		// Assert.isTrue(!hasValueModel(formProperty), "A property called '" +
 		// formProperty + "' already exists.");
+		PropertyMetadataAccessStrategy metadataAccessStrategy = getFormObjectPropertyAccessStrategy()
+				.getMetadataAccessStrategy();
+		return add(formProperty, valueModel, metadataAccessStrategy.getPropertyType(formProperty),
+				metadataAccessStrategy.isWriteable(formProperty), metadataAccessStrategy
+						.getAllUserMetadata(formProperty));
+	}
+
+	/**
+	 * Adds the given value model for a property whose metadata is already
+	 * known, without consulting the metadata access strategy. Used by
+	 * {@link FormModelTemplate} to stamp out form models of the same shape.
+	 *
+	 * @param formProperty name of the property
+	 * @param valueModel value model of the property
+	 * @param propertyType type of the property
+	 * @param writeable whether the property is writeable
+	 * @param userMetadata user metadata of the property, may be
+	 * <code>null</code>
+	 * @return the registered value model
+	 */
+	protected ValueModel add(String formProperty, ValueModel valueModel, Class propertyType, boolean writeable,
+			Map userMetadata) {
 		if (valueModel instanceof BufferedValueModel) {
 			((BufferedValueModel) valueModel).setCommitTrigger(commitTrigger);
 		}
 
-		PropertyMetadataAccessStrategy metadataAccessStrategy = getFormObjectPropertyAccessStrategy()
-				.getMetadataAccessStrategy();
-
-		FormModelMediatingValueModel mediatingValueModel = new FormModelMediatingValueModel(valueModel,
-				metadataAccessStrategy.isWriteable(formProperty));
+		FormModelMediatingValueModel mediatingValueModel = new FormModelMediatingValueModel(valueModel, writeable);
 		mediatingValueModels.put(formProperty, mediatingValueModel);
 
-		FieldMetadata metadata = new DefaultFieldMetadata(this, mediatingValueModel, metadataAccessStrategy
-				.getPropertyType(formProperty), !metadataAccessStrategy.isWriteable(formProperty),
-				metadataAccessStrategy.getAllUserMetadata(formProperty));
+		FieldMetadata metadata = new DefaultFieldMetadata(this, mediatingValueModel, propertyType, !writeable,
+				userMetadata);
 		metadata.addPropertyChangeListener(FieldMetadata.DIRTY_PROPERTY, childStateChangeHandler);
 		return add(formProperty, mediatingValueModel, metadata);
 	}
@@ -19,6 +19,7 @@ import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 import org.springframework.beans.PropertyAccessException;
 import org.springframework.binding.MutablePropertyAccessStrategy;
@@ -70,6 +71,8 @@ public class DefaultFormModel extends AbstractFormModel implements ValidatingFor
 
 	private boolean oldHasErrors = false;
 
+	private boolean validationPending = false;
+
 	private Validator validator;
 
 	private BindingErrorMessageProvider bindingErrorMessageProvider = new DefaultBindingErrorMessageProvider();
@@ -310,6 +313,11 @@ public class DefaultFormModel extends AbstractFormModel implements ValidatingFor
 	 * this is not known/available.
 	 */
 	protected void validateAfterPropertyChanged(String formProperty) {
+		if (isUpdating()) {
+			// validate the whole form object once the update is completed
+			validationPending = true;
+			return;
+		}
 		if (isValidating()) {
 			Validator validator = getValidator();
 			if (validator != null) {
@@ -327,6 +335,20 @@ public class DefaultFormModel extends AbstractFormModel implements ValidatingFor
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Validations requested during the update are replaced by a single
+	 * validation of the form object.
+	 */
+	protected void updateCompleted(Set updatedFields) {
+		if (validationPending) {
+			validationPending = false;
+			validateAfterPropertyChanged(null);
+		}
+		super.updateCompleted(updatedFields);
+	}
+
 	protected void raiseBindingError(ValidatingFormValueModel valueModel, Object valueBeingSet, Exception e) {
 		ValidationMessage oldValidationMessage = (ValidationMessage) bindingErrorMessages.get(valueModel);
 		ValidationMessage newValidationMessage = getBindingErrorMessage(valueModel.getFormProperty(), valueBeingSet, e);
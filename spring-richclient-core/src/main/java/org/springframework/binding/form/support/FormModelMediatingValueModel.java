@@ -166,14 +166,30 @@ public class FormModelMediatingValueModel extends AbstractValueModelWrapper impl
 		}
 	}
 
+	/**
+	 * Returns <code>true</code> if event delivery is disabled and the value
+	 * has changed since, i.e. enabling event delivery will fire a value change
+	 * event.
+	 */
+	public boolean hasPendingValueChange() {
+		return !deliverValueChangeEvents
+				&& getValueChangeDetector().hasValueChanged(mediatedValueHolder.getValue(), getValue());
+	}
+
 	public boolean isDirty() {
 		return trackDirty && getValueChangeDetector().hasValueChanged(originalValue, getValue());
 	}
 
+	/**
+	 * Makes the current value the original value. While event delivery is
+	 * disabled, the dirty event is fired when it is enabled again.
+	 */
 	public void clearDirty() {
 		if (isDirty()) {
 			originalValue = getValue();
-			updateDirtyState();
+			if (deliverValueChangeEvents) {
+				updateDirtyState();
+			}
 		}
 	}
 
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.binding.form.support;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.binding.MutablePropertyAccessStrategy;
+import org.springframework.binding.PropertyMetadataAccessStrategy;
+import org.springframework.binding.convert.ConversionService;
+import org.springframework.binding.form.FieldFaceSource;
+import org.springframework.binding.form.FieldMetadata;
+import org.springframework.binding.validation.Validator;
+import org.springframework.binding.value.support.ValueHolder;
+import org.springframework.richclient.util.Assert;
+
+/**
+ * Captures the shape of a configured form model - its fields with their type,
+ * writeability and user metadata, and the converters registered for them -
+ * and stamps out new {@link DefaultFormModel}s of the same shape bound to
+ * other form objects.
+ * <p>
+ * Creating a form model from a template does not introspect the form object
+ * class again, reuses the registered property converters and validates the
+ * new form model once after all fields are added, instead of once per field.
+ * Editors that open the same form many times should create a template from
+ * the first form model and use it for all following ones:
+ *
+ * <pre>
+ * FormModelTemplate template = new FormModelTemplate(configuredFormModel);
+ * ...
+ * DefaultFormModel formModel = template.createFormModel(customer);
+ * </pre>
+ *
+ * Only fields backed by a readable property of the form object are captured;
+ * fields added with a custom value model, such as
+ * {@link AbstractFormModel#addMethod(String, String) derived fields}, must be
+ * added to each new form model again. Validators are bound to a form model and
+ * are not copied; a validator shared by all new form models may be set with
+ * {@link #setValidator(Validator)}.
+ */
+public class FormModelTemplate {
+
+	private final MutablePropertyAccessStrategy prototypeAccessStrategy;
+
+	private final boolean buffered;
+
+	private final String id;
+
+	private final Class defaultInstanceClass;
+
+	private final List fields;
+
+	private Validator validator;
+
+	private ConversionService conversionService;
+
+	private FieldFaceSource fieldFaceSource;
+
+	/**
+	 * Creates a template capturing the fields of the given form model.
+	 *
+	 * @param prototype the configured form model
+	 */
+	public FormModelTemplate(AbstractFormModel prototype) {
+		Assert.required(prototype, "prototype");
+		this.prototypeAccessStrategy = prototype.getFormObjectPropertyAccessStrategy();
+		this.buffered = prototype.isBuffered();
+		this.id = prototype.getId();
+		this.defaultInstanceClass = prototype.getDefaultInstanceClass();
+
+		PropertyMetadataAccessStrategy metadataAccessStrategy = prototypeAccessStrategy.getMetadataAccessStrategy();
+		List fields = new ArrayList();
+		for (Iterator i = prototype.getFieldNames().iterator(); i.hasNext();) {
+			String fieldName = (String) i.next();
+			if (metadataAccessStrategy.isReadable(fieldName)) {
+				FieldMetadata metadata = prototype.getFieldMetadata(fieldName);
+				fields.add(new FieldTemplate(fieldName, metadata.getPropertyType(), metadataAccessStrategy
+						.isWriteable(fieldName), metadata.getAllUserMetadata(), prototype
+						.getPropertyConversionService(fieldName)));
+			}
+		}
+		this.fields = Collections.unmodifiableList(fields);
+	}
+
+	/**
+	 * Returns the names of the captured fields.
+	 */
+	public List getFieldNames() {
+		List fieldNames = new ArrayList(fields.size());
+		for (Iterator i = fields.iterator(); i.hasNext();) {
+			fieldNames.add(((FieldTemplate) i.next()).name);
+		}
+		return fieldNames;
+	}
+
+	/**
+	 * Sets the validator used by all form models created from this template.
+	 * If <code>null</code>, each form model creates its default validator.
+	 */
+	public void setValidator(Validator validator) {
+		this.validator = validator;
+	}
+
+	/**
+	 * Sets the conversion service used by all form models created from this
+	 * template. If <code>null</code>, the application's conversion service is
+	 * used.
+	 */
+	public void setConversionService(ConversionService conversionService) {
+		this.conversionService = conversionService;
+	}
+
+	/**
+	 * Sets the field face source used by all form models created from this
+	 * template. If <code>null</code>, the application's field face source is
+	 * used.
+	 */
+	public void setFieldFaceSource(FieldFaceSource fieldFaceSource) {
+		this.fieldFaceSource = fieldFaceSource;
+	}
+
+	/**
+	 * Creates a new form model with the captured fields, bound to the given
+	 * form object.
+	 *
+	 * @param formObject the form object, must be of the same class as the
+	 * form object of the prototype
+	 * @return the new form model
+	 */
+	public DefaultFormModel createFormModel(Object formObject) {
+		DefaultFormModel formModel = createFormModel(prototypeAccessStrategy
+				.newPropertyAccessStrategy(new ValueHolder(formObject)), buffered);
+		formModel.setId(id);
+		if (defaultInstanceClass != null) {
+			formModel.setDefaultInstanceClass(defaultInstanceClass);
+		}
+		if (conversionService != null) {
+			formModel.setConversionService(conversionService);
+		}
+		if (fieldFaceSource != null) {
+			formModel.setFieldFaceSource(fieldFaceSource);
+		}
+
+		// validate once all fields are added, not after each one
+		formModel.beginUpdate();
+		try {
+			if (validator != null) {
+				formModel.setValidator(validator);
+			}
+			for (Iterator i = fields.iterator(); i.hasNext();) {
+				FieldTemplate field = (FieldTemplate) i.next();
+				if (field.propertyConversionService != null) {
+					formModel.setPropertyConversionService(field.name, field.propertyConversionService);
+				}
+				formModel.add(field.name, formModel.createValueModel(field.name), field.propertyType,
+						field.writeable, field.userMetadata);
+			}
+		}
+		finally {
+			formModel.endUpdate();
+		}
+		return formModel;
+	}
+
+	/**
+	 * Creates the empty form model. Subclasses may override this method to
+	 * create a subclass of <code>DefaultFormModel</code>.
+	 *
+	 * @param propertyAccessStrategy strategy giving access to the new form
+	 * object
+	 * @param buffered whether the prototype was buffered
+	 */
+	protected DefaultFormModel createFormModel(MutablePropertyAccessStrategy propertyAccessStrategy, boolean buffered) {
+		return new DefaultFormModel(propertyAccessStrategy, buffered);
+	}
+
+	/**
+	 * The captured shape of a single field.
+	 */
+	private static class FieldTemplate {
+
+		private final String name;
+
+		private final Class propertyType;
+
+		private final boolean writeable;
+
+		private final Map userMetadata;
+
+		private final ConversionService propertyConversionService;
+
+		FieldTemplate(String name, Class propertyType, boolean writeable, Map userMetadata,
+				ConversionService propertyConversionService) {
+			this.name = name;
+			this.propertyType = propertyType;
+			this.writeable = writeable;
+			this.userMetadata = userMetadata != null ? new HashMap(userMetadata) : null;
+			this.propertyConversionService = propertyConversionService;
+		}
+	}
+}
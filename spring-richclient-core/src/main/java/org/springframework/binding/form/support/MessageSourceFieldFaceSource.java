@@ -15,20 +15,47 @@
  */
 package org.springframework.binding.form.support;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+
 import javax.swing.Icon;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.binding.form.FieldFace;
 import org.springframework.binding.form.FormModel;
 import org.springframework.context.NoSuchMessageException;
+import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
 import org.springframework.context.support.MessageSourceAccessor;
 import org.springframework.core.ReflectiveVisitorHelper;
+import org.springframework.core.io.Resource;
 import org.springframework.richclient.application.ApplicationServices;
 import org.springframework.richclient.application.ApplicationServicesLocator;
 import org.springframework.richclient.core.LabelInfo;
 import org.springframework.richclient.image.IconSource;
+import org.springframework.richclient.task.DefaultTaskExecutionService;
+import org.springframework.richclient.task.TaskExecutionService;
 
 /**
  * An implementation of FieldFaceSource that resolves the FieldFace from the <code>MessageSourceAccessor</code>
@@ -40,10 +67,22 @@ import org.springframework.richclient.image.IconSource;
  * generated by a {@link MessageCodeStrategy}. If no other {@link MessageCodeStrategy} is defined an instance of
  * {@link DefaultMessageCodeStrategy} will be used
  * 
+ * <p>
+ * The resolved messages are kept per locale, form id and field, so they are shared by all form models with the same
+ * id. They may be resolved in the background ahead of time using {@link #prewarm(Map)}. If a
+ * {@link #setSnapshotDirectory(File) snapshot directory} and the {@link #setMessageResources(Resource[]) message
+ * resources} are set, the resolved messages are also saved to a file per locale and checksum of the message resources,
+ * and loaded from there on the next launch as long as the message resources did not change.
+ * 
+ * <p>
+ * The resolved messages are kept until {@link #clearResolvedMessages()} or
+ * {@link #setMessageResources(Resource[])} is called. Changes picked up by a reloadable message source are therefore
+ * not shown before then; call {@link #clearResolvedMessages()} after the message bundles have been reloaded.
+ * 
  * @author Oliver Hutchison
  * @author Mathias Broekelmann
  */
-public class MessageSourceFieldFaceSource extends CachingFieldFaceSource {
+public class MessageSourceFieldFaceSource extends CachingFieldFaceSource implements DisposableBean {
 
     private static final Log log = LogFactory.getLog(MessageSourceFieldFaceSource.class);
 
@@ -80,6 +119,16 @@ public class MessageSourceFieldFaceSource extends CachingFieldFaceSource {
 
     private final ReflectiveVisitorHelper visitorHelper = new ReflectiveVisitorHelper();
 
+    private final Map resolvedMessagesByLocale = new HashMap();
+
+    private TaskExecutionService taskExecutionService;
+
+    private File snapshotDirectory;
+
+    private Resource[] messageResources;
+
+    private Long messageResourcesChecksum;
+
     /**
      * Constructs a new MessageSourcePropertyFaceDescriptorSource.
      */
@@ -119,6 +168,50 @@ public class MessageSourceFieldFaceSource extends CachingFieldFaceSource {
         return iconSource;
     }
 
+    /**
+     * Set the service that runs {@link #prewarm(Map)}. Defaults to the application's task execution service.
+     */
+    public void setTaskExecutionService(TaskExecutionService taskExecutionService) {
+        this.taskExecutionService = taskExecutionService;
+    }
+
+    protected TaskExecutionService getTaskExecutionService() {
+        if (taskExecutionService == null) {
+            taskExecutionService = DefaultTaskExecutionService.locate();
+        }
+        return taskExecutionService;
+    }
+
+    /**
+     * Set the directory to save the resolved messages to. The snapshot is only used if the message resources are set
+     * as well.
+     * 
+     * @see #setMessageResources(Resource[])
+     */
+    public void setSnapshotDirectory(File snapshotDirectory) {
+        this.snapshotDirectory = snapshotDirectory;
+    }
+
+    /**
+     * Set the resources of the message bundles. Their checksum identifies the snapshot of the resolved messages, so a
+     * snapshot is discarded as soon as one of the bundles changes.
+     * 
+     * @see #setSnapshotDirectory(File)
+     */
+    public synchronized void setMessageResources(Resource[] messageResources) {
+        this.messageResources = messageResources;
+        clearResolvedMessages();
+    }
+
+    /**
+     * Discard the resolved messages of all locales, e.g. after the message bundles have been reloaded. The checksum of
+     * the message resources is computed again, so a snapshot of the old bundles is not used.
+     */
+    public synchronized void clearResolvedMessages() {
+        resolvedMessagesByLocale.clear();
+        messageResourcesChecksum = null;
+    }
+
     /**
      * Returns the value of the required property of the FieldFace. Delegates to the getMessageKeys for the message key
      * generation strategy. This method uses </code>[contextId + "." + ] fieldPath [ + "." + faceDescriptorProperty[0]]</code>
@@ -157,6 +250,31 @@ public class MessageSourceFieldFaceSource extends CachingFieldFaceSource {
     }
 
     protected FieldFace loadFieldFace(String field, String contextId) {
+        FieldFaceMessages messages = getFieldFaceMessages(contextId, field);
+        Icon icon = null;
+        if (messages.iconName != null) {
+            icon = getIconSource().getIcon(messages.iconName);
+        }
+        return new DefaultFieldFace(messages.displayName, messages.caption, messages.description, LabelInfo
+                .valueOf(messages.encodedLabel), icon);
+    }
+
+    /**
+     * Returns the messages of the FieldFace for the current locale, resolving them only if they have not been
+     * resolved before or loaded from a snapshot.
+     */
+    private FieldFaceMessages getFieldFaceMessages(String contextId, String field) {
+        Map resolvedMessages = getResolvedMessages(LocaleContextHolder.getLocale());
+        List key = Arrays.asList(new String[] { contextId, field });
+        FieldFaceMessages messages = (FieldFaceMessages) resolvedMessages.get(key);
+        if (messages == null) {
+            messages = resolveFieldFaceMessages(contextId, field);
+            resolvedMessages.put(key, messages);
+        }
+        return messages;
+    }
+
+    private FieldFaceMessages resolveFieldFaceMessages(String contextId, String field) {
         String caption = getMessage(contextId, field, CAPTION_PROPERTY, null);
         String description = getMessage(contextId, field, DESCRIPTION_PROPERTY, null);
         String encodedLabel = getMessage(contextId, field, ENCODED_LABEL_PROPERTY);
@@ -165,13 +283,9 @@ public class MessageSourceFieldFaceSource extends CachingFieldFaceSource {
             encodedLabel = getMessage(contextId, field, null);
         }
         String iconName = getMessage(contextId, field, ICON_PROPERTY, null);
-        Icon icon = null;
-        if (iconName != null) {
-            icon = getIconSource().getIcon(iconName);
-        }
         LabelInfo labelInfo = LabelInfo.valueOf(encodedLabel);
         String displayName = getMessage(contextId, field, DISPLAY_NAME_PROPERTY, labelInfo.getText());
-        return new DefaultFieldFace(displayName, caption, description, labelInfo, icon);
+        return new FieldFaceMessages(displayName, caption, description, encodedLabel, iconName);
     }
 
     protected FieldFace loadFieldFace(String field, Object context) {
@@ -190,6 +304,170 @@ public class MessageSourceFieldFaceSource extends CachingFieldFaceSource {
         this.messageKeyStrategy = messageKeyStrategy;
     }
 
+    private synchronized Map getResolvedMessages(Locale locale) {
+        Map resolvedMessages = (Map) resolvedMessagesByLocale.get(locale);
+        if (resolvedMessages == null) {
+            resolvedMessages = new ConcurrentHashMap();
+            loadSnapshot(locale, resolvedMessages);
+            resolvedMessagesByLocale.put(locale, resolvedMessages);
+        }
+        return resolvedMessages;
+    }
+
+    /**
+     * Resolves the messages of the FieldFaces of the given form model in the background.
+     * 
+     * @see #prewarm(Map)
+     */
+    public Future prewarm(FormModel formModel) {
+        return prewarm(Collections.singletonMap(formModel.getId(), new ArrayList(formModel.getFieldNames())));
+    }
+
+    /**
+     * Resolves the messages of the FieldFaces of the given forms in the background, typically at startup, so opening
+     * these forms later does not have to. The messages are resolved for the locale of the calling thread, their icons
+     * are loaded as well, and the snapshot is saved once all messages are resolved.
+     * 
+     * @param fieldNamesByFormId map of form ids to the collection of their field paths
+     * @return the future of the background task
+     */
+    public Future prewarm(Map fieldNamesByFormId) {
+        final Locale locale = LocaleContextHolder.getLocale();
+        final Map fields = new HashMap(fieldNamesByFormId);
+        return getTaskExecutionService().submit(new Callable() {
+            public Object call() throws Exception {
+                Locale previousLocale = LocaleContextHolder.getLocale();
+                LocaleContextHolder.setLocale(locale);
+                try {
+                    for (Iterator i = fields.entrySet().iterator(); i.hasNext();) {
+                        Map.Entry entry = (Map.Entry) i.next();
+                        String formId = (String) entry.getKey();
+                        for (Iterator j = ((Collection) entry.getValue()).iterator(); j.hasNext();) {
+                            FieldFaceMessages messages = getFieldFaceMessages(formId, (String) j.next());
+                            if (messages.iconName != null) {
+                                getIconSource().getIcon(messages.iconName);
+                            }
+                        }
+                    }
+                    saveSnapshot(locale);
+                }
+                finally {
+                    LocaleContextHolder.setLocale(previousLocale);
+                }
+                return null;
+            }
+        }, TaskExecutionService.CPU_TASK, TaskExecutionService.LOW_PRIORITY, null);
+    }
+
+    /**
+     * Saves the resolved messages of all locales to the snapshot directory, if snapshots are enabled.
+     */
+    public void saveSnapshot() {
+        Locale[] locales;
+        synchronized (this) {
+            locales = (Locale[]) resolvedMessagesByLocale.keySet().toArray(new Locale[0]);
+        }
+        for (int i = 0; i < locales.length; i++) {
+            saveSnapshot(locales[i]);
+        }
+    }
+
+    public void destroy() {
+        saveSnapshot();
+    }
+
+    private void saveSnapshot(Locale locale) {
+        File snapshotFile = getSnapshotFile(locale);
+        if (snapshotFile == null) {
+            return;
+        }
+        File tempFile = new File(snapshotFile.getPath() + ".tmp");
+        try {
+            ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(tempFile));
+            try {
+                out.writeObject(new HashMap(getResolvedMessages(locale)));
+            }
+            finally {
+                out.close();
+            }
+            if (!tempFile.renameTo(snapshotFile)) {
+                snapshotFile.delete();
+                tempFile.renameTo(snapshotFile);
+            }
+        }
+        catch (IOException e) {
+            log.warn("Unable to save field face snapshot " + snapshotFile, e);
+            tempFile.delete();
+        }
+    }
+
+    private void loadSnapshot(Locale locale, Map resolvedMessages) {
+        File snapshotFile = getSnapshotFile(locale);
+        if (snapshotFile == null || !snapshotFile.isFile()) {
+            return;
+        }
+        try {
+            ObjectInputStream in = new ObjectInputStream(new FileInputStream(snapshotFile));
+            try {
+                resolvedMessages.putAll((Map) in.readObject());
+            }
+            finally {
+                in.close();
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("Loaded " + resolvedMessages.size() + " field faces from snapshot " + snapshotFile);
+            }
+        }
+        catch (Exception e) {
+            log.warn("Ignoring unreadable field face snapshot " + snapshotFile, e);
+        }
+    }
+
+    /**
+     * Returns the snapshot file of the given locale and the current message resources, or <code>null</code> if
+     * snapshots are disabled.
+     */
+    private File getSnapshotFile(Locale locale) {
+        if (snapshotDirectory == null || messageResources == null) {
+            return null;
+        }
+        Long checksum = getMessageResourcesChecksum();
+        if (checksum == null) {
+            return null;
+        }
+        return new File(snapshotDirectory, "fieldfaces_" + locale + "_" + Long.toHexString(checksum.longValue())
+                + ".ser");
+    }
+
+    private synchronized Long getMessageResourcesChecksum() {
+        if (messageResourcesChecksum == null) {
+            CRC32 checksum = new CRC32();
+            byte[] buffer = new byte[4096];
+            try {
+                for (int i = 0; i < messageResources.length; i++) {
+                    if (!messageResources[i].exists()) {
+                        continue;
+                    }
+                    InputStream in = messageResources[i].getInputStream();
+                    try {
+                        for (int n; (n = in.read(buffer)) != -1;) {
+                            checksum.update(buffer, 0, n);
+                        }
+                    }
+                    finally {
+                        in.close();
+                    }
+                }
+            }
+            catch (IOException e) {
+                log.warn("Unable to compute the checksum of the message resources, snapshot disabled", e);
+                return null;
+            }
+            messageResourcesChecksum = Long.valueOf(checksum.getValue());
+        }
+        return messageResourcesChecksum;
+    }
+
     // visit methods for getting a context id from various context instances
 
     String visit(FormModel formModel) {
@@ -203,4 +481,32 @@ public class MessageSourceFieldFaceSource extends CachingFieldFaceSource {
     String visitNull() {
         return null;
     }
+
+    /**
+     * The resolved messages of a FieldFace. Icons are kept by name as they are neither serializable nor locale
+     * specific.
+     */
+    private static class FieldFaceMessages implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String displayName;
+
+        private final String caption;
+
+        private final String description;
+
+        private final String encodedLabel;
+
+        private final String iconName;
+
+        FieldFaceMessages(String displayName, String caption, String description, String encodedLabel,
+                String iconName) {
+            this.displayName = displayName;
+            this.caption = caption;
+            this.description = description;
+            this.encodedLabel = encodedLabel;
+            this.iconName = iconName;
+        }
+    }
 }
\ No newline at end of file
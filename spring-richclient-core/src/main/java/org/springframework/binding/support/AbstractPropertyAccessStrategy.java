@@ -17,6 +17,7 @@ package org.springframework.binding.support;
 
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
+import java.lang.ref.WeakReference;
 import java.util.Map;
 
 import org.springframework.beans.BeansException;
@@ -51,6 +52,8 @@ public abstract class AbstractPropertyAccessStrategy implements MutablePropertyA
 
 	private final PropertyMetadataAccessStrategy metaAspectAccessor;
 
+	private boolean lazyBeanPropertyListeners = false;
+
 	/**
 	 * Creates a new instance of AbstractPropertyAccessStrategy that will
 	 * provide access to the properties of the provided object.
@@ -93,6 +96,22 @@ public abstract class AbstractPropertyAccessStrategy implements MutablePropertyA
 		this.metaAspectAccessor = new PropertyMetaAspectAccessor();
 	}
 
+	/**
+	 * Sets whether the value models of this strategy only listen to bound
+	 * properties of the bean while they have listeners themselves. This saves
+	 * registering a listener on every bean when many value models are
+	 * created but few are observed, e.g. for table rows. Child strategies
+	 * share the value models, and so this setting, of their root strategy.
+	 * Defaults to <code>false</code>.
+	 */
+	public void setLazyBeanPropertyListeners(boolean lazyBeanPropertyListeners) {
+		this.lazyBeanPropertyListeners = lazyBeanPropertyListeners;
+	}
+
+	public boolean isLazyBeanPropertyListeners() {
+		return lazyBeanPropertyListeners;
+	}
+
 	/**
 	 * Subclasses may override this method to supply user metadata for the
 	 * specified <code>propertyPath</code> and <code>key</code>. The
@@ -125,6 +144,40 @@ public abstract class AbstractPropertyAccessStrategy implements MutablePropertyA
 		return null;
 	}
 
+	/**
+	 * Subclasses may override this method to supply the type of the property
+	 * at the specified <code>propertyPath</code> without going through the
+	 * <code>PropertyAccessor</code>. The default implementation asks the
+	 * <code>PropertyAccessor</code>.
+	 *
+	 * @param propertyPath path of property relative to this bean
+	 */
+	protected Class getPropertyTypeFor(String propertyPath) {
+		return getPropertyAccessor().getPropertyType(getFullPropertyPath(propertyPath));
+	}
+
+	/**
+	 * Subclasses may override this method to determine whether the property
+	 * at the specified <code>propertyPath</code> is readable. The default
+	 * implementation asks the <code>PropertyAccessor</code>.
+	 *
+	 * @param propertyPath path of property relative to this bean
+	 */
+	protected boolean isReadablePropertyFor(String propertyPath) {
+		return getPropertyAccessor().isReadableProperty(getFullPropertyPath(propertyPath));
+	}
+
+	/**
+	 * Subclasses may override this method to determine whether the property
+	 * at the specified <code>propertyPath</code> is writeable. The default
+	 * implementation asks the <code>PropertyAccessor</code>.
+	 *
+	 * @param propertyPath path of property relative to this bean
+	 */
+	protected boolean isWriteablePropertyFor(String propertyPath) {
+		return getPropertyAccessor().isWritableProperty(getFullPropertyPath(propertyPath));
+	}
+
 	protected abstract PropertyAccessor getPropertyAccessor();
 
 	public ValueModel getDomainObjectHolder() {
@@ -318,12 +371,28 @@ public abstract class AbstractPropertyAccessStrategy implements MutablePropertyA
 			}
 		}
 
+		/**
+		 * Starts or stops listening to the parent JavaBean when the first
+		 * listener is added or the last one removed.
+		 */
+		protected void propertyChangeListenersChanged() {
+			if (lazyBeanPropertyListeners) {
+				boolean wasListening = beanPropertyChangeListener != null;
+				updateBeanPropertyChangeListener();
+				if (!wasListening && beanPropertyChangeListener != null
+						&& getPropertyAccessor().isReadableProperty(propertyPath)) {
+					// changes made while nobody listened were not tracked
+					savedPropertyValue = getPropertyAccessor().getPropertyValue(propertyPath);
+				}
+			}
+		}
+
 		/**
 		 * If the parent JavaBean supports property change notification register
 		 * this class as a property change listener.
 		 */
 		private synchronized void updateBeanPropertyChangeListener() {
-			final Object currentParentObject = parentValueModel.getValue();
+			final Object currentParentObject = isListeningToBean() ? parentValueModel.getValue() : null;
 			if (currentParentObject != savedParentObject) {
 				// remove PropertyChangeListener from old parent
 				if (beanPropertyChangeListener != null) {
@@ -334,35 +403,66 @@ public abstract class AbstractPropertyAccessStrategy implements MutablePropertyA
 				// install PropertyChangeListener on new parent
 				if (currentParentObject != null
 						&& PropertyChangeSupportUtils.supportsBoundProperties(currentParentObject.getClass())) {
-					beanPropertyChangeListener = new PropertyChangeListener() {
-						public void propertyChange(PropertyChangeEvent evt) {
-							propertyValueChanged();
-						}
-					};
+					beanPropertyChangeListener = new WeakBeanPropertyChangeListener(this, currentParentObject);
 					PropertyChangeSupportUtils.addPropertyChangeListener(currentParentObject, propertyName,
 							beanPropertyChangeListener);
 				}
 				savedParentObject = currentParentObject;
 			}
 		}
+
+		private boolean isListeningToBean() {
+			return !lazyBeanPropertyListeners || hasPropertyChangeListeners(VALUE_PROPERTY);
+		}
+	}
+
+	/**
+	 * Listener registered on a JavaBean on behalf of a value model. Only holds
+	 * a weak reference to the value model, so a bean that outlives its form
+	 * does not keep the value models of the form alive; once the value model
+	 * has been collected the listener removes itself on the next event.
+	 */
+	private static class WeakBeanPropertyChangeListener implements PropertyChangeListener {
+
+		private final WeakReference valueModelReference;
+
+		private final Object bean;
+
+		private final String propertyName;
+
+		public WeakBeanPropertyChangeListener(PropertyValueModel valueModel, Object bean) {
+			this.valueModelReference = new WeakReference(valueModel);
+			this.bean = bean;
+			this.propertyName = valueModel.propertyName;
+		}
+
+		public void propertyChange(PropertyChangeEvent evt) {
+			PropertyValueModel valueModel = (PropertyValueModel) valueModelReference.get();
+			if (valueModel != null) {
+				valueModel.propertyValueChanged();
+			}
+			else {
+				PropertyChangeSupportUtils.removePropertyChangeListener(bean, propertyName, this);
+			}
+		}
 	}
 
 	/**
 	 * Implementation of PropertyMetadataAccessStrategy that simply delegates to
-	 * the beanWrapper.
+	 * the enclosing strategy.
 	 */
 	private class PropertyMetaAspectAccessor implements PropertyMetadataAccessStrategy {
 
 		public Class getPropertyType(String propertyPath) {
-			return getPropertyAccessor().getPropertyType(getFullPropertyPath(propertyPath));
+			return getPropertyTypeFor(propertyPath);
 		}
 
 		public boolean isReadable(String propertyPath) {
-			return getPropertyAccessor().isReadableProperty(getFullPropertyPath(propertyPath));
+			return isReadablePropertyFor(propertyPath);
 		}
 
 		public boolean isWriteable(String propertyPath) {
-			return getPropertyAccessor().isWritableProperty(getFullPropertyPath(propertyPath));
+			return isWriteablePropertyFor(propertyPath);
 		}
 
 		public Object getUserMetadata(String propertyPath, String key) {
@@ -44,6 +44,8 @@ import org.springframework.util.Assert;
  * @since May 8, 2006 1:57:46 PM
  */
 public class AnnotationAwareBeanPropertyAccessStrategy extends BeanPropertyAccessStrategy {
+    private static final AnnotationTranslator DEFAULT_ANNOTATION_TRANSLATOR = new ReflectionAnnotationTranslator();
+
     private AnnotationTranslator annotationTranslator;
 
     public AnnotationAwareBeanPropertyAccessStrategy(Object bean) {
@@ -71,17 +73,21 @@ public class AnnotationAwareBeanPropertyAccessStrategy extends BeanPropertyAcces
      * Uses the intalled {@link #getAnnotationTranslator annotation translator}
      * to "parse" annotations to their key + value pair components.
      * <p/>
-     * Note that currently annotations are retranslated and the returned map
-     * is rebuilt on every invocation of this method.  No caching is attempted
-     * because the current use case of this method is a single call for each
-     * property during FormModel construction.  If this use case or usage
-     * pattern should be changed, then we may want to consider caching the
-     * result of this method.
+     * The annotations of simple properties are read once per class and kept
+     * in the shared {@link PropertyMetadataRegistry}, together with their
+     * translation by the default translator.  Reopening a form on the same
+     * class therefore does not scan the getters and setters again.  The
+     * returned map is a new instance on every invocation.
      *
      * @param propertyPath
      */
     @Override
     protected Map<String,Object> getAllUserMetadataFor(final String propertyPath) {
+        final PropertyMetadataRegistry.PropertyMetadata metadata = getRegisteredPropertyMetadata(propertyPath);
+        if(metadata != null) {
+            return metadata.getUserMetadata(getAnnotationTranslator());
+        }
+
         final PropertyDescriptor pd = getBeanWrapper().getPropertyDescriptor(propertyPath);
         Assert.notNull(pd);
         
@@ -107,7 +113,7 @@ public class AnnotationAwareBeanPropertyAccessStrategy extends BeanPropertyAcces
 
     public AnnotationTranslator getAnnotationTranslator() {
         if(this.annotationTranslator == null) {
-            this.annotationTranslator = new ReflectionAnnotationTranslator();
+            this.annotationTranslator = DEFAULT_ANNOTATION_TRANSLATOR;
         }
         return annotationTranslator;
     }
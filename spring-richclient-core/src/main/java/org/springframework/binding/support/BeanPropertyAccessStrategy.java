@@ -22,6 +22,7 @@ import org.springframework.beans.PropertyAccessor;
 import org.springframework.binding.MutablePropertyAccessStrategy;
 import org.springframework.binding.value.ValueModel;
 import org.springframework.binding.value.support.ValueHolder;
+import org.springframework.util.CachingMapDecorator;
 
 /**
  * An implementation of <code>MutablePropertyAccessStrategy</code> that provides access 
@@ -30,6 +31,10 @@ import org.springframework.binding.value.support.ValueHolder;
  * <p>As this class delegates to a <code>BeanWrapper</code> for property access, there is 
  * full support for <b>nested properties</b>, enabling the setting/getting
  * of properties on subproperties to an unlimited depth.
+ * 
+ * <p>The type, readability and writeability of simple properties are looked up in the
+ * shared {@link PropertyMetadataRegistry}, so a class is only introspected once however
+ * many strategies access its instances.
  *   
  * @author Oliver Hutchison
  * @author Arne Limburg
@@ -39,6 +44,8 @@ public class BeanPropertyAccessStrategy extends AbstractPropertyAccessStrategy {
 
     private final BeanWrapper beanWrapper;
 
+    private final ChildStrategyCache childStrategies;
+
     /**
      * Creates a new instance of BeanPropertyAccessStrategy that will provide access
      * to the properties of the provided JavaBean.
@@ -60,6 +67,7 @@ public class BeanPropertyAccessStrategy extends AbstractPropertyAccessStrategy {
     	super(domainObjectHolder);
         this.beanWrapper = new BeanWrapperImpl(false);
         this.beanWrapper.setWrappedInstance(domainObjectHolder.getValue());
+        this.childStrategies = new ChildStrategyCache();
     }
 
     /**
@@ -73,6 +81,7 @@ public class BeanPropertyAccessStrategy extends AbstractPropertyAccessStrategy {
     protected BeanPropertyAccessStrategy(BeanPropertyAccessStrategy parent, String basePropertyPath) {
     	super(parent, basePropertyPath);
         this.beanWrapper = parent.beanWrapper;
+        this.childStrategies = parent.childStrategies;
     }
 
     /**
@@ -91,8 +100,44 @@ public class BeanPropertyAccessStrategy extends AbstractPropertyAccessStrategy {
     	return beanWrapper;
     }
   
+    /**
+     * Returns the registered metadata of the given property of the current domain object.
+     * @param propertyPath path of property relative to this bean
+     * @return the metadata, or <code>null</code> if the path is not a simple property
+     * name, there is no domain object or its class has no such property
+     */
+    protected PropertyMetadataRegistry.PropertyMetadata getRegisteredPropertyMetadata(String propertyPath) {
+        if (!PropertyMetadataRegistry.isSimplePropertyName(propertyPath)) {
+            return null;
+        }
+        Object domainObject = getDomainObject();
+        if (domainObject == null) {
+            return null;
+        }
+        return PropertyMetadataRegistry.getInstance().getPropertyMetadata(domainObject.getClass(), propertyPath);
+    }
+
+    protected Class getPropertyTypeFor(String propertyPath) {
+        PropertyMetadataRegistry.PropertyMetadata metadata = getRegisteredPropertyMetadata(propertyPath);
+        return metadata != null ? metadata.getPropertyType() : super.getPropertyTypeFor(propertyPath);
+    }
+
+    protected boolean isReadablePropertyFor(String propertyPath) {
+        PropertyMetadataRegistry.PropertyMetadata metadata = getRegisteredPropertyMetadata(propertyPath);
+        return metadata != null ? metadata.isReadable() : super.isReadablePropertyFor(propertyPath);
+    }
+
+    protected boolean isWriteablePropertyFor(String propertyPath) {
+        PropertyMetadataRegistry.PropertyMetadata metadata = getRegisteredPropertyMetadata(propertyPath);
+        return metadata != null ? metadata.isWriteable() : super.isWriteablePropertyFor(propertyPath);
+    }
+
+    /**
+     * Returns the strategy for the given path. Strategies are created once per path and
+     * shared by this strategy and all its children.
+     */
     public MutablePropertyAccessStrategy getPropertyAccessStrategyForPath(String propertyPath) throws BeansException {
-        return new BeanPropertyAccessStrategy(this, getFullPropertyPath(propertyPath));
+        return (MutablePropertyAccessStrategy) childStrategies.get(getFullPropertyPath(propertyPath));
     }
 
     public MutablePropertyAccessStrategy newPropertyAccessStrategy(ValueModel domainObjectHolder) {
@@ -102,4 +147,14 @@ public class BeanPropertyAccessStrategy extends AbstractPropertyAccessStrategy {
     protected void domainObjectChanged() {
     	beanWrapper.setWrappedInstance(getDomainObject());
     }
+
+    /**
+     * A cache of the child strategies created for specific property paths.
+     */
+    private class ChildStrategyCache extends CachingMapDecorator {
+
+        protected Object create(Object fullPropertyPath) {
+            return new BeanPropertyAccessStrategy(BeanPropertyAccessStrategy.this, (String) fullPropertyPath);
+        }
+    }
 }
\ No newline at end of file
@@ -35,12 +35,6 @@ import org.springframework.util.Assert;
  */
 public abstract class PropertyChangeSupportUtils {
 
-    /**
-     * Holds the class parameter list that is used to lookup
-     * the adder and remover methods for PropertyChangeListeners.
-     */
-    private static final Class[] NAMED_PCL_PARAMS = new Class[] {String.class, PropertyChangeListener.class};
-
     /**
      * Checks and answers whether the given class supports bound properties, 
      * i.e. it provides a pair of bound property event listener registration methods:
@@ -147,32 +141,26 @@ public abstract class PropertyChangeSupportUtils {
     /**
      * Looks up and returns the method that adds a PropertyChangeListener 
      * for a specified property name to instances of the given class.
+     * The lookup is cached in the {@link PropertyMetadataRegistry}.
      * 
      * @param beanClass   the class that provides the adder method
      * @return the method that adds the PropertyChangeListeners
      */
     private static Method getNamedPCLAdder(Class beanClass) {
-        try {
-            return beanClass.getMethod("addPropertyChangeListener", NAMED_PCL_PARAMS);
-        }
-        catch (NoSuchMethodException e) {
-            return null;
-        }
+        return PropertyMetadataRegistry.getInstance().getClassMetadata(beanClass)
+                .getNamedPropertyChangeListenerAdder();
     }
 
     /**
      * Looks up and returns the method that removes a PropertyChangeListener 
      * for a specified property name from instances of the given class.
+     * The lookup is cached in the {@link PropertyMetadataRegistry}.
      * 
      * @param beanClass   the class that provides the remover method
      * @return the method that removes the PropertyChangeListeners
      */
     private static Method getNamedPCLRemover(Class beanClass) {
-        try {
-            return beanClass.getMethod("removePropertyChangeListener", NAMED_PCL_PARAMS);
-        }
-        catch (NoSuchMethodException e) {
-            return null;
-        }
+        return PropertyMetadataRegistry.getInstance().getClassMetadata(beanClass)
+                .getNamedPropertyChangeListenerRemover();
     }
 }
@@ -0,0 +1,302 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.binding.support;
+
+import java.beans.PropertyChangeListener;
+import java.beans.PropertyDescriptor;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.PropertyAccessor;
+import org.springframework.richclient.util.AnnotationUtils;
+import org.springframework.util.Assert;
+
+/**
+ * Shared registry of the metadata of the JavaBean properties of a class: type,
+ * readability, writeability, annotations and the user metadata translated from
+ * those annotations, and the methods to listen to bound properties. The
+ * metadata of a class is introspected once and then reused by all property
+ * access strategies and form models working on instances of that class.
+ *
+ * <p>
+ * Only simple property names are registered; nested, indexed and mapped
+ * property paths depend on the property values and must be resolved against
+ * the bean itself. Classes loaded by a class loader that is not visible from
+ * the class loader of this registry are introspected on every call rather than
+ * cached, so they can still be unloaded.
+ *
+ * @see BeanPropertyAccessStrategy
+ * @see AnnotationAwareBeanPropertyAccessStrategy
+ */
+public class PropertyMetadataRegistry {
+
+	private static final PropertyMetadataRegistry sharedInstance = new PropertyMetadataRegistry();
+
+	private final Map classMetadata = new ConcurrentHashMap();
+
+	/**
+	 * Returns the registry shared by all property access strategies.
+	 */
+	public static PropertyMetadataRegistry getInstance() {
+		return sharedInstance;
+	}
+
+	/**
+	 * Returns <code>true</code> if the given property path is a simple
+	 * property name, i.e. it is neither nested, indexed nor mapped.
+	 */
+	public static boolean isSimplePropertyName(String propertyPath) {
+		return propertyPath.length() > 0
+				&& propertyPath.indexOf(PropertyAccessor.NESTED_PROPERTY_SEPARATOR_CHAR) == -1
+				&& propertyPath.indexOf(PropertyAccessor.PROPERTY_KEY_PREFIX_CHAR) == -1;
+	}
+
+	/**
+	 * Returns the metadata of the given property of the given class.
+	 *
+	 * @param beanClass the class declaring the property
+	 * @param propertyName a simple property name
+	 * @return the metadata, or <code>null</code> if the class has no JavaBean
+	 * property with that name
+	 */
+	public PropertyMetadata getPropertyMetadata(Class beanClass, String propertyName) {
+		return getClassMetadata(beanClass).getPropertyMetadata(propertyName);
+	}
+
+	/**
+	 * Returns the metadata of all JavaBean properties of the given class.
+	 */
+	public ClassMetadata getClassMetadata(Class beanClass) {
+		Assert.notNull(beanClass, "beanClass must not be null");
+		ClassMetadata metadata = (ClassMetadata) classMetadata.get(beanClass);
+		if (metadata == null) {
+			metadata = new ClassMetadata(beanClass);
+			if (isCacheSafe(beanClass)) {
+				// concurrent introspection of the same class is harmless, the
+				// last one wins
+				classMetadata.put(beanClass, metadata);
+			}
+		}
+		return metadata;
+	}
+
+	/**
+	 * Returns the number of classes held by this registry.
+	 */
+	public int size() {
+		return classMetadata.size();
+	}
+
+	/**
+	 * Removes the metadata of the given class, e.g. after it has been
+	 * redefined.
+	 */
+	public void clear(Class beanClass) {
+		classMetadata.remove(beanClass);
+	}
+
+	/**
+	 * Removes the metadata of all classes.
+	 */
+	public void clear() {
+		classMetadata.clear();
+	}
+
+	private boolean isCacheSafe(Class beanClass) {
+		ClassLoader target = beanClass.getClassLoader();
+		ClassLoader own = getClass().getClassLoader();
+		if (target == null || target == own) {
+			return true;
+		}
+		for (ClassLoader parent = own; parent != null; parent = parent.getParent()) {
+			if (parent == target) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * The metadata of the JavaBean properties of a class. The properties and
+	 * the bound property listener methods are looked up on first request.
+	 */
+	public static class ClassMetadata {
+
+		private static final Class[] NAMED_PCL_PARAMS = new Class[] { String.class, PropertyChangeListener.class };
+
+		private final Class beanClass;
+
+		private volatile Map properties;
+
+		private Method namedListenerAdder;
+
+		private Method namedListenerRemover;
+
+		private volatile boolean listenerMethodsResolved;
+
+		ClassMetadata(Class beanClass) {
+			this.beanClass = beanClass;
+		}
+
+		public Class getBeanClass() {
+			return beanClass;
+		}
+
+		/**
+		 * @return the metadata of the named property, or <code>null</code> if
+		 * there is no such property
+		 */
+		public PropertyMetadata getPropertyMetadata(String propertyName) {
+			return (PropertyMetadata) getProperties().get(propertyName);
+		}
+
+		/**
+		 * @return the names of all JavaBean properties of the class
+		 */
+		public Collection getPropertyNames() {
+			return getProperties().keySet();
+		}
+
+		/**
+		 * @return the method <code>addPropertyChangeListener(String,
+		 * PropertyChangeListener)</code> of the class, or <code>null</code>
+		 * if it has none
+		 */
+		public Method getNamedPropertyChangeListenerAdder() {
+			resolveListenerMethods();
+			return namedListenerAdder;
+		}
+
+		/**
+		 * @return the method <code>removePropertyChangeListener(String,
+		 * PropertyChangeListener)</code> of the class, or <code>null</code>
+		 * if it has none
+		 */
+		public Method getNamedPropertyChangeListenerRemover() {
+			resolveListenerMethods();
+			return namedListenerRemover;
+		}
+
+		private Map getProperties() {
+			if (properties == null) {
+				PropertyDescriptor[] descriptors = BeanUtils.getPropertyDescriptors(beanClass);
+				Map properties = new HashMap(descriptors.length * 2);
+				for (int i = 0; i < descriptors.length; i++) {
+					properties.put(descriptors[i].getName(), new PropertyMetadata(descriptors[i]));
+				}
+				this.properties = Collections.unmodifiableMap(properties);
+			}
+			return properties;
+		}
+
+		private void resolveListenerMethods() {
+			if (!listenerMethodsResolved) {
+				namedListenerAdder = findPublicMethod("addPropertyChangeListener");
+				namedListenerRemover = findPublicMethod("removePropertyChangeListener");
+				// the volatile write publishes both methods
+				listenerMethodsResolved = true;
+			}
+		}
+
+		private Method findPublicMethod(String name) {
+			try {
+				return beanClass.getMethod(name, NAMED_PCL_PARAMS);
+			}
+			catch (NoSuchMethodException e) {
+				return null;
+			}
+		}
+	}
+
+	/**
+	 * The metadata of a single JavaBean property. Annotations and the user
+	 * metadata translated from them are read on first request.
+	 */
+	public static class PropertyMetadata {
+
+		private final PropertyDescriptor propertyDescriptor;
+
+		private volatile Collection annotations;
+
+		private volatile Map reflectionUserMetadata;
+
+		PropertyMetadata(PropertyDescriptor propertyDescriptor) {
+			this.propertyDescriptor = propertyDescriptor;
+		}
+
+		public PropertyDescriptor getPropertyDescriptor() {
+			return propertyDescriptor;
+		}
+
+		public Class getPropertyType() {
+			return propertyDescriptor.getPropertyType();
+		}
+
+		public boolean isReadable() {
+			return propertyDescriptor.getReadMethod() != null;
+		}
+
+		public boolean isWriteable() {
+			return propertyDescriptor.getWriteMethod() != null;
+		}
+
+		/**
+		 * @return the annotations of the getter and setter, see
+		 * {@link AnnotationUtils#getAnnotationsFor(PropertyDescriptor)}
+		 */
+		public Collection getAnnotations() {
+			if (annotations == null) {
+				annotations = Collections.unmodifiableCollection(AnnotationUtils
+						.getAnnotationsFor(propertyDescriptor));
+			}
+			return annotations;
+		}
+
+		/**
+		 * Returns the user metadata translated from the annotations of this
+		 * property. The translation by a {@link ReflectionAnnotationTranslator}
+		 * is cached, as it does not depend on the translator instance; other
+		 * translators are applied on every call.
+		 *
+		 * @param translator translates each annotation into user metadata
+		 * @return a new map holding the user metadata
+		 */
+		public Map getUserMetadata(AnnotationTranslator translator) {
+			if (translator.getClass() == ReflectionAnnotationTranslator.class) {
+				if (reflectionUserMetadata == null) {
+					reflectionUserMetadata = translate(translator);
+				}
+				return new LinkedHashMap(reflectionUserMetadata);
+			}
+			return translate(translator);
+		}
+
+		private Map translate(AnnotationTranslator translator) {
+			Map<String, Object> result = new LinkedHashMap<String, Object>();
+			for (Object annotation : getAnnotations()) {
+				translator.translate((Annotation) annotation, result);
+			}
+			return result;
+		}
+	}
+}
@@ -17,6 +17,10 @@ import org.springframework.util.ObjectUtils;
  */
 public abstract class AbstractPropertyChangePublisher implements PropertyChangePublisher {
 
+	private static final PropertyChangeListener[] NO_PROPERTY_CHANGE_LISTENERS = new PropertyChangeListener[0];
+
+	private static final VetoableChangeListener[] NO_VETOABLE_CHANGE_LISTENERS = new VetoableChangeListener[0];
+
 	protected final Log logger = LogFactory.getLog(getClass());
 
 	private transient PropertyChangeSupport changeSupport;
@@ -31,6 +35,7 @@ public abstract class AbstractPropertyChangePublisher implements PropertyChangeP
 			changeSupport = new PropertyChangeSupport(this);
 		}
 		changeSupport.addPropertyChangeListener(listener);
+		propertyChangeListenersChanged();
 	}
 
 	public final void removePropertyChangeListener(PropertyChangeListener listener) {
@@ -38,6 +43,7 @@ public abstract class AbstractPropertyChangePublisher implements PropertyChangeP
 			return;
 		}
 		changeSupport.removePropertyChangeListener(listener);
+		propertyChangeListenersChanged();
 	}
 
 	public final void addPropertyChangeListener(String propertyName, PropertyChangeListener listener) {
@@ -48,6 +54,7 @@ public abstract class AbstractPropertyChangePublisher implements PropertyChangeP
 			changeSupport = new PropertyChangeSupport(this);
 		}
 		changeSupport.addPropertyChangeListener(propertyName, listener);
+		propertyChangeListenersChanged();
 	}
 
 	public final void removePropertyChangeListener(String propertyName, PropertyChangeListener listener) {
@@ -55,6 +62,23 @@ public abstract class AbstractPropertyChangePublisher implements PropertyChangeP
 			return;
 		}
 		changeSupport.removePropertyChangeListener(propertyName, listener);
+		propertyChangeListenersChanged();
+	}
+
+	/**
+	 * Called after a property change listener has been added or removed.
+	 * Subclasses may override this method to observe their own source only
+	 * while they have listeners. The default implementation does nothing.
+	 */
+	protected void propertyChangeListenersChanged() {
+	}
+
+	/**
+	 * Returns <code>true</code> if there are listeners for the given
+	 * property, including listeners for all properties.
+	 */
+	protected final boolean hasPropertyChangeListeners(String propertyName) {
+		return changeSupport != null && changeSupport.hasListeners(propertyName);
 	}
 
 	public final void addVetoableChangeListener(VetoableChangeListener listener) {
@@ -93,28 +117,28 @@ public abstract class AbstractPropertyChangePublisher implements PropertyChangeP
 
 	public final PropertyChangeListener[] getPropertyChangeListeners() {
 		if (changeSupport == null) {
-			return new PropertyChangeListener[0];
+			return NO_PROPERTY_CHANGE_LISTENERS;
 		}
 		return changeSupport.getPropertyChangeListeners();
 	}
 
 	public final PropertyChangeListener[] getPropertyChangeListeners(String propertyName) {
 		if (changeSupport == null) {
-			return new PropertyChangeListener[0];
+			return NO_PROPERTY_CHANGE_LISTENERS;
 		}
 		return changeSupport.getPropertyChangeListeners(propertyName);
 	}
 
 	public final VetoableChangeListener[] getVetoableChangeListeners() {
 		if (vetoSupport == null) {
-			return new VetoableChangeListener[0];
+			return NO_VETOABLE_CHANGE_LISTENERS;
 		}
 		return vetoSupport.getVetoableChangeListeners();
 	}
 
 	public final VetoableChangeListener[] getVetoableChangeListeners(String propertyName) {
 		if (vetoSupport == null) {
-			return new VetoableChangeListener[0];
+			return NO_VETOABLE_CHANGE_LISTENERS;
 		}
 		return vetoSupport.getVetoableChangeListeners(propertyName);
 	}
@@ -152,7 +176,7 @@ public abstract class AbstractPropertyChangePublisher implements PropertyChangeP
 	}
 
 	protected final void firePropertyChange(String propertyName, long oldValue, long newValue) {
-		firePropertyChange(propertyName, new Long(oldValue), new Long(newValue));
+		firePropertyChange(propertyName, Long.valueOf(oldValue), Long.valueOf(newValue));
 	}
 
 	protected final void firePropertiesChanged() {
@@ -198,7 +222,7 @@ public abstract class AbstractPropertyChangePublisher implements PropertyChangeP
 
 	protected final void fireVetoableChange(String propertyName, long oldValue, long newValue)
 			throws PropertyVetoException {
-		fireVetoableChange(propertyName, new Long(oldValue), new Long(newValue));
+		fireVetoableChange(propertyName, Long.valueOf(oldValue), Long.valueOf(newValue));
 	}
 
 	protected boolean hasChanged(Object currentValue, Object proposedValue) {
@@ -95,52 +95,71 @@ public abstract class AbstractValueModel extends AbstractPropertyChangePublisher
      * Notifies all listeners that have registered interest for
      * notification on this event type.  The event instance 
      * is lazily created using the parameters passed into 
-     * the fire method.
+     * the fire method. The values are compared as primitives,
+     * without consulting the <code>ValueChangeDetector</code>.
      *
      * @param oldValue the int value before the change
      * @param newValue the int value after the change
      */
     protected final void fireValueChange(int oldValue, int newValue) {
-        fireValueChange(new Integer(oldValue), new Integer(newValue));
+        if (oldValue == newValue) {
+            return;
+        }
+        if (hasPropertyChangeListeners(VALUE_PROPERTY)) {
+            fireValueChangeEvent(Integer.valueOf(oldValue), Integer.valueOf(newValue));
+        }
     }
 
     /**
      * Notifies all listeners that have registered interest for
      * notification on this event type.  The event instance 
      * is lazily created using the parameters passed into 
-     * the fire method.
+     * the fire method. The values are compared as primitives,
+     * without consulting the <code>ValueChangeDetector</code>.
      *
      * @param oldValue the long value before the change
      * @param newValue the long value after the change
      */
     protected final void fireValueChange(long oldValue, long newValue) {
-        fireValueChange(new Long(oldValue), new Long(newValue));
+        if (oldValue == newValue) {
+            return;
+        }
+        if (hasPropertyChangeListeners(VALUE_PROPERTY)) {
+            fireValueChangeEvent(Long.valueOf(oldValue), Long.valueOf(newValue));
+        }
     }
 
     /**
      * Notifies all listeners that have registered interest for
      * notification on this event type.  The event instance 
      * is lazily created using the parameters passed into 
-     * the fire method.
+     * the fire method. The values are compared as primitives,
+     * without consulting the <code>ValueChangeDetector</code>.
      *
      * @param oldValue the double value before the change
      * @param newValue the double value after the change
      */
     protected final void fireValueChange(double oldValue, double newValue) {
-        fireValueChange(new Double(oldValue), new Double(newValue));
+        if (Double.compare(oldValue, newValue) == 0) {
+            return;
+        }
+        if (hasPropertyChangeListeners(VALUE_PROPERTY)) {
+            fireValueChangeEvent(new Double(oldValue), new Double(newValue));
+        }
     }
 
     /**
      * Notifies all listeners that have registered interest for
      * notification on this event type.  The event instance 
      * is lazily created using the parameters passed into 
-     * the fire method.
+     * the fire method. The values are not compared at all
+     * if there are no listeners.
      *
      * @param oldValue the float value before the change
      * @param newValue the float value after the change
      */
     protected void fireValueChange(Object oldValue, Object newValue) {
-        if (hasValueChanged(oldValue, newValue)) {
+        if (hasPropertyChangeListeners(VALUE_PROPERTY) && hasValueChanged(oldValue, newValue)) {
             fireValueChangeEvent(oldValue, newValue);
         }
     }
@@ -158,6 +177,9 @@ public abstract class AbstractValueModel extends AbstractPropertyChangePublisher
      * between the old and new value unlike the various fireValueChanged() methods.
      */
     protected void fireValueChangeEvent(Object oldValue, Object newValue) {
+        if (!hasPropertyChangeListeners(VALUE_PROPERTY)) {
+            return;
+        }
         if (logger.isDebugEnabled()) {
             logger.debug("Firing value changed event. Old value='" + oldValue + "' new value='" + newValue + "'");
         }
@@ -61,6 +61,9 @@ public class DefaultValueChangeDetector implements ValueChangeDetector {
      *         model
      */
     public boolean hasValueChanged(Object oldValue, Object newValue) {
+        if( oldValue == newValue )
+            return false;
+
         if( oldValue != null && classesWithSafeEquals.contains( oldValue.getClass() ) )
             return !oldValue.equals( newValue );
 
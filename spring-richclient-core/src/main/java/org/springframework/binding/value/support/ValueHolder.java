@@ -56,7 +56,8 @@ public class ValueHolder extends AbstractValueModel {
 				logger.debug("Setting held value from '" + oldValue + "' to '" + value + "'");
 			}
 			this.value = value;
-			fireValueChange(oldValue, this.value);
+			// already known to have changed, no need to compare again
+			fireValueChangeEvent(oldValue, this.value);
 		}
 	}
 
@@ -74,6 +74,8 @@ import org.springframework.richclient.security.ApplicationSecurityManager;
 import org.springframework.richclient.security.SecurityControllerManager;
 import org.springframework.richclient.security.support.DefaultApplicationSecurityManager;
 import org.springframework.richclient.security.support.DefaultSecurityControllerManager;
+import org.springframework.richclient.task.DefaultTaskExecutionService;
+import org.springframework.richclient.task.TaskExecutionService;
 import org.springframework.richclient.util.Assert;
 import org.springframework.rules.RulesSource;
 import org.springframework.rules.reporting.DefaultMessageTranslatorFactory;
@@ -646,6 +648,24 @@ public class DefaultApplicationServices implements ApplicationServices, Applicat
         services.put( SecurityControllerManager.class, securityControllerManagerId );
     }
 
+    /**
+     * Set the task execution service implementation.
+     *
+     * @param taskExecutionService instance to use
+     */
+    public void setTaskExecutionService( TaskExecutionService taskExecutionService ) {
+        services.put( TaskExecutionService.class, taskExecutionService );
+    }
+
+    /**
+     * Set the task execution service implementation bean id
+     *
+     * @param taskExecutionServiceId bean id
+     */
+    public void setTaskExecutionServiceId( String taskExecutionServiceId ) {
+        services.put( TaskExecutionService.class, taskExecutionServiceId );
+    }
+
     /**
      * Set the value change detector service imlpementation.
      *
@@ -936,6 +956,13 @@ public class DefaultApplicationServices implements ApplicationServices, Applicat
         }
     };
 
+    protected static final ImplBuilder taskExecutionServiceImplBuilder = new ImplBuilder() {
+        public Object build( DefaultApplicationServices applicationServices ) {
+            logger.info( "Creating default service impl: TaskExecutionService" );
+            return new DefaultTaskExecutionService();
+        }
+    };
+
     protected static final ImplBuilder applicationSecurityManagerImplBuilder = new ImplBuilder() {
         public Object build( DefaultApplicationServices applicationServices ) {
             logger.info( "Creating default service impl: ApplicationSecurityManager" );
@@ -1050,6 +1077,7 @@ public class DefaultApplicationServices implements ApplicationServices, Applicat
         serviceImplBuilders.put( MessageSourceAccessor.class, messageSourceAccessorImplBuilder );
         serviceImplBuilders.put( RulesSource.class, rulesSourceImplBuilder );
         serviceImplBuilders.put( SecurityControllerManager.class, SecurityControllerManagerImplBuilder );
+        serviceImplBuilders.put( TaskExecutionService.class, taskExecutionServiceImplBuilder );
         serviceImplBuilders.put( ValueChangeDetector.class, valueChangeDetectorImplBuilder );
         serviceImplBuilders.put( ViewDescriptorRegistry.class, viewDescriptorRegistryImplBuilder );
         serviceImplBuilders.put( PageDescriptorRegistry.class, pageDescriptorRegistryImplBuilder );
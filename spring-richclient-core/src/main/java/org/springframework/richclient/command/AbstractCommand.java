@@ -42,6 +42,7 @@ import org.springframework.richclient.command.config.CommandButtonLabelInfo;
 import org.springframework.richclient.command.config.CommandFaceDescriptor;
 import org.springframework.richclient.command.config.CommandFaceDescriptorRegistry;
 import org.springframework.richclient.command.support.CommandFaceButtonManager;
+import org.springframework.richclient.command.support.CommandStateScheduler;
 import org.springframework.richclient.core.SecurityControllable;
 import org.springframework.richclient.factory.ButtonFactory;
 import org.springframework.richclient.factory.ComponentFactory;
@@ -104,6 +105,10 @@ public abstract class AbstractCommand extends AbstractPropertyChangePublisher im
 
 	private Boolean oldVisibleState;
 
+	private final Runnable buttonEnabledUpdater = new ButtonEnabledUpdater();
+
+	private final Runnable buttonVisibleUpdater = new ButtonVisibleUpdater();
+
 	/**
 	 * Default constructor. Id can be set by context.
 	 *
@@ -550,17 +555,9 @@ public abstract class AbstractCommand extends AbstractPropertyChangePublisher im
 	 */
 	private class ButtonEnablingListener implements PropertyChangeListener {
 		public void propertyChange(PropertyChangeEvent evt) {
-			// We need to keep the buttons in sync with the command, so go
-			// through the buttons and set Enabled state.
-			// alternative is to add a listener to the enabled value and change
-			// buttons in that listener
-			// NOT redundant
-			boolean enabled = evt.getNewValue() == Boolean.TRUE;
-			Iterator it = buttonIterator();
-			while (it.hasNext()) {
-				AbstractButton button = (AbstractButton) it.next();
-				button.setEnabled(enabled);
-			}
+			// We need to keep the buttons in sync with the command. The update
+			// may be coalesced with other state changes of this command.
+			CommandStateScheduler.getInstance().schedule(buttonEnabledUpdater);
 		}
 	}
 
@@ -570,16 +567,44 @@ public abstract class AbstractCommand extends AbstractPropertyChangePublisher im
 	 */
 	private class ButtonVisibleListener implements PropertyChangeListener {
 		public void propertyChange(PropertyChangeEvent evt) {
-			// We need to keep the buttons in sync with the command, so go
-			// through the buttons and set visible state.
-			// alternative is to add a listener to the visible value and change
-			// buttons in that listener
-			// NOT redundant
-			boolean enabled = evt.getNewValue() == Boolean.TRUE;
+			CommandStateScheduler.getInstance().schedule(buttonVisibleUpdater);
+		}
+	}
+
+	/**
+	 * Applies the current enabled state to the buttons, only touching buttons
+	 * whose state differs.
+	 *
+	 * @see CommandStateScheduler
+	 */
+	private class ButtonEnabledUpdater implements Runnable {
+		public void run() {
+			boolean enabled = isEnabled();
 			Iterator it = buttonIterator();
 			while (it.hasNext()) {
 				AbstractButton button = (AbstractButton) it.next();
-				button.setVisible(enabled);
+				if (button.isEnabled() != enabled) {
+					button.setEnabled(enabled);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Applies the current visible state to the buttons, only touching buttons
+	 * whose state differs.
+	 *
+	 * @see CommandStateScheduler
+	 */
+	private class ButtonVisibleUpdater implements Runnable {
+		public void run() {
+			boolean visible = isVisible();
+			Iterator it = buttonIterator();
+			while (it.hasNext()) {
+				AbstractButton button = (AbstractButton) it.next();
+				if (button.isVisible() != visible) {
+					button.setVisible(visible);
+				}
 			}
 		}
 	}
@@ -24,6 +24,7 @@ import org.springframework.richclient.command.config.CommandConfigurer;
 import org.springframework.richclient.command.config.CommandFaceDescriptor;
 import org.springframework.richclient.command.support.ButtonBarGroupContainerPopulator;
 import org.springframework.richclient.command.support.ButtonStackGroupContainerPopulator;
+import org.springframework.richclient.command.support.LazyMenuPopulator;
 import org.springframework.richclient.command.support.SimpleGroupContainerPopulator;
 import org.springframework.richclient.command.support.ToggleButtonPopupListener;
 import org.springframework.richclient.core.UIConstants;
@@ -56,6 +57,10 @@ public class CommandGroup extends AbstractCommand {
 
 	private CommandRegistry commandRegistry;
 
+	private static boolean lazyMaterializationByDefault = false;
+
+	private Boolean lazyMaterialization;
+
 	/**
 	 * @see AbstractCommand#AbstractCommand()
 	 */
@@ -465,7 +470,12 @@ public class CommandGroup extends AbstractCommand {
 		AbstractButton button = buttonFactory.createToggleButton();
 		attach(button, buttonConfigurer);
 		JPopupMenu popup = menuFactory.createPopupMenu();
-		bindMembers(button, popup, menuFactory, getMenuItemButtonConfigurer());
+		if (isLazyMaterialization()) {
+			bindMembersLazily(button, popup, menuFactory, getMenuItemButtonConfigurer());
+		}
+		else {
+			bindMembers(button, popup, menuFactory, getMenuItemButtonConfigurer());
+		}
 		ToggleButtonPopupListener.bind(button, popup);
 		return button;
 	}
@@ -478,7 +488,12 @@ public class CommandGroup extends AbstractCommand {
 			CommandButtonConfigurer buttonConfigurer) {
 		JMenu menu = factory.createMenu();
 		attach(menu);
-		bindMembers(menu, menu, factory, buttonConfigurer);
+		if (isLazyMaterialization()) {
+			bindMembersLazily(menu, menu, factory, buttonConfigurer);
+		}
+		else {
+			bindMembers(menu, menu, factory, buttonConfigurer);
+		}
 		return menu;
 	}
 
@@ -488,7 +503,12 @@ public class CommandGroup extends AbstractCommand {
 
 	public JPopupMenu createPopupMenu(MenuFactory factory) {
 		JPopupMenu popup = factory.createPopupMenu();
-		bindMembers(popup, popup, factory, getMenuItemButtonConfigurer());
+		if (isLazyMaterialization()) {
+			bindMembersLazily(popup, popup, factory, getMenuItemButtonConfigurer());
+		}
+		else {
+			bindMembers(popup, popup, factory, getMenuItemButtonConfigurer());
+		}
 		return popup;
 	}
 
@@ -670,6 +690,58 @@ public class CommandGroup extends AbstractCommand {
 				configurer);
 	}
 
+	/**
+	 * Binds the members when the menu or popup is opened for the first time.
+	 */
+	private void bindMembersLazily(final Object owner, final JComponent menu, final Object controlFactory,
+			final CommandButtonConfigurer configurer) {
+		Runnable populator = new Runnable() {
+			public void run() {
+				bindMembers(owner, menu, controlFactory, configurer);
+			}
+		};
+		if (menu instanceof JMenu) {
+			LazyMenuPopulator.bind((JMenu) menu, populator);
+		}
+		else {
+			LazyMenuPopulator.bind((JPopupMenu) menu, populator);
+		}
+	}
+
+	/**
+	 * Set whether command groups without an explicit
+	 * {@link #setLazyMaterialization(boolean) lazyMaterialization} setting
+	 * create the items of their menus and popups lazily. Defaults to
+	 * <code>false</code>.
+	 */
+	public static void setLazyMaterializationByDefault(boolean lazy) {
+		lazyMaterializationByDefault = lazy;
+	}
+
+	public static boolean isLazyMaterializationByDefault() {
+		return lazyMaterializationByDefault;
+	}
+
+	/**
+	 * Set whether the items of menus, popup menus and pull-down button menus
+	 * created by this group are only created when the menu is opened for the
+	 * first time. When nested groups are lazy as well (see
+	 * {@link #setLazyMaterializationByDefault(boolean)}), only the opened part
+	 * of a large hierarchy is ever built.
+	 * <p>
+	 * Items that are never shown are not created, so their accelerators are not
+	 * registered until their menu has been opened once; use
+	 * {@link LazyMenuPopulator#populate(JComponent)} to populate a menu in
+	 * advance. Menu bars and toolbars are always populated immediately.
+	 */
+	public void setLazyMaterialization(boolean lazy) {
+		this.lazyMaterialization = Boolean.valueOf(lazy);
+	}
+
+	public boolean isLazyMaterialization() {
+		return lazyMaterialization != null ? lazyMaterialization.booleanValue() : lazyMaterializationByDefault;
+	}
+
 	public void addGroupListener(CommandGroupListener l) {
 		if (listenerList == null) {
 			listenerList = new EventListenerList();
@@ -0,0 +1,295 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.command.support;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+import javax.swing.SwingUtilities;
+
+import org.springframework.richclient.application.Application;
+import org.springframework.richclient.application.ApplicationWindow;
+import org.springframework.richclient.application.statusbar.StatusBar;
+import org.springframework.richclient.application.statusbar.support.StatusBarProgressMonitor;
+import org.springframework.richclient.command.CommandException;
+import org.springframework.richclient.progress.EventDispatchThreadProgressMonitor;
+import org.springframework.richclient.progress.NullProgressMonitor;
+import org.springframework.richclient.progress.ProgressMonitor;
+import org.springframework.richclient.task.DefaultTaskExecutionService;
+import org.springframework.util.Assert;
+
+/**
+ * An action command that performs its work on a background thread, so long running
+ * actions don't freeze the window.
+ * <p>
+ * When executed, the command is disabled and {@link #doInBackground(ProgressMonitor)} is
+ * submitted to the executor. The work reports progress through the given monitor, which
+ * passes it on to the status bar of the command's window (or the monitor set with
+ * {@link #setProgressMonitor(ProgressMonitor)}) on the event dispatch thread, and should
+ * poll {@link ProgressMonitor#isCanceled()} to support cancellation. When the work is
+ * done, the command is enabled again and {@link #onSuccess(Object)},
+ * {@link #onFailure(Throwable)} or {@link #onCancelled()} is called on the event dispatch
+ * thread.
+ * <p>
+ * The execution parameters are cleared as soon as the work is submitted, so they should
+ * be read in {@link #onStart()}. Command interceptors are notified of the post execution
+ * at that moment as well, not when the work is done.
+ */
+public abstract class AsyncActionCommand extends ApplicationWindowAwareCommand {
+
+    private Executor executor;
+
+    private ProgressMonitor progressMonitor;
+
+    private String taskName;
+
+    private volatile FutureTask currentTask;
+
+    private volatile EventDispatchThreadProgressMonitor currentMonitor;
+
+    /**
+     * Creates a new uninitialized {@code AsyncActionCommand}.
+     */
+    protected AsyncActionCommand() {
+        //do nothing
+    }
+
+    /**
+     * Creates a new {@code AsyncActionCommand} with the given command identifier.
+     *
+     * @param commandId The identifier of this command instance.
+     */
+    protected AsyncActionCommand(String commandId) {
+        super(commandId);
+    }
+
+    /**
+     * Sets the executor that runs the work. Defaults to the application's
+     * {@link org.springframework.richclient.task.TaskExecutionService}.
+     *
+     * @param executor The executor, not null.
+     */
+    public void setExecutor(Executor executor) {
+        Assert.notNull(executor, "executor cannot be null");
+        this.executor = executor;
+    }
+
+    /**
+     * Returns the executor that runs the work.
+     */
+    public Executor getExecutor() {
+        if (executor == null) {
+            executor = DefaultTaskExecutionService.locate();
+        }
+        return executor;
+    }
+
+    /**
+     * Sets the monitor to report progress to. If not set, the progress monitor of the
+     * status bar of the command's window, or of the active window, is used.
+     *
+     * @param progressMonitor The monitor, may be null.
+     */
+    public void setProgressMonitor(ProgressMonitor progressMonitor) {
+        this.progressMonitor = progressMonitor;
+    }
+
+    /**
+     * Returns the monitor to report progress to, never null.
+     */
+    protected ProgressMonitor getProgressMonitor() {
+        if (progressMonitor != null) {
+            return progressMonitor;
+        }
+        ApplicationWindow window = getApplicationWindow();
+        if (window == null && Application.isLoaded()) {
+            window = Application.instance().getActiveWindow();
+        }
+        StatusBar statusBar = window != null ? window.getStatusBar() : null;
+        if (statusBar != null) {
+            return statusBar.getProgressMonitor();
+        }
+        return new NullProgressMonitor();
+    }
+
+    /**
+     * Sets the name of the task shown by the progress monitor. Defaults to the text of
+     * the command.
+     */
+    public void setTaskName(String taskName) {
+        this.taskName = taskName;
+    }
+
+    public String getTaskName() {
+        return taskName != null ? taskName : getText();
+    }
+
+    /**
+     * Returns <code>true</code> while the work is running.
+     */
+    public boolean isRunning() {
+        return currentTask != null;
+    }
+
+    /**
+     * The command is disabled while the work is running.
+     */
+    public boolean isEnabled() {
+        return super.isEnabled() && !isRunning();
+    }
+
+    /**
+     * Requests the running work to stop: the progress monitor is canceled and the worker
+     * thread is interrupted. The command is enabled again and {@link #onCancelled()} is
+     * called shortly after; work that ignores both may still be finishing in the background.
+     */
+    public void cancel() {
+        FutureTask task = currentTask;
+        EventDispatchThreadProgressMonitor monitor = currentMonitor;
+        if (monitor != null) {
+            monitor.setCanceled(true);
+        }
+        if (task != null) {
+            task.cancel(true);
+        }
+    }
+
+    protected final void doExecuteCommand() {
+        if (isRunning() || !onStart()) {
+            return;
+        }
+
+        final EventDispatchThreadProgressMonitor monitor = new EventDispatchThreadProgressMonitor(
+                getProgressMonitor());
+        final FutureTask task = new FutureTask(new Callable() {
+            public Object call() throws Exception {
+                return doInBackground(monitor);
+            }
+        }) {
+            protected void done() {
+                final FutureTask self = this;
+                SwingUtilities.invokeLater(new Runnable() {
+                    public void run() {
+                        finish(self, monitor);
+                    }
+                });
+            }
+        };
+
+        currentMonitor = monitor;
+        currentTask = task;
+        updatedEnabledState();
+        monitor.taskStarted(getTaskName(), StatusBarProgressMonitor.UNKNOWN);
+
+        try {
+            getExecutor().execute(task);
+        }
+        catch (RuntimeException e) {
+            currentTask = null;
+            currentMonitor = null;
+            updatedEnabledState();
+            monitor.done();
+            throw e;
+        }
+    }
+
+    /**
+     * Called on the event dispatch thread when the work has stopped.
+     */
+    private void finish(FutureTask task, EventDispatchThreadProgressMonitor monitor) {
+        currentTask = null;
+        currentMonitor = null;
+        monitor.done();
+        updatedEnabledState();
+
+        if (task.isCancelled() || monitor.isCanceled()) {
+            onCancelled();
+            return;
+        }
+        Object result;
+        try {
+            result = task.get();
+        }
+        catch (CancellationException e) {
+            onCancelled();
+            return;
+        }
+        catch (ExecutionException e) {
+            onFailure(e.getCause());
+            return;
+        }
+        catch (InterruptedException e) {
+            // cannot happen, the task is done
+            Thread.currentThread().interrupt();
+            return;
+        }
+        onSuccess(result);
+    }
+
+    /**
+     * Called on the event dispatch thread before the work is submitted, while the
+     * execution parameters are available.
+     *
+     * @return <code>false</code> to skip the execution.
+     */
+    protected boolean onStart() {
+        return true;
+    }
+
+    /**
+     * Performs the work on a background thread. Must not touch Swing components.
+     *
+     * @param progressMonitor Monitor to report progress to and to poll for
+     * cancellation, may be used from any thread.
+     * @return The result, passed to {@link #onSuccess(Object)}.
+     * @throws Exception passed to {@link #onFailure(Throwable)}.
+     */
+    protected abstract Object doInBackground(ProgressMonitor progressMonitor) throws Exception;
+
+    /**
+     * Called on the event dispatch thread when the work has completed.
+     *
+     * @param result The result of {@link #doInBackground(ProgressMonitor)}.
+     */
+    protected void onSuccess(Object result) {
+    }
+
+    /**
+     * Called on the event dispatch thread when the work has failed. The default
+     * implementation rethrows the exception, so it reaches the registered exception
+     * handler.
+     *
+     * @param cause The exception thrown by {@link #doInBackground(ProgressMonitor)}.
+     */
+    protected void onFailure(Throwable cause) {
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        throw new CommandException("Execution of command '" + getId() + "' failed", cause);
+    }
+
+    /**
+     * Called on the event dispatch thread when the work was cancelled.
+     */
+    protected void onCancelled() {
+    }
+}
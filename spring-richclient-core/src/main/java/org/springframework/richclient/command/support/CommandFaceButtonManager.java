@@ -41,6 +41,12 @@ public class CommandFaceButtonManager implements PropertyChangeListener {
 
     private CommandFaceDescriptor faceDescriptor;
 
+    private final Runnable reconfiguration = new Runnable() {
+        public void run() {
+            configureAll();
+        }
+    };
+
     private static class ManagedButton {
         private WeakReference buttonHolder;
 
@@ -93,7 +99,7 @@ public class CommandFaceButtonManager implements PropertyChangeListener {
             }
             this.faceDescriptor = faceDescriptor;
             this.faceDescriptor.addPropertyChangeListener(this);
-            propertyChange(null);
+            configureAll();
         }
     }
 
@@ -205,7 +211,15 @@ public class CommandFaceButtonManager implements PropertyChangeListener {
         }
     }
 
+    /**
+     * Reconfigure the buttons when the face descriptor changes. Several changes may be
+     * coalesced into one reconfiguration by the {@link CommandStateScheduler}.
+     */
     public void propertyChange(PropertyChangeEvent e) {
+        CommandStateScheduler.getInstance().schedule(reconfiguration);
+    }
+
+    private void configureAll() {
         Iterator it = buttons.iterator();
         while (it.hasNext()) {
             ManagedButton mb = (ManagedButton)it.next();
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.command.support;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import javax.swing.SwingUtilities;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.util.Assert;
+
+/**
+ * Coalesces updates of command state, such as guard evaluations and the propagation of
+ * the enabled and visible state of commands to their buttons and menu items.
+ * <p>
+ * By default updates run immediately. When coalescing is switched on, a scheduled
+ * update is only marked as dirty; all dirty updates run once, in scheduling order, in
+ * a single task on the event dispatch thread. Scheduling the same update several times
+ * before it runs has no additional effect, so during bulk selection changes guards are
+ * evaluated once per event dispatch cycle, and buttons only receive the net state
+ * change.
+ * <p>
+ * Updates must be idempotent: they should apply the current state, not a state
+ * captured when they were scheduled.
+ */
+public class CommandStateScheduler {
+
+    private static final Log logger = LogFactory.getLog( CommandStateScheduler.class );
+
+    private static volatile CommandStateScheduler instance = new CommandStateScheduler();
+
+    private final Set dirty = new LinkedHashSet();
+
+    private boolean coalescing = false;
+
+    private boolean flushScheduled = false;
+
+    private final Runnable flushTask = new Runnable() {
+        public void run() {
+            flush();
+        }
+    };
+
+    /**
+     * Get the shared scheduler used by commands and selection guards.
+     */
+    public static CommandStateScheduler getInstance() {
+        return instance;
+    }
+
+    /**
+     * Replace the shared scheduler.
+     */
+    public static void setInstance(CommandStateScheduler scheduler) {
+        Assert.notNull( scheduler, "scheduler cannot be null" );
+        instance = scheduler;
+    }
+
+    /**
+     * Set whether updates are coalesced and run on the event dispatch thread. Defaults
+     * to false, which runs updates immediately. Switching coalescing off runs the
+     * pending updates.
+     */
+    public void setCoalescing(boolean coalescing) {
+        synchronized( dirty ) {
+            this.coalescing = coalescing;
+        }
+        if( !coalescing ) {
+            flush();
+        }
+    }
+
+    public boolean isCoalescing() {
+        synchronized( dirty ) {
+            return coalescing;
+        }
+    }
+
+    /**
+     * Schedule an update. If coalescing, the update is marked as dirty and runs with
+     * the next flush; otherwise it runs immediately.
+     * @param update idempotent update to run
+     */
+    public void schedule(Runnable update) {
+        synchronized( dirty ) {
+            if( coalescing ) {
+                dirty.add( update );
+                if( !flushScheduled ) {
+                    flushScheduled = true;
+                    SwingUtilities.invokeLater( flushTask );
+                }
+                return;
+            }
+        }
+        update.run();
+    }
+
+    /**
+     * Run all dirty updates now. Updates scheduled while flushing run with the next
+     * flush.
+     */
+    public void flush() {
+        Object[] updates;
+        synchronized( dirty ) {
+            flushScheduled = false;
+            if( dirty.isEmpty() ) {
+                return;
+            }
+            updates = dirty.toArray();
+            dirty.clear();
+        }
+        if( logger.isDebugEnabled() ) {
+            logger.debug( "Running " + updates.length + " coalesced command state updates" );
+        }
+        for( int i = 0; i < updates.length; i++ ) {
+            ((Runnable) updates[i]).run();
+        }
+    }
+
+    /**
+     * @return the number of dirty updates waiting for the next flush
+     */
+    public int getPendingCount() {
+        synchronized( dirty ) {
+            return dirty.size();
+        }
+    }
+
+    /**
+     * Discard a scheduled update, e.g. because its target is disposed.
+     * @return true if the update was pending
+     */
+    public boolean cancel(Runnable update) {
+        synchronized( dirty ) {
+            return dirty.remove( update );
+        }
+    }
+}
@@ -15,11 +15,12 @@
  */
 package org.springframework.richclient.command.support;
 
-import java.util.Hashtable;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -41,6 +42,13 @@ import org.springframework.util.ObjectUtils;
  * may act as the child of another registry, allowing for a hierarchy of registries to be created.
  * If a command is requested from this registry but cannot be found, the request will be delegated
  * to the parent registry.
+ * <p>
+ * Lookups are lock-free. Commands found, including those answered by a parent registry,
+ * are kept in a lookup view, so repeated lookups don't walk the parent chain. Ids that
+ * were not found are kept as well, up to {@link #MAX_CACHED_MISSES} of them, so
+ * arbitrary ids can't grow the view without bound. The view is replaced by an empty one,
+ * with a new version, whenever a command is registered in this registry or one of its
+ * ancestors, or the parent changes.
  * 
  * 
  * @author Keith Donald
@@ -53,11 +61,20 @@ public class DefaultCommandRegistry implements CommandRegistry, CommandRegistryL
      */
     protected final Log logger = LogFactory.getLog(getClass());
 
-    private final List commandRegistryListeners = new LinkedList();
+    /**
+     * The maximum number of ids that were not found kept in the lookup view.
+     */
+    public static final int MAX_CACHED_MISSES = 256;
+
+    private final List commandRegistryListeners = new CopyOnWriteArrayList();
+
+    private final Map commandMap = new ConcurrentHashMap();
 
-    private final Map commandMap = new Hashtable();
+    private final AtomicLong lookupVersion = new AtomicLong();
 
-    private CommandRegistry parent;
+    private volatile LookupView lookupView = new LookupView(0);
+
+    private volatile CommandRegistry parent;
 
     /**
      * Creates a new uninitialized {@code DefaultCommandRegistry}.
@@ -104,6 +121,8 @@ public class DefaultCommandRegistry implements CommandRegistry, CommandRegistryL
                 this.parent.addCommandRegistryListener(this);
             }
             
+            invalidateLookupView();
+            
         }
         
     }
@@ -113,6 +132,7 @@ public class DefaultCommandRegistry implements CommandRegistry, CommandRegistryL
      */
     public void commandRegistered(CommandRegistryEvent event) {
         Assert.required(event, "event");
+        invalidateLookupView();
         fireCommandRegistered(event.getCommand());
     }
 
@@ -194,6 +214,8 @@ public class DefaultCommandRegistry implements CommandRegistry, CommandRegistryL
         
         Object previousCommand = this.commandMap.put(command.getId(), command);
         
+        invalidateLookupView();
+        
         if (previousCommand != null && logger.isWarnEnabled()) {
             logger.warn("The command ["
                         + previousCommand
@@ -296,15 +318,7 @@ public class DefaultCommandRegistry implements CommandRegistry, CommandRegistryL
         
         Assert.required(commandId, "commandId");
         
-        if (this.commandMap.containsKey(commandId)) {
-            return true;
-        }
-        
-        if (this.parent != null) {
-            return this.parent.containsCommand(commandId);
-        }
-        
-        return false;
+        return resolveCommand(commandId) != null;
         
     }
 
@@ -322,11 +336,7 @@ public class DefaultCommandRegistry implements CommandRegistry, CommandRegistryL
         
         Assert.required(commandId, "commandId");
         
-        Object command = this.commandMap.get(commandId);
-        
-        if (command == null && this.parent != null) {
-            command = this.parent.getCommand(commandId);
-        }
+        Object command = resolveCommand(commandId);
         
         if (command == null) {
             return null;
@@ -340,6 +350,60 @@ public class DefaultCommandRegistry implements CommandRegistry, CommandRegistryL
         
     }
 
+    /**
+     * Looks up a command in this registry or, if not found, in the parent registry, using the
+     * lookup view.
+     *
+     * @param commandId The id of the command. Must not be null.
+     * @return The command, or null if neither this registry nor its ancestors contain it.
+     */
+    private Object resolveCommand(String commandId) {
+        
+        // the view must be read before the registries: a registration that the lookup
+        // misses replaces this view, so the stale result is discarded along with it
+        LookupView view = this.lookupView;
+        
+        Object command = view.commands.get(commandId);
+        
+        if (command == null && !view.misses.containsKey(commandId)) {
+            command = this.commandMap.get(commandId);
+            
+            CommandRegistry parentRegistry = this.parent;
+            if (command == null && parentRegistry != null) {
+                command = parentRegistry.getCommand(commandId);
+            }
+            
+            if (command != null) {
+                view.commands.put(commandId, command);
+            }
+            // once the bound is reached further misses are looked up each time; the
+            // check and put may race, so the bound can be exceeded by a few entries
+            else if (view.misses.size() < MAX_CACHED_MISSES) {
+                view.misses.put(commandId, Boolean.TRUE);
+            }
+        }
+        
+        return command;
+        
+    }
+
+    /**
+     * Discards the resolved lookups, called whenever the result of a lookup may have changed.
+     */
+    protected synchronized void invalidateLookupView() {
+        this.lookupView = new LookupView(this.lookupVersion.incrementAndGet());
+    }
+
+    /**
+     * Returns the version of the lookup view, which is incremented each time the view is
+     * invalidated.
+     *
+     * @return The lookup version.
+     */
+    public long getLookupVersion() {
+        return this.lookupView.version;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -377,4 +441,21 @@ public class DefaultCommandRegistry implements CommandRegistry, CommandRegistryL
         
     }
 
+    /**
+     * The commands found, and the ids not found, since the last invalidation.
+     */
+    private static final class LookupView {
+        
+        private final long version;
+        
+        private final Map commands = new ConcurrentHashMap();
+        
+        private final Map misses = new ConcurrentHashMap();
+        
+        LookupView(long version) {
+            this.version = version;
+        }
+        
+    }
+
 }
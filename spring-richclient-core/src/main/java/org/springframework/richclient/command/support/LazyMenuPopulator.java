@@ -0,0 +1,154 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.command.support;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.swing.JComponent;
+import javax.swing.JMenu;
+import javax.swing.JPopupMenu;
+import javax.swing.event.MenuEvent;
+import javax.swing.event.MenuListener;
+import javax.swing.event.PopupMenuEvent;
+import javax.swing.event.PopupMenuListener;
+
+/**
+ * Defers populating a {@link JMenu} or {@link JPopupMenu} until it is opened for the
+ * first time. The populator runs once, just before the menu or popup becomes visible,
+ * after which the listener detaches itself; the created items are kept and reused on
+ * subsequent openings.
+ * <p>
+ * The number of deferred and populated menus is counted, so the savings can be
+ * measured: the difference is the number of menus whose items were never created.
+ */
+public class LazyMenuPopulator implements MenuListener, PopupMenuListener {
+
+    private static final String CLIENT_PROPERTY_KEY = LazyMenuPopulator.class.getName();
+
+    private static final AtomicInteger deferredCount = new AtomicInteger();
+
+    private static final AtomicInteger populatedCount = new AtomicInteger();
+
+    private final JComponent menu;
+
+    private Runnable populator;
+
+    /**
+     * Populate the menu when it is selected for the first time.
+     *
+     * @param menu The menu to populate.
+     * @param populator Adds the items to the menu.
+     */
+    public static void bind(JMenu menu, Runnable populator) {
+        LazyMenuPopulator listener = new LazyMenuPopulator(menu, populator);
+        menu.addMenuListener(listener);
+    }
+
+    /**
+     * Populate the popup when it becomes visible for the first time.
+     *
+     * @param popup The popup to populate.
+     * @param populator Adds the items to the popup.
+     */
+    public static void bind(JPopupMenu popup, Runnable populator) {
+        LazyMenuPopulator listener = new LazyMenuPopulator(popup, populator);
+        popup.addPopupMenuListener(listener);
+    }
+
+    /**
+     * @return <code>true</code> if the menu was bound and hasn't been populated yet.
+     */
+    public static boolean isPending(JComponent menu) {
+        return menu.getClientProperty(CLIENT_PROPERTY_KEY) != null;
+    }
+
+    /**
+     * Populate the menu now if it is still pending, e.g. to make the accelerators of
+     * its items available before it is opened.
+     */
+    public static void populate(JComponent menu) {
+        LazyMenuPopulator listener = (LazyMenuPopulator)menu.getClientProperty(CLIENT_PROPERTY_KEY);
+        if (listener != null) {
+            listener.populate();
+        }
+    }
+
+    /**
+     * @return the number of menus whose population was deferred.
+     */
+    public static int getDeferredCount() {
+        return deferredCount.get();
+    }
+
+    /**
+     * @return the number of deferred menus that have been populated.
+     */
+    public static int getPopulatedCount() {
+        return populatedCount.get();
+    }
+
+    /**
+     * Reset the counters.
+     */
+    public static void resetCounts() {
+        deferredCount.set(0);
+        populatedCount.set(0);
+    }
+
+    private LazyMenuPopulator(JComponent menu, Runnable populator) {
+        this.menu = menu;
+        this.populator = populator;
+        menu.putClientProperty(CLIENT_PROPERTY_KEY, this);
+        deferredCount.incrementAndGet();
+    }
+
+    private void populate() {
+        Runnable toRun = populator;
+        if (toRun == null) {
+            return;
+        }
+        populator = null;
+        menu.putClientProperty(CLIENT_PROPERTY_KEY, null);
+        if (menu instanceof JMenu) {
+            ((JMenu)menu).removeMenuListener(this);
+        }
+        else {
+            ((JPopupMenu)menu).removePopupMenuListener(this);
+        }
+        toRun.run();
+        populatedCount.incrementAndGet();
+    }
+
+    public void menuSelected(MenuEvent e) {
+        populate();
+    }
+
+    public void menuDeselected(MenuEvent e) {
+    }
+
+    public void menuCanceled(MenuEvent e) {
+    }
+
+    public void popupMenuWillBecomeVisible(PopupMenuEvent e) {
+        populate();
+    }
+
+    public void popupMenuWillBecomeInvisible(PopupMenuEvent e) {
+    }
+
+    public void popupMenuCanceled(PopupMenuEvent e) {
+    }
+}
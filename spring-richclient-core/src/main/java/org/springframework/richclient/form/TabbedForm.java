@@ -6,6 +6,7 @@ import org.springframework.binding.form.FormModel;
 import org.springframework.binding.form.NewFormObjectAware;
 import org.springframework.richclient.components.MessagableTabbedPane;
 import org.springframework.richclient.components.SkipComponentsFocusTraversalPolicy;
+import org.springframework.richclient.form.builder.LazyFormSection;
 import org.springframework.richclient.util.RcpSupport;
 
 import javax.swing.event.ChangeListener;
@@ -128,6 +129,18 @@ public abstract class TabbedForm extends AbstractFocussableForm implements Chang
             this.panel.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
         }
 
+        /**
+         * Creates a tab whose components are created and bound only when the
+         * tab is first selected.
+         *
+         * @param tabId id of the tab, used to look up its title
+         * @param section the lazily created content of the tab
+         */
+        public Tab(String tabId, LazyFormSection section)
+        {
+            this(tabId, section.getComponent());
+        }
+
         /**
          * Set parent for overlays and enabling
          *
@@ -6,6 +6,8 @@ import javax.swing.text.PlainDocument;
 import javax.swing.text.AttributeSet;
 import java.util.regex.Pattern;
 
+import org.springframework.rules.support.PatternCache;
+
 /**
  * This DocumentFactory will create a Document which holds a {@link Pattern}. This Pattern is then used
  * to verify each character that is inserted. This makes it possible to eg. allow only alfanumeric. Note
@@ -96,7 +98,7 @@ public class RegExDocumentFactory implements DocumentFactory {
         private final boolean convertToUppercase;
 
         public RegExDocument(String stringPattern, boolean convertToUppercase) {
-            this.pattern = Pattern.compile(stringPattern, Pattern.DOTALL);
+            this.pattern = PatternCache.INSTANCE.getPattern(stringPattern, Pattern.DOTALL);
             this.convertToUppercase = convertToUppercase;
         }
 
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.form.builder;
+
+import java.awt.BorderLayout;
+import java.awt.Dimension;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+
+import javax.swing.JComponent;
+import javax.swing.JPanel;
+import javax.swing.event.AncestorEvent;
+import javax.swing.event.AncestorListener;
+
+import org.springframework.binding.form.FormModel;
+
+/**
+ * A section of a large form whose components are created and bound only when
+ * the section first becomes visible, for instance when the tab holding it is
+ * selected or when it is scrolled into view.
+ * <p>
+ * Until then the section is an empty placeholder of an estimated size, so a
+ * form with hundreds of fields opens without creating the components and
+ * bindings of the fields the user never looks at. The content is built by
+ * {@link #createContent()}, usually with a {@link TableFormBuilder},
+ * {@link GridBagLayoutFormBuilder} or {@link FormLayoutFormBuilder} on the
+ * binding factory of the form:
+ *
+ * <pre>
+ * LazyFormSection address = new LazyFormSection(getFormModel(), new String[] { &quot;street&quot;, &quot;city&quot; }) {
+ * 	protected JComponent createContent() {
+ * 		TableFormBuilder builder = new TableFormBuilder(getBindingFactory());
+ * 		builder.add(&quot;street&quot;);
+ * 		builder.row();
+ * 		builder.add(&quot;city&quot;);
+ * 		return builder.getForm();
+ * 	}
+ * };
+ * tabbedPane.addTab(&quot;Address&quot;, address.getComponent());
+ * </pre>
+ *
+ * The fields of the section are added to the form model right away, so they
+ * are validated and committed like the fields of any other section even if
+ * the section is never shown. Once created, the content is kept: bindings
+ * register listeners on the form model that are not removed again, so
+ * releasing the components of a hidden section would not free them.
+ */
+public abstract class LazyFormSection {
+
+	/**
+	 * The estimated height of a form row, used to size the placeholder of a
+	 * section that has not been created yet.
+	 */
+	public static final int DEFAULT_ROW_HEIGHT = 25;
+
+	private final FormModel formModel;
+
+	private final String[] fieldNames;
+
+	private final JPanel placeholder;
+
+	private Dimension estimatedSize;
+
+	private boolean created;
+
+	/**
+	 * Creates a new section holding the given fields.
+	 *
+	 * @param formModel the form model the section binds to
+	 * @param fieldNames the fields shown by the section; they are added to the
+	 * form model right away. May be <code>null</code> if the fields are added
+	 * to the form model by other means.
+	 */
+	public LazyFormSection(FormModel formModel, String[] fieldNames) {
+		this.formModel = formModel;
+		this.fieldNames = fieldNames != null ? fieldNames : new String[0];
+		for (int i = 0; i < this.fieldNames.length; i++) {
+			formModel.getValueModel(this.fieldNames[i]);
+		}
+		this.estimatedSize = new Dimension(0, this.fieldNames.length * DEFAULT_ROW_HEIGHT);
+		this.placeholder = new JPanel(new BorderLayout()) {
+			public Dimension getPreferredSize() {
+				if (!created && !isPreferredSizeSet()) {
+					return estimatedSize;
+				}
+				return super.getPreferredSize();
+			}
+		};
+		VisibilityListener listener = new VisibilityListener();
+		placeholder.addAncestorListener(listener);
+		placeholder.addComponentListener(listener);
+	}
+
+	/**
+	 * Returns the form model the section binds to.
+	 */
+	protected FormModel getFormModel() {
+		return formModel;
+	}
+
+	/**
+	 * Returns the fields shown by the section.
+	 */
+	public String[] getFieldNames() {
+		return (String[]) fieldNames.clone();
+	}
+
+	/**
+	 * Sets the size of the placeholder shown until the section is created.
+	 * Defaults to {@link #DEFAULT_ROW_HEIGHT} per field, which keeps the
+	 * scroll bars of a scrolled form roughly right.
+	 */
+	public void setEstimatedSize(Dimension estimatedSize) {
+		this.estimatedSize = new Dimension(estimatedSize);
+		if (!created) {
+			placeholder.revalidate();
+		}
+	}
+
+	/**
+	 * Returns the component to add to the form. It holds the content of the
+	 * section once it has been created.
+	 */
+	public JComponent getComponent() {
+		return placeholder;
+	}
+
+	/**
+	 * Returns whether the content of the section has been created.
+	 */
+	public boolean isCreated() {
+		return created;
+	}
+
+	/**
+	 * Creates the content of the section now if it hasn't been created yet,
+	 * for instance to focus one of its fields.
+	 */
+	public void ensureCreated() {
+		if (created) {
+			return;
+		}
+		created = true;
+		JComponent content = createContent();
+		placeholder.add(content, BorderLayout.CENTER);
+		placeholder.revalidate();
+		placeholder.repaint();
+	}
+
+	/**
+	 * Creates the components of the section and binds them to the form model.
+	 * Called once, on the event dispatching thread, when the section first
+	 * becomes visible.
+	 */
+	protected abstract JComponent createContent();
+
+	private void createIfVisible() {
+		if (!created && placeholder.isShowing() && !placeholder.getVisibleRect().isEmpty()) {
+			ensureCreated();
+		}
+	}
+
+	/**
+	 * Creates the section when the placeholder is shown, scrolled, moved or
+	 * resized into view.
+	 */
+	private class VisibilityListener extends ComponentAdapter implements AncestorListener {
+
+		public void ancestorAdded(AncestorEvent event) {
+			createIfVisible();
+		}
+
+		public void ancestorMoved(AncestorEvent event) {
+			createIfVisible();
+		}
+
+		public void ancestorRemoved(AncestorEvent event) {
+		}
+
+		public void componentResized(ComponentEvent e) {
+			createIfVisible();
+		}
+
+		public void componentMoved(ComponentEvent e) {
+			createIfVisible();
+		}
+
+		public void componentShown(ComponentEvent e) {
+			createIfVisible();
+		}
+	}
+}
@@ -19,12 +19,16 @@ import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 
 import org.springframework.binding.value.ValueModel;
+import org.springframework.richclient.command.support.CommandStateScheduler;
 import org.springframework.richclient.core.Guarded;
 
 /**
  * This class applies a guard to a {@link Guarded} object that enables the
  * guarded object bsaed on the contents of the selection model value. Concrete
  * subclasses must provide an implementation for {@link #shouldEnable(int[])}.
+ * <p>
+ * Selection changes are evaluated through the {@link CommandStateScheduler}, so
+ * with coalescing enabled a burst of selection events results in one evaluation.
  * 
  * @author Larry Streepy
  */
@@ -33,6 +37,12 @@ public abstract class AbstractListSelectionGuard implements PropertyChangeListen
     private ValueModel selectionHolder;
     private Guarded guarded;
 
+    private final Runnable evaluation = new Runnable() {
+        public void run() {
+            evaluate();
+        }
+    };
+
     /**
      * Constructor.
      * 
@@ -44,13 +54,20 @@ public abstract class AbstractListSelectionGuard implements PropertyChangeListen
         this.selectionHolder = selectionHolder;
         this.selectionHolder.addValueChangeListener(this);
         this.guarded = guarded;
-        propertyChange(null);
+        evaluate();
     }
 
     /**
      * Handle a change in the selectionHolder value.
      */
     public void propertyChange( PropertyChangeEvent evt ) {
+        CommandStateScheduler.getInstance().schedule(evaluation);
+    }
+
+    /**
+     * Apply the guard to the current selection.
+     */
+    protected void evaluate() {
         int[] selected = (int[]) selectionHolder.getValue();
         guarded.setEnabled(shouldEnable(selected));
     }
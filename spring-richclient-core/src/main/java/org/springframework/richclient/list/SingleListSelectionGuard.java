@@ -19,6 +19,7 @@ import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 
 import org.springframework.binding.value.ValueModel;
+import org.springframework.richclient.command.support.CommandStateScheduler;
 import org.springframework.richclient.core.Guarded;
 
 public class SingleListSelectionGuard implements PropertyChangeListener {
@@ -26,14 +27,24 @@ public class SingleListSelectionGuard implements PropertyChangeListener {
 
     private Guarded guarded;
 
+    private final Runnable evaluation = new Runnable() {
+        public void run() {
+            evaluate();
+        }
+    };
+
     public SingleListSelectionGuard(ValueModel selectionIndexHolder, Guarded guarded) {
         this.selectionIndexHolder = selectionIndexHolder;
         this.selectionIndexHolder.addValueChangeListener(this);
         this.guarded = guarded;
-        propertyChange(null);
+        evaluate();
     }
 
     public void propertyChange(PropertyChangeEvent evt) {
+        CommandStateScheduler.getInstance().schedule(evaluation);
+    }
+
+    private void evaluate() {
         Integer value = (Integer)selectionIndexHolder.getValue();
         if (value == null || value.intValue() == -1) {
             guarded.setEnabled(false);
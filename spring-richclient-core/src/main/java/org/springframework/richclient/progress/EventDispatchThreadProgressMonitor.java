@@ -0,0 +1,94 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.richclient.progress;
+
+import org.springframework.richclient.util.SwingUtilitiesHelper;
+import org.springframework.util.Assert;
+
+/**
+ * <code>ProgressMonitor</code> that can be used from any thread. Progress is
+ * passed on to the wrapped monitor on the event dispatch thread, so monitors
+ * that update Swing components, like the status bar monitor, can be used by
+ * background tasks.
+ * <p>
+ * Cancellation is recorded here as well, so background tasks can poll
+ * {@link #isCanceled()} without touching the wrapped monitor's components.
+ */
+public class EventDispatchThreadProgressMonitor implements ProgressMonitor {
+
+    private final ProgressMonitor delegate;
+
+    private volatile boolean canceled;
+
+    public EventDispatchThreadProgressMonitor(ProgressMonitor delegate) {
+        Assert.notNull(delegate, "Delegate monitor cannot be null.");
+        this.delegate = delegate;
+    }
+
+    public ProgressMonitor getDelegate() {
+        return delegate;
+    }
+
+    public void taskStarted(final String name, final int totalWork) {
+        canceled = false;
+        SwingUtilitiesHelper.executeWithEDTCheck(new Runnable() {
+            public void run() {
+                delegate.taskStarted(name, totalWork);
+            }
+        });
+    }
+
+    public void subTaskStarted(final String name) {
+        SwingUtilitiesHelper.executeWithEDTCheck(new Runnable() {
+            public void run() {
+                delegate.subTaskStarted(name);
+            }
+        });
+    }
+
+    public void worked(final int work) {
+        SwingUtilitiesHelper.executeWithEDTCheck(new Runnable() {
+            public void run() {
+                delegate.worked(work);
+            }
+        });
+    }
+
+    public void done() {
+        SwingUtilitiesHelper.executeWithEDTCheck(new Runnable() {
+            public void run() {
+                delegate.done();
+            }
+        });
+    }
+
+    /**
+     * Returns true if this monitor or the wrapped monitor (e.g. through its
+     * cancel button) has been canceled.
+     */
+    public boolean isCanceled() {
+        return canceled || delegate.isCanceled();
+    }
+
+    public void setCanceled(final boolean b) {
+        canceled = b;
+        SwingUtilitiesHelper.executeWithEDTCheck(new Runnable() {
+            public void run() {
+                delegate.setCanceled(b);
+            }
+        });
+    }
+}
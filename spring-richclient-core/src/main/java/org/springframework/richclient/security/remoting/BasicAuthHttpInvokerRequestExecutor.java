@@ -59,6 +59,9 @@ public class BasicAuthHttpInvokerRequestExecutor extends SimpleHttpInvokerReques
 
     private Authentication authentication;
 
+    /** Authorization header for the current token, encoded on first use. */
+    private String authorizationHeader;
+
     /**
      * Constructor.
      */
@@ -69,17 +72,34 @@ public class BasicAuthHttpInvokerRequestExecutor extends SimpleHttpInvokerReques
      * (non-Javadoc)
      * @see org.springframework.richclient.security.AuthenticationAware#setAuthenticationToken(org.springframework.security.Authentication)
      */
-    public void setAuthenticationToken(Authentication authentication) {
+    public synchronized void setAuthenticationToken(Authentication authentication) {
         this.authentication = authentication;
+        this.authorizationHeader = null;
     }
 
     /**
      * Get the Authentication object for the current user, if any.
      */
-    public Authentication getAuthenticationToken() {
+    public synchronized Authentication getAuthenticationToken() {
         return authentication;
     }
 
+    /**
+     * Get the value of the <code>Authorization</code> header for the current
+     * authentication token. The value is encoded once and cached until the token
+     * changes.
+     * @return the header value, or null if the token has no principal or credentials
+     */
+    protected synchronized String getAuthorizationHeader() {
+        Authentication auth = authentication;
+        if( authorizationHeader == null && (auth != null) && (auth.getName() != null)
+                && (auth.getCredentials() != null) ) {
+            String base64 = auth.getName() + ":" + auth.getCredentials().toString();
+            authorizationHeader = "Basic " + new String( Base64.encodeBase64( base64.getBytes() ) );
+        }
+        return authorizationHeader;
+    }
+
     //
     // === SimpleHttpInvokerRequestExecutor methods ===
     //
@@ -107,7 +127,7 @@ public class BasicAuthHttpInvokerRequestExecutor extends SimpleHttpInvokerReques
      * <p>
      * The previously saved authentication token is used to obtain the principal and
      * credentials. If the saved token is null, then the "Authorization" header will not
-     * be added to the request.
+     * be added to the request. The header is encoded once per token.
      * 
      * @param con the HTTP connection to prepare
      * @param contentLength the length of the content to send
@@ -118,18 +138,19 @@ public class BasicAuthHttpInvokerRequestExecutor extends SimpleHttpInvokerReques
 
         super.prepareConnection( con, contentLength );
 
-        Authentication auth = getAuthenticationToken();
+        String header = getAuthorizationHeader();
 
-        if( (auth != null) && (auth.getName() != null) && (auth.getCredentials() != null) ) {
-            String base64 = auth.getName() + ":" + auth.getCredentials().toString();
-            con.setRequestProperty( "Authorization", "Basic " + new String( Base64.encodeBase64( base64.getBytes() ) ) );
+        if( header != null ) {
+            con.setRequestProperty( "Authorization", header );
 
             if( logger.isDebugEnabled() ) {
-                logger.debug( "HttpInvocation now presenting via BASIC authentication with token:: " + auth );
+                logger.debug( "HttpInvocation now presenting via BASIC authentication with token:: "
+                        + getAuthenticationToken() );
             }
         } else {
             if( logger.isDebugEnabled() ) {
-                logger.debug( "Unable to set BASIC authentication header as Authentication token is invalid: " + auth );
+                logger.debug( "Unable to set BASIC authentication header as Authentication token is invalid: "
+                        + getAuthenticationToken() );
             }
         }
 
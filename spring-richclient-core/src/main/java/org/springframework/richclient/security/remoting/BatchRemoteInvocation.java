@@ -0,0 +1,52 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.security.remoting;
+
+import org.springframework.remoting.support.RemoteInvocation;
+import org.springframework.util.Assert;
+
+/**
+ * Remote invocation that carries several invocations of the same service, sent in one
+ * request by a {@link BatchingHttpInvokerProxyFactoryBean}. The server must use a
+ * {@link BatchingHttpInvokerServiceExporter}, which returns a
+ * <code>RemoteInvocationResult[]</code> with the result of each invocation, in order.
+ */
+public class BatchRemoteInvocation extends RemoteInvocation {
+
+    private static final long serialVersionUID = 1L;
+
+    private RemoteInvocation[] invocations;
+
+    /**
+     * Constructor.
+     * @param invocations the invocations to execute, in order
+     */
+    public BatchRemoteInvocation(RemoteInvocation[] invocations) {
+        Assert.notEmpty( invocations, "invocations cannot be empty" );
+        this.invocations = invocations;
+        setMethodName( "invokeBatch" );
+        setParameterTypes( new Class[0] );
+        setArguments( new Object[0] );
+    }
+
+    public RemoteInvocation[] getInvocations() {
+        return invocations;
+    }
+
+    public String toString() {
+        return "BatchRemoteInvocation: " + invocations.length + " invocations";
+    }
+}
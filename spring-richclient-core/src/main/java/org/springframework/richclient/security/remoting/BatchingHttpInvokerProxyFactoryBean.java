@@ -0,0 +1,359 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.security.remoting;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.remoting.RemoteAccessException;
+import org.springframework.remoting.support.RemoteInvocation;
+import org.springframework.remoting.support.RemoteInvocationResult;
+import org.springframework.util.Assert;
+
+/**
+ * Extension of {@link BasicAuthHttpInvokerProxyFactoryBean} that combines several
+ * remote method calls into one HTTP request. The service must be exported with a
+ * {@link BatchingHttpInvokerServiceExporter}.
+ * <p>
+ * Calls are batched in two ways:
+ * <ul>
+ * <li>If a {@link #setBatchWindow(long) batchWindow} is set, calls made by different
+ * threads within that window are sent together. Each caller blocks until the result of
+ * its own call is available, as with a plain proxy. The first call of a window waits
+ * for the window to end, so this adds up to <code>batchWindow</code> milliseconds of
+ * latency to calls that turn out to be alone.</li>
+ * <li>{@link #executeBatch(Runnable)} records all calls made on the proxy by the given
+ * callback, on the calling thread, and sends them in one request afterwards. The
+ * recorded calls return <code>null</code> (or the default value of a primitive return
+ * type); the real results are returned by <code>executeBatch</code>.</li>
+ * </ul>
+ * Methods of <code>Object</code>, such as <code>equals</code> and <code>hashCode</code>,
+ * are handled by the proxy itself and are neither sent nor recorded.
+ * <p>
+ * Here's an example of a batch scope, where <code>clinic</code> is the proxy created
+ * by <code>clinicFactory</code>:
+ *
+ * <pre>
+ * Object[] results = clinicFactory.executeBatch( new Runnable() {
+ *     public void run() {
+ *         clinic.getVets();
+ *         clinic.getPetTypes();
+ *     }
+ * } );
+ * Collection vets = (Collection) results[0];
+ * Collection petTypes = (Collection) results[1];
+ * </pre>
+ *
+ * @see BatchingHttpInvokerServiceExporter
+ */
+public class BatchingHttpInvokerProxyFactoryBean extends BasicAuthHttpInvokerProxyFactoryBean {
+
+    public static final int DEFAULT_MAX_BATCH_SIZE = 50;
+
+    /** Calls recorded by executeBatch on the current thread. */
+    private final ThreadLocal recordedInvocations = new ThreadLocal();
+
+    private final Object batchLock = new Object();
+
+    /** The batch collecting the calls of the current window. */
+    private Batch currentBatch;
+
+    private long batchWindow = 0;
+
+    private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+
+    /**
+     * Set the time in milliseconds during which calls of different threads are
+     * collected into one request. Defaults to 0, which sends every call immediately.
+     * @param batchWindow window in milliseconds
+     */
+    public void setBatchWindow(long batchWindow) {
+        Assert.isTrue( batchWindow >= 0, "batchWindow cannot be negative" );
+        this.batchWindow = batchWindow;
+    }
+
+    public long getBatchWindow() {
+        return batchWindow;
+    }
+
+    /**
+     * Set the maximum number of calls sent in one request. A window's batch is sent as
+     * soon as it is full. Defaults to 50.
+     * @param maxBatchSize maximum number of calls per request
+     */
+    public void setMaxBatchSize(int maxBatchSize) {
+        Assert.isTrue( maxBatchSize > 0, "maxBatchSize must be positive" );
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * Record the calls made on the proxy by the callback and execute them in one
+     * request.
+     * @param calls callback making the calls, on the current thread
+     * @return the results of the calls, in order
+     * @throws RuntimeException the exception thrown by the first failing call, checked
+     *             exceptions are wrapped in a <code>RemoteAccessException</code>
+     */
+    public Object[] executeBatch(Runnable calls) {
+        Assert.state( recordedInvocations.get() == null, "Batches cannot be nested" );
+        List invocations = new ArrayList();
+        recordedInvocations.set( invocations );
+        try {
+            calls.run();
+        } finally {
+            recordedInvocations.set( null );
+        }
+
+        if( invocations.isEmpty() ) {
+            return new Object[0];
+        }
+
+        Batch batch = new Batch();
+        batch.calls.addAll( invocations );
+        send( batch );
+
+        Object[] results = new Object[batch.calls.size()];
+        for( int i = 0; i < results.length; i++ ) {
+            try {
+                results[i] = ((PendingCall) batch.calls.get( i )).getResult();
+            } catch( RuntimeException e ) {
+                throw e;
+            } catch( Error e ) {
+                throw e;
+            } catch( Throwable t ) {
+                throw new RemoteAccessException( "Remote invocation " + (i + 1) + " of batch failed", t );
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Handle a method of <code>Object</code> declared by the service interface on the
+     * client, based on the identity of the proxy, instead of sending it to the server.
+     */
+    private Object invokeLocally(MethodInvocation methodInvocation) throws Throwable {
+        Object proxy = this;
+        if( methodInvocation instanceof ProxyMethodInvocation ) {
+            proxy = ((ProxyMethodInvocation) methodInvocation).getProxy();
+        }
+        Method method = methodInvocation.getMethod();
+        if( AopUtils.isEqualsMethod( method ) ) {
+            return Boolean.valueOf( proxy == methodInvocation.getArguments()[0] );
+        }
+        if( AopUtils.isHashCodeMethod( method ) ) {
+            return new Integer( System.identityHashCode( proxy ) );
+        }
+        return AopUtils.invokeJoinpointUsingReflection( proxy, method, methodInvocation.getArguments() );
+    }
+
+    /**
+     * Intercept a call on the proxy: record it, add it to the current window's batch,
+     * or send it immediately.
+     */
+    public Object invoke(MethodInvocation methodInvocation) throws Throwable {
+        Method method = methodInvocation.getMethod();
+        if( AopUtils.isToStringMethod( method ) ) {
+            return super.invoke( methodInvocation );
+        }
+        if( AopUtils.isEqualsMethod( method ) || AopUtils.isHashCodeMethod( method )
+                || method.getDeclaringClass() == Object.class ) {
+            return invokeLocally( methodInvocation );
+        }
+
+        List recording = (List) recordedInvocations.get();
+        if( recording != null ) {
+            recording.add( new PendingCall( createRemoteInvocation( methodInvocation ) ) );
+            return defaultValue( methodInvocation.getMethod().getReturnType() );
+        }
+
+        if( batchWindow == 0 ) {
+            return super.invoke( methodInvocation );
+        }
+
+        PendingCall call = new PendingCall( createRemoteInvocation( methodInvocation ) );
+        Batch batch;
+        boolean first = false;
+        boolean full = false;
+        synchronized( batchLock ) {
+            if( currentBatch == null ) {
+                currentBatch = new Batch();
+                first = true;
+            }
+            batch = currentBatch;
+            batch.calls.add( call );
+            if( batch.calls.size() >= maxBatchSize ) {
+                currentBatch = null;
+                full = true;
+            }
+        }
+
+        if( full ) {
+            send( batch );
+        } else if( first ) {
+            // The first caller waits for the window to close and sends the batch,
+            // unless it was sent in the meantime because it was full
+            waitForWindow();
+            boolean unsent;
+            synchronized( batchLock ) {
+                unsent = (currentBatch == batch);
+                if( unsent ) {
+                    currentBatch = null;
+                }
+            }
+            if( unsent ) {
+                send( batch );
+            }
+        }
+        return call.getResult();
+    }
+
+    private void waitForWindow() {
+        long end = System.currentTimeMillis() + batchWindow;
+        long remaining = batchWindow;
+        while( remaining > 0 ) {
+            try {
+                Thread.sleep( remaining );
+            } catch( InterruptedException e ) {
+                // send the batch now, but keep the interrupt
+                Thread.currentThread().interrupt();
+                return;
+            }
+            remaining = end - System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Send the calls of a batch and hand the results to the calls.
+     */
+    private void send(Batch batch) {
+        RemoteInvocation invocation;
+        if( batch.calls.size() == 1 ) {
+            invocation = ((PendingCall) batch.calls.get( 0 )).invocation;
+        } else {
+            RemoteInvocation[] invocations = new RemoteInvocation[batch.calls.size()];
+            for( int i = 0; i < invocations.length; i++ ) {
+                invocations[i] = ((PendingCall) batch.calls.get( i )).invocation;
+            }
+            invocation = new BatchRemoteInvocation( invocations );
+        }
+
+        if( logger.isDebugEnabled() ) {
+            logger.debug( "Sending " + batch.calls.size() + " invocations to " + getServiceUrl() );
+        }
+
+        try {
+            RemoteInvocationResult result = getHttpInvokerRequestExecutor().executeRequest( this, invocation );
+            if( batch.calls.size() == 1 || result.hasException() ) {
+                for( int i = 0; i < batch.calls.size(); i++ ) {
+                    ((PendingCall) batch.calls.get( i )).complete( result );
+                }
+            } else {
+                RemoteInvocationResult[] results = (RemoteInvocationResult[]) result.getValue();
+                for( int i = 0; i < batch.calls.size(); i++ ) {
+                    ((PendingCall) batch.calls.get( i )).complete( results[i] );
+                }
+            }
+        } catch( Throwable t ) {
+            RemoteAccessException failure = new RemoteAccessException( "Could not access HTTP invoker remote service at ["
+                    + getServiceUrl() + "]", t );
+            for( int i = 0; i < batch.calls.size(); i++ ) {
+                ((PendingCall) batch.calls.get( i )).fail( failure );
+            }
+        }
+    }
+
+    private static Object defaultValue(Class type) {
+        if( !type.isPrimitive() || type == void.class ) {
+            return null;
+        }
+        if( type == boolean.class ) {
+            return Boolean.FALSE;
+        }
+        if( type == char.class ) {
+            return new Character( '\0' );
+        }
+        if( type == byte.class ) {
+            return new Byte( (byte) 0 );
+        }
+        if( type == short.class ) {
+            return new Short( (short) 0 );
+        }
+        if( type == int.class ) {
+            return new Integer( 0 );
+        }
+        if( type == long.class ) {
+            return new Long( 0 );
+        }
+        if( type == float.class ) {
+            return new Float( 0 );
+        }
+        return new Double( 0 );
+    }
+
+    /**
+     * Calls that are sent in one request.
+     */
+    private static class Batch {
+        private final List calls = new ArrayList();
+    }
+
+    /**
+     * A call waiting for its result.
+     */
+    private class PendingCall {
+        private final RemoteInvocation invocation;
+
+        private RemoteInvocationResult result;
+
+        private RemoteAccessException failure;
+
+        private boolean done;
+
+        PendingCall(RemoteInvocation invocation) {
+            this.invocation = invocation;
+        }
+
+        synchronized void complete(RemoteInvocationResult result) {
+            this.result = result;
+            this.done = true;
+            notifyAll();
+        }
+
+        synchronized void fail(RemoteAccessException failure) {
+            this.failure = failure;
+            this.done = true;
+            notifyAll();
+        }
+
+        synchronized Object getResult() throws Throwable {
+            while( !done ) {
+                wait();
+            }
+            if( failure != null ) {
+                throw failure;
+            }
+            return recreateRemoteInvocationResult( result );
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.security.remoting;
+
+import org.springframework.remoting.httpinvoker.HttpInvokerServiceExporter;
+import org.springframework.remoting.support.RemoteInvocation;
+import org.springframework.remoting.support.RemoteInvocationResult;
+
+/**
+ * Extension of <code>HttpInvokerServiceExporter</code> that also accepts the
+ * {@link BatchRemoteInvocation}s sent by a {@link BatchingHttpInvokerProxyFactoryBean}.
+ * The invocations of a batch are executed one after the other, in order, and their
+ * results are returned as a <code>RemoteInvocationResult[]</code>. A failing invocation
+ * does not stop the batch; its exception is returned in its own result.
+ * <p>
+ * Plain invocations are handled as usual, so this exporter can replace a
+ * <code>HttpInvokerServiceExporter</code> without affecting existing clients.
+ * 
+ * @see BatchingHttpInvokerProxyFactoryBean
+ */
+public class BatchingHttpInvokerServiceExporter extends HttpInvokerServiceExporter {
+
+    protected RemoteInvocationResult invokeAndCreateResult(RemoteInvocation invocation, Object targetObject) {
+        if( !(invocation instanceof BatchRemoteInvocation) ) {
+            return super.invokeAndCreateResult( invocation, targetObject );
+        }
+
+        RemoteInvocation[] invocations = ((BatchRemoteInvocation) invocation).getInvocations();
+        RemoteInvocationResult[] results = new RemoteInvocationResult[invocations.length];
+        for( int i = 0; i < invocations.length; i++ ) {
+            results[i] = super.invokeAndCreateResult( invocations[i], targetObject );
+        }
+        if( logger.isDebugEnabled() ) {
+            logger.debug( "Executed batch of " + invocations.length + " invocations" );
+        }
+        return new RemoteInvocationResult( results );
+    }
+}
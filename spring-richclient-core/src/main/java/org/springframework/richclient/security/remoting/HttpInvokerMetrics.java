@@ -0,0 +1,109 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.security.remoting;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.core.style.ToStringCreator;
+
+/**
+ * Thread-safe counters of the HTTP invocations made by a
+ * {@link PooledHttpInvokerRequestExecutor}. Byte counts are the bytes on the wire,
+ * i.e. after compression.
+ */
+public class HttpInvokerMetrics {
+
+    private final AtomicLong requestCount = new AtomicLong();
+
+    private final AtomicLong failureCount = new AtomicLong();
+
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    private final AtomicLong bytesSent = new AtomicLong();
+
+    private final AtomicLong bytesReceived = new AtomicLong();
+
+    /**
+     * Record a completed invocation.
+     * @param latencyNanos time from opening the connection to reading the result
+     * @param sent request body size
+     * @param received response body size
+     */
+    public void recordRequest(long latencyNanos, long sent, long received) {
+        requestCount.incrementAndGet();
+        totalLatencyNanos.addAndGet( latencyNanos );
+        bytesSent.addAndGet( sent );
+        bytesReceived.addAndGet( received );
+
+        long max = maxLatencyNanos.get();
+        while( latencyNanos > max && !maxLatencyNanos.compareAndSet( max, latencyNanos ) ) {
+            max = maxLatencyNanos.get();
+        }
+    }
+
+    /**
+     * Record a failed invocation.
+     */
+    public void recordFailure() {
+        failureCount.incrementAndGet();
+    }
+
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    public long getFailureCount() {
+        return failureCount.get();
+    }
+
+    public long getBytesSent() {
+        return bytesSent.get();
+    }
+
+    public long getBytesReceived() {
+        return bytesReceived.get();
+    }
+
+    public double getAverageLatencyMillis() {
+        long count = requestCount.get();
+        return count == 0 ? 0 : totalLatencyNanos.get() / (count * 1000000.0);
+    }
+
+    public double getMaxLatencyMillis() {
+        return maxLatencyNanos.get() / 1000000.0;
+    }
+
+    /**
+     * Reset all counters to zero.
+     */
+    public void reset() {
+        requestCount.set( 0 );
+        failureCount.set( 0 );
+        totalLatencyNanos.set( 0 );
+        maxLatencyNanos.set( 0 );
+        bytesSent.set( 0 );
+        bytesReceived.set( 0 );
+    }
+
+    public String toString() {
+        return new ToStringCreator( this ).append( "requestCount", getRequestCount() ).append( "failureCount",
+                getFailureCount() ).append( "averageLatencyMillis", getAverageLatencyMillis() ).append(
+                "maxLatencyMillis", getMaxLatencyMillis() ).append( "bytesSent", getBytesSent() ).append(
+                "bytesReceived", getBytesReceived() ).toString();
+    }
+}
@@ -0,0 +1,269 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.security.remoting;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.util.concurrent.Semaphore;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.remoting.httpinvoker.HttpInvokerClientConfiguration;
+import org.springframework.remoting.support.RemoteInvocationResult;
+import org.springframework.util.Assert;
+
+/**
+ * High-throughput variant of {@link BasicAuthHttpInvokerRequestExecutor}.
+ * <p>
+ * Connections are kept alive and reused: every response is read completely and closed,
+ * which returns the socket to the keep-alive cache of <code>HttpURLConnection</code>
+ * instead of closing it. The number of concurrent connections is bounded by
+ * {@link #setMaxConnections(int) maxConnections}; further invocations wait for a free
+ * connection, so they reuse the pooled sockets instead of opening new ones. Note that
+ * the JDK keeps at most <code>http.maxConnections</code> (default 5) idle sockets per
+ * destination.
+ * <p>
+ * Responses are requested with GZIP compression, and GZIP responses are decompressed.
+ * Requests can be compressed as well with {@link #setCompressRequest(boolean)}; this
+ * requires a server that decompresses requests with a
+ * <code>Content-Encoding: gzip</code> header, so it is disabled by default.
+ * <p>
+ * Latency and byte counts of all invocations are collected in
+ * {@link #getMetrics() metrics}.
+ */
+public class PooledHttpInvokerRequestExecutor extends BasicAuthHttpInvokerRequestExecutor {
+
+    public static final int DEFAULT_MAX_CONNECTIONS = 5;
+
+    private static final String HTTP_HEADER_CONTENT_ENCODING = "Content-Encoding";
+
+    private static final String HTTP_HEADER_ACCEPT_ENCODING = "Accept-Encoding";
+
+    private static final String ENCODING_GZIP = "gzip";
+
+    private Semaphore connections = new Semaphore( DEFAULT_MAX_CONNECTIONS, true );
+
+    private int maxConnections = DEFAULT_MAX_CONNECTIONS;
+
+    private boolean compressRequest = false;
+
+    private boolean acceptCompressedResponse = true;
+
+    private final HttpInvokerMetrics metrics = new HttpInvokerMetrics();
+
+    /**
+     * Set the maximum number of concurrent connections. Defaults to 5.
+     * @param maxConnections maximum number of connections
+     */
+    public synchronized void setMaxConnections(int maxConnections) {
+        Assert.isTrue( maxConnections > 0, "maxConnections must be positive" );
+        this.maxConnections = maxConnections;
+        this.connections = new Semaphore( maxConnections, true );
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    /**
+     * Set whether request bodies are GZIP compressed. Defaults to false.
+     */
+    public void setCompressRequest(boolean compressRequest) {
+        this.compressRequest = compressRequest;
+    }
+
+    public boolean isCompressRequest() {
+        return compressRequest;
+    }
+
+    /**
+     * Set whether GZIP compressed responses are requested. Defaults to true.
+     */
+    public void setAcceptCompressedResponse(boolean acceptCompressedResponse) {
+        this.acceptCompressedResponse = acceptCompressedResponse;
+    }
+
+    public boolean isAcceptCompressedResponse() {
+        return acceptCompressedResponse;
+    }
+
+    /**
+     * Get the metrics of the invocations made by this executor.
+     */
+    public HttpInvokerMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Execute the request on a pooled connection.
+     */
+    protected RemoteInvocationResult doExecuteRequest(HttpInvokerClientConfiguration config,
+            ByteArrayOutputStream baos) throws IOException, ClassNotFoundException {
+        byte[] body = compressRequest ? compress( baos ) : baos.toByteArray();
+
+        Semaphore pool;
+        synchronized( this ) {
+            pool = connections;
+        }
+        pool.acquireUninterruptibly();
+        long start = System.nanoTime();
+        try {
+            HttpURLConnection con = openConnection( config );
+            prepareConnection( con, body.length );
+            if( compressRequest ) {
+                con.setRequestProperty( HTTP_HEADER_CONTENT_ENCODING, ENCODING_GZIP );
+            }
+            if( acceptCompressedResponse ) {
+                con.setRequestProperty( HTTP_HEADER_ACCEPT_ENCODING, ENCODING_GZIP );
+            }
+
+            OutputStream out = con.getOutputStream();
+            try {
+                out.write( body );
+            } finally {
+                out.close();
+            }
+
+            try {
+                validateResponse( config, con );
+            } catch( IOException e ) {
+                discard( con.getErrorStream() );
+                throw e;
+            }
+
+            CountingInputStream in = new CountingInputStream( con.getInputStream() );
+            RemoteInvocationResult result;
+            try {
+                InputStream responseBody = in;
+                if( ENCODING_GZIP.equalsIgnoreCase( con.getHeaderField( HTTP_HEADER_CONTENT_ENCODING ) ) ) {
+                    responseBody = new GZIPInputStream( in );
+                }
+                result = readRemoteInvocationResult( responseBody, config.getCodebaseUrl() );
+            } finally {
+                in.release();
+            }
+
+            long latency = System.nanoTime() - start;
+            metrics.recordRequest( latency, body.length, in.getCount() );
+            if( logger.isDebugEnabled() ) {
+                logger.debug( "Invocation of " + config.getServiceUrl() + " took " + (latency / 1000000) + " ms, sent "
+                        + body.length + " bytes, received " + in.getCount() + " bytes" );
+            }
+            return result;
+        } catch( IOException e ) {
+            metrics.recordFailure();
+            throw e;
+        } catch( ClassNotFoundException e ) {
+            metrics.recordFailure();
+            throw e;
+        } finally {
+            pool.release();
+        }
+    }
+
+    private static byte[] compress(ByteArrayOutputStream baos) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream( baos.size() / 2 + 64 );
+        GZIPOutputStream gzip = new GZIPOutputStream( compressed );
+        baos.writeTo( gzip );
+        gzip.close();
+        return compressed.toByteArray();
+    }
+
+    private static void drain(InputStream in) throws IOException {
+        byte[] buffer = new byte[1024];
+        while( in.read( buffer ) != -1 ) {
+            // discard
+        }
+    }
+
+    /**
+     * Read and close an error stream, so the connection can be reused.
+     */
+    private static void discard(InputStream in) {
+        if( in == null ) {
+            return;
+        }
+        try {
+            try {
+                drain( in );
+            } finally {
+                in.close();
+            }
+        } catch( IOException ignored ) {
+            // the connection will not be reused
+        }
+    }
+
+    /**
+     * Stream that counts the bytes read. It ignores <code>close()</code>, as the reader of
+     * the invocation result closes its stream before the rest of the response is drained;
+     * {@link #release()} drains and closes the response instead.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super( in );
+        }
+
+        public void close() {
+            // see release()
+        }
+
+        /**
+         * Read to the end and close the response, so the connection can be reused.
+         */
+        void release() throws IOException {
+            try {
+                drain( this );
+            } catch( IOException ignored ) {
+                // the connection will not be reused
+            } finally {
+                super.close();
+            }
+        }
+
+        public int read() throws IOException {
+            int b = super.read();
+            if( b != -1 ) {
+                count++;
+            }
+            return b;
+        }
+
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read( b, off, len );
+            if( n > 0 ) {
+                count += n;
+            }
+            return n;
+        }
+
+        public long skip(long n) throws IOException {
+            long skipped = super.skip( n );
+            count += skipped;
+            return skipped;
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
+}
@@ -15,17 +15,19 @@
  */
 package org.springframework.richclient.security.support;
 
-import java.lang.ref.WeakReference;
+import java.awt.Component;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 
+import javax.swing.SwingUtilities;
+
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.richclient.command.AbstractCommand;
 import org.springframework.richclient.core.Authorizable;
 import org.springframework.richclient.security.SecurityController;
 import org.springframework.security.AccessDecisionManager;
@@ -56,6 +58,12 @@ import org.springframework.util.StringUtils;
  * <code>setVisible(boolean)</code> method then it is called with the authorized value.
  * Thus, if the object is not authorized, it will have <code>setVisible(false)</code>
  * called on it.
+ * <p>
+ * Authorization decisions can be cached in an {@link AuthorizationDecisionCache},
+ * which may be shared by several controllers. If
+ * {@link #setUpdateOnEventDispatchThread(boolean) updateOnEventDispatchThread} is set,
+ * updates requested from another thread are applied to all controlled objects in one
+ * batch on the event dispatch thread.
  * 
  * @author Larry Streepy
  * @see #getSecuredObject()
@@ -67,7 +75,7 @@ public abstract class AbstractSecurityController implements SecurityController,
     private final Log logger = LogFactory.getLog( getClass() );
 
     /** The list of objects that we are controlling. */
-    private List controlledObjects = new ArrayList();
+    private ControlledObjectRegistry controlledObjects = new ControlledObjectRegistry();
 
     /** The AccessDecisionManager used to make the "authorize" decision. */
     private AccessDecisionManager accessDecisionManager;
@@ -81,6 +89,18 @@ public abstract class AbstractSecurityController implements SecurityController,
     /** Comma-separated list of post-processor actions to run. */
     private String postProcessorActionsToRun = "";
 
+    /** Parsed post-processor actions to run. */
+    private String[] postProcessorActionIdsToRun = new String[0];
+
+    /** Optional cache of authorization decisions. */
+    private AuthorizationDecisionCache decisionCache;
+
+    /** Apply updates to controlled objects on the EDT. */
+    private boolean updateOnEventDispatchThread = false;
+
+    /** True while a batch update is waiting to run on the EDT. */
+    private boolean updatePending = false;
+
     public static final String VISIBLE_TRACKS_AUTHORIZED_ACTION = "visibleTracksAuthorized";
 
     /**
@@ -113,6 +133,7 @@ public abstract class AbstractSecurityController implements SecurityController,
      */
     public void setPostProcessorActionsToRun(String actions) {
         postProcessorActionsToRun = actions;
+        postProcessorActionIdsToRun = StringUtils.commaDelimitedListToStringArray( actions );
     }
 
     /**
@@ -150,19 +171,39 @@ public abstract class AbstractSecurityController implements SecurityController,
      * Update the authorization of all controlled objects.
      */
     protected void runAuthorization() {
+        if( updateOnEventDispatchThread && !SwingUtilities.isEventDispatchThread() ) {
+            // coalesce all requests until the EDT runs the update
+            synchronized( this ) {
+                if( updatePending ) {
+                    return;
+                }
+                updatePending = true;
+            }
+            SwingUtilities.invokeLater( new Runnable() {
+                public void run() {
+                    synchronized( AbstractSecurityController.this ) {
+                        updatePending = false;
+                    }
+                    updateControlledObjects();
+                }
+            } );
+        } else {
+            updateControlledObjects();
+        }
+    }
+
+    /**
+     * Decide once and install the decision on all live controlled objects.
+     */
+    private void updateControlledObjects() {
         boolean authorize = shouldAuthorize( getLastAuthentication() );
 
+        // Collect the live objects first, so the update is one uninterrupted pass
+        List liveObjects = controlledObjects.getLiveObjects();
+
         // Install the decision
-        for( Iterator iter = controlledObjects.iterator(); iter.hasNext(); ) {
-            WeakReference ref = (WeakReference) iter.next();
-
-            Authorizable controlledObject = (Authorizable) ref.get();
-            if( controlledObject == null ) {
-                // Has been GCed, remove from our list
-                iter.remove();
-            } else {
-                updateControlledObject( controlledObject, authorize );
-            }
+        for( Iterator iter = liveObjects.iterator(); iter.hasNext(); ) {
+            updateControlledObject( (Authorizable) iter.next(), authorize );
         }
     }
 
@@ -185,12 +226,11 @@ public abstract class AbstractSecurityController implements SecurityController,
      * @param authorized state that has been installed on controlledObject
      */
     protected void runPostProcessorActions(Object controlledObject, boolean authorized) {
-        String actions = getPostProcessorActionsToRun();
         if( logger.isDebugEnabled() ) {
-            logger.debug( "Run post-processors actions: " + actions );
+            logger.debug( "Run post-processors actions: " + getPostProcessorActionsToRun() );
         }
 
-        String[] actionIds = StringUtils.commaDelimitedListToStringArray( actions );
+        String[] actionIds = postProcessorActionIdsToRun;
         for( int i = 0; i < actionIds.length; i++ ) {
             doPostProcessorAction( actionIds[i], controlledObject, authorized );
         }
@@ -216,16 +256,26 @@ public abstract class AbstractSecurityController implements SecurityController,
      * authorization.
      */
     private void setVisibilityOnControlledObject(Object controlledObject, boolean authorized) {
-        try {
-            Method method = controlledObject.getClass().getMethod( "setVisible", new Class[] { boolean.class } );
-            method.invoke( controlledObject, new Object[] { new Boolean( authorized ) } );
-        } catch( NoSuchMethodException ignored ) {
-            System.out.println( "NO setVisible method on object: " + controlledObject );
-            // No method to call, so nothing to do
-        } catch( IllegalAccessException ignored ) {
-            logger.error( "Could not call setVisible", ignored );
-        } catch( InvocationTargetException ignored ) {
-            logger.error( "Could not call setVisible", ignored );
+        if( controlledObject instanceof Component ) {
+            ((Component) controlledObject).setVisible( authorized );
+        } else if( controlledObject instanceof AbstractCommand ) {
+            ((AbstractCommand) controlledObject).setVisible( authorized );
+        } else {
+            // Resolved per object: caching methods by class would pin the classes and
+            // their class loaders
+            try {
+                Method method = controlledObject.getClass().getMethod( "setVisible", new Class[] { boolean.class } );
+                method.invoke( controlledObject, new Object[] { Boolean.valueOf( authorized ) } );
+            } catch( NoSuchMethodException ignored ) {
+                // No method to call, so nothing to do
+                if( logger.isDebugEnabled() ) {
+                    logger.debug( "No setVisible method on object: " + controlledObject );
+                }
+            } catch( IllegalAccessException ignored ) {
+                logger.error( "Could not call setVisible", ignored );
+            } catch( InvocationTargetException ignored ) {
+                logger.error( "Could not call setVisible", ignored );
+            }
         }
     }
 
@@ -237,17 +287,31 @@ public abstract class AbstractSecurityController implements SecurityController,
      */
     protected boolean shouldAuthorize(Authentication authentication) {
         Assert.state( getAccessDecisionManager() != null, "The AccessDecisionManager can not be null!" );
+        if( authentication == null ) {
+            return false;
+        }
+
+        AccessDecisionManager adm = getAccessDecisionManager();
+        Object securedObject = getSecuredObject();
+        ConfigAttributeDefinition cad = getConfigAttributeDefinition( securedObject );
+        if( decisionCache != null ) {
+            Boolean cached = decisionCache.getDecision( authentication, adm, securedObject, cad );
+            if( cached != null ) {
+                return cached.booleanValue();
+            }
+        }
+
         boolean authorize = false;
         try {
-            if( authentication != null ) {
-                Object securedObject = getSecuredObject();
-                ConfigAttributeDefinition cad = getConfigAttributeDefinition( securedObject );
-                getAccessDecisionManager().decide( authentication, getSecuredObject(), cad );
-                authorize = true;
-            }
+            adm.decide( authentication, securedObject, cad );
+            authorize = true;
         } catch( AccessDeniedException e ) {
             // This means the secured objects should not be authorized
         }
+
+        if( decisionCache != null ) {
+            decisionCache.putDecision( authentication, adm, securedObject, cad, authorize );
+        }
         return authorize;
     }
 
@@ -259,6 +323,37 @@ public abstract class AbstractSecurityController implements SecurityController,
         this.accessDecisionManager = accessDecisionManager;
     }
 
+    /**
+     * Set the cache for authorization decisions. By default no decisions are cached,
+     * so the access decision manager is consulted for each update.
+     * @param decisionCache cache to use, may be null
+     */
+    public void setDecisionCache(AuthorizationDecisionCache decisionCache) {
+        this.decisionCache = decisionCache;
+    }
+
+    /**
+     * Get the cache for authorization decisions.
+     * @return the cache, null if decisions are not cached
+     */
+    public AuthorizationDecisionCache getDecisionCache() {
+        return decisionCache;
+    }
+
+    /**
+     * Set whether controlled objects must be updated on the event dispatch thread. If
+     * true, authorization changes made on other threads are applied in one coalesced
+     * batch on the event dispatch thread. Defaults to false.
+     * @param updateOnEventDispatchThread
+     */
+    public void setUpdateOnEventDispatchThread(boolean updateOnEventDispatchThread) {
+        this.updateOnEventDispatchThread = updateOnEventDispatchThread;
+    }
+
+    public boolean isUpdateOnEventDispatchThread() {
+        return updateOnEventDispatchThread;
+    }
+
     /**
      * Get the access decision manager in use
      */
@@ -272,7 +367,7 @@ public abstract class AbstractSecurityController implements SecurityController,
      * @param secured List of objects to control
      */
     public void setControlledObjects(List secured) {
-        controlledObjects = new ArrayList( secured.size() );
+        controlledObjects.clear();
 
         // Convert to weak references and validate the object types
         for( Iterator iter = secured.iterator(); iter.hasNext(); ) {
@@ -302,7 +397,7 @@ public abstract class AbstractSecurityController implements SecurityController,
      * @param controlledObject to add
      */
     private void addAndPrepareControlledObject(Authorizable controlledObject) {
-        controlledObjects.add( new WeakReference( controlledObject ) );
+        controlledObjects.add( controlledObject );
 
         // Properly configure the new object
         boolean authorize = shouldAuthorize( getLastAuthentication() );
@@ -315,21 +410,20 @@ public abstract class AbstractSecurityController implements SecurityController,
      * @return object removed or null if not found
      */
     public Object removeControlledObject(Authorizable object) {
-        Object removed = null;
-
-        for( Iterator iter = controlledObjects.iterator(); iter.hasNext(); ) {
-            WeakReference ref = (WeakReference) iter.next();
-
-            Authorizable controlledObject = (Authorizable) ref.get();
-            if( controlledObject == null ) {
-                // Has been GCed, remove from our list
-                iter.remove();
-            } else if( controlledObject.equals( object ) ) {
-                removed = controlledObject;
-                iter.remove();
-            }
+        return controlledObjects.remove( object ) ? object : null;
+    }
+
+    /**
+     * Get the number of controlled objects. Garbage collected objects are counted as
+     * stale once the garbage collector enqueues them, until they are purged on a
+     * background thread.
+     * @return live and stale controlled object counts
+     */
+    public ControlledObjectCounts getControlledObjectCounts() {
+        synchronized( controlledObjects ) {
+            return new ControlledObjectCounts( controlledObjects.getLiveCount(), controlledObjects
+                    .getStaleCount() );
         }
-        return removed;
     }
 
     protected void setLastAuthentication(Authentication authentication) {
@@ -346,7 +440,7 @@ public abstract class AbstractSecurityController implements SecurityController,
      */
     public void afterPropertiesSet() throws Exception {
         // Ensure that all post-processors requested are registered
-        String[] actions = StringUtils.commaDelimitedListToStringArray( getPostProcessorActionsToRun() );
+        String[] actions = postProcessorActionIdsToRun;
         for( int i = 0; i < actions.length; i++ ) {
             if( !postProcessorActionIds.contains( actions[i] ) ) {
                 throw new IllegalArgumentException( "Requested post-processor action '" + actions[i]
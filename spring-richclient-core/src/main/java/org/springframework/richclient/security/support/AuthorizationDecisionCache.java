@@ -0,0 +1,125 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.security.support;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.security.AccessDecisionManager;
+import org.springframework.security.Authentication;
+import org.springframework.security.ConfigAttributeDefinition;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * Cache of authorization decisions, keyed by authentication token, access decision
+ * manager, secured object and config attributes. Only the decisions for the most recent authentication token
+ * are kept: the cache is cleared as soon as a decision for another token is requested.
+ * <p>
+ * A single cache can be shared by several security controllers, so controllers with
+ * the same access decision manager and config attributes (e.g. the same roles) share
+ * their decisions. Access decision managers are compared by identity. The cache assumes
+ * that an access decision manager always reaches the same decision for the same input;
+ * call {@link #clear()} if that is not the case.
+ *
+ * @see AbstractSecurityController#setDecisionCache(AuthorizationDecisionCache)
+ */
+public class AuthorizationDecisionCache {
+
+    private Authentication authentication;
+
+    private final Map decisions = new HashMap();
+
+    /**
+     * Get a cached decision.
+     * @param authentication token the decision was made for
+     * @param accessDecisionManager manager that made the decision
+     * @param securedObject secured object, may be null
+     * @param config config attributes, may be null
+     * @return the cached decision, or null if not cached
+     */
+    public synchronized Boolean getDecision(Authentication authentication,
+            AccessDecisionManager accessDecisionManager, Object securedObject, ConfigAttributeDefinition config) {
+        if( authentication != this.authentication ) {
+            return null;
+        }
+        return (Boolean) decisions.get( new DecisionKey( accessDecisionManager, securedObject, config ) );
+    }
+
+    /**
+     * Store a decision.
+     * @param authentication token the decision was made for
+     * @param accessDecisionManager manager that made the decision
+     * @param securedObject secured object, may be null
+     * @param config config attributes, may be null
+     * @param authorized the decision
+     */
+    public synchronized void putDecision(Authentication authentication,
+            AccessDecisionManager accessDecisionManager, Object securedObject, ConfigAttributeDefinition config,
+            boolean authorized) {
+        if( authentication != this.authentication ) {
+            decisions.clear();
+            this.authentication = authentication;
+        }
+        decisions.put( new DecisionKey( accessDecisionManager, securedObject, config ), Boolean
+                .valueOf( authorized ) );
+    }
+
+    /**
+     * Remove all cached decisions.
+     */
+    public synchronized void clear() {
+        decisions.clear();
+        authentication = null;
+    }
+
+    /**
+     * @return the number of cached decisions
+     */
+    public synchronized int size() {
+        return decisions.size();
+    }
+
+    private static final class DecisionKey {
+        private final AccessDecisionManager accessDecisionManager;
+
+        private final Object securedObject;
+
+        private final ConfigAttributeDefinition config;
+
+        DecisionKey(AccessDecisionManager accessDecisionManager, Object securedObject,
+                ConfigAttributeDefinition config) {
+            this.accessDecisionManager = accessDecisionManager;
+            this.securedObject = securedObject;
+            this.config = config;
+        }
+
+        public boolean equals(Object o) {
+            if( !(o instanceof DecisionKey) ) {
+                return false;
+            }
+            DecisionKey other = (DecisionKey) o;
+            return accessDecisionManager == other.accessDecisionManager
+                    && ObjectUtils.nullSafeEquals( securedObject, other.securedObject )
+                    && ObjectUtils.nullSafeEquals( config, other.config );
+        }
+
+        public int hashCode() {
+            int hash = System.identityHashCode( accessDecisionManager );
+            hash = hash * 31 + ObjectUtils.nullSafeHashCode( securedObject );
+            return hash * 31 + ObjectUtils.nullSafeHashCode( config );
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.security.support;
+
+/**
+ * Snapshot of the number of objects controlled by a security controller.
+ *
+ * @see DefaultSecurityControllerManager#getControlledObjectCounts(String)
+ */
+public final class ControlledObjectCounts {
+
+    private final int liveCount;
+
+    private final int staleCount;
+
+    public ControlledObjectCounts(int liveCount, int staleCount) {
+        this.liveCount = liveCount;
+        this.staleCount = staleCount;
+    }
+
+    /**
+     * @return the number of objects currently controlled, i.e. registered and neither
+     *         removed nor collected
+     */
+    public int getLiveCount() {
+        return liveCount;
+    }
+
+    /**
+     * @return the number of entries of collected objects that are still registered,
+     *         waiting to be purged
+     */
+    public int getStaleCount() {
+        return staleCount;
+    }
+
+    public String toString() {
+        return "live=" + liveCount + ", stale=" + staleCount;
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.security.support;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Weakly referenced set of controlled objects, in registration order. Objects are
+ * compared by identity, so adding and removing an object takes constant time.
+ * <p>
+ * All registries share one {@link ReferenceQueue}. A daemon thread removes the entries
+ * of garbage collected objects from their registry as soon as the garbage collector
+ * enqueues them, so registries of long-lived controllers don't accumulate stale
+ * entries, even if they are never updated. The thread drains the queue in batches: it
+ * first marks every enqueued entry as stale, then purges them. Stale entries are not
+ * counted as live.
+ *
+ * @see AbstractSecurityController
+ */
+public class ControlledObjectRegistry {
+
+    private static final Log logger = LogFactory.getLog( ControlledObjectRegistry.class );
+
+    private static final ReferenceQueue queue = new ReferenceQueue();
+
+    private static Thread purgeThread;
+
+    /** Entries, mapped to themselves so they can be found by a lookup key. */
+    private final Map entries = new LinkedHashMap();
+
+    /** Number of entries that have been enqueued but not yet purged. */
+    private int staleCount;
+
+    public ControlledObjectRegistry() {
+        startPurgeThread();
+    }
+
+    /**
+     * Add an object. Adding an object that is already registered has no effect.
+     * @param object to add
+     * @return true if the object was added
+     */
+    public synchronized boolean add(Object object) {
+        Entry entry = new Entry( object, this );
+        if( entries.containsKey( entry ) ) {
+            return false;
+        }
+        entries.put( entry, entry );
+        return true;
+    }
+
+    /**
+     * Remove an object.
+     * @param object to remove
+     * @return true if the object was registered
+     */
+    public synchronized boolean remove(Object object) {
+        Entry entry = (Entry) entries.remove( new Entry( object, null ) );
+        if( entry != null ) {
+            entry.clear();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Remove all objects.
+     */
+    public synchronized void clear() {
+        for( Iterator iter = entries.keySet().iterator(); iter.hasNext(); ) {
+            ((Entry) iter.next()).clear();
+        }
+        entries.clear();
+        staleCount = 0;
+    }
+
+    /**
+     * Get the objects that have not been garbage collected, in registration order.
+     * Entries of collected objects found on the way are removed.
+     * @return a new list of the live objects
+     */
+    public synchronized List getLiveObjects() {
+        List live = new ArrayList( entries.size() );
+        for( Iterator iter = entries.keySet().iterator(); iter.hasNext(); ) {
+            Entry entry = (Entry) iter.next();
+            Object object = entry.get();
+            if( object == null ) {
+                iter.remove();
+                if( entry.stale ) {
+                    staleCount--;
+                }
+            } else {
+                live.add( object );
+            }
+        }
+        return live;
+    }
+
+    /**
+     * Get the number of registered objects that are neither removed nor stale. An object
+     * that has just been collected is still counted until the garbage collector
+     * enqueues its entry.
+     * @return the number of live objects
+     */
+    public synchronized int getLiveCount() {
+        return entries.size() - staleCount;
+    }
+
+    /**
+     * @return the number of entries of collected objects that have been enqueued but
+     *         not yet purged
+     */
+    public synchronized int getStaleCount() {
+        return staleCount;
+    }
+
+    private synchronized void markStale(Entry entry) {
+        // An entry that was removed explicitly is no longer registered
+        if( !entry.stale && entries.get( entry ) == entry ) {
+            entry.stale = true;
+            staleCount++;
+        }
+    }
+
+    private synchronized void purge(Entry entry) {
+        if( entries.get( entry ) == entry ) {
+            entries.remove( entry );
+            if( entry.stale ) {
+                staleCount--;
+            }
+        }
+    }
+
+    private static synchronized void startPurgeThread() {
+        if( purgeThread != null ) {
+            return;
+        }
+        purgeThread = new Thread( "ControlledObjectRegistry purger" ) {
+            public void run() {
+                while( true ) {
+                    try {
+                        List batch = new ArrayList();
+                        for( Reference ref = queue.remove(); ref != null; ref = queue.poll() ) {
+                            if( ref instanceof Entry && ((Entry) ref).registry != null ) {
+                                Entry entry = (Entry) ref;
+                                entry.registry.markStale( entry );
+                                batch.add( entry );
+                            }
+                        }
+                        for( Iterator iter = batch.iterator(); iter.hasNext(); ) {
+                            Entry entry = (Entry) iter.next();
+                            entry.registry.purge( entry );
+                        }
+                    } catch( InterruptedException e ) {
+                        logger.debug( "Purge thread interrupted" );
+                    }
+                }
+            }
+        };
+        purgeThread.setDaemon( true );
+        purgeThread.start();
+    }
+
+    /**
+     * Weak reference that compares by identity of the referent. The hash code is taken
+     * at creation, so a stale entry can still be found and removed.
+     */
+    private static final class Entry extends WeakReference {
+        private final int hash;
+
+        private final ControlledObjectRegistry registry;
+
+        /** Whether the entry has been enqueued, guarded by the registry. */
+        private boolean stale;
+
+        Entry(Object object, ControlledObjectRegistry registry) {
+            super( object, registry == null ? null : queue );
+            this.hash = System.identityHashCode( object );
+            this.registry = registry;
+        }
+
+        public boolean equals(Object o) {
+            if( o == this ) {
+                return true;
+            }
+            if( !(o instanceof Entry) ) {
+                return false;
+            }
+            Object referent = get();
+            return referent != null && referent == ((Entry) o).get();
+        }
+
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
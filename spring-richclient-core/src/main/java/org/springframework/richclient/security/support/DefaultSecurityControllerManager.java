@@ -18,6 +18,7 @@ package org.springframework.richclient.security.support;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.TreeMap;
 
 import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.richclient.application.Application;
@@ -78,6 +79,21 @@ public class DefaultSecurityControllerManager implements SecurityControllerManag
      * @return controller, null if not found
      */
     public SecurityController getSecurityController(String id) {
+        SecurityController sc = findSecurityController( id );
+        if( sc == null ) {
+            // Try for a fallback
+            sc = getFallbackSecurityController();
+        }
+        return sc;
+    }
+
+    /**
+     * Find the security controller registered in our map, or defined as a bean, under
+     * the given id. The fallback controller is not considered.
+     * @param id of controller to find
+     * @return controller, null if not found
+     */
+    private SecurityController findSecurityController(String id) {
         SecurityController sc = (SecurityController) securityControllerMap.get( id );
         if( sc == null ) {
             // Try for a named bean
@@ -85,8 +101,7 @@ public class DefaultSecurityControllerManager implements SecurityControllerManag
                 sc = (SecurityController) Application.instance().getApplicationContext().getBean( id,
                     SecurityController.class );
             } catch( NoSuchBeanDefinitionException e ) {
-                // Try for a fallback
-                sc = getFallbackSecurityController();
+                // Not found
             }
         }
         return sc;
@@ -117,4 +132,43 @@ public class DefaultSecurityControllerManager implements SecurityControllerManag
     public SecurityController getFallbackSecurityController() {
         return fallbackController;
     }
+
+    /**
+     * Get the number of controlled objects of a security controller.
+     * Unlike {@link #getSecurityController(String)}, this does not fall back to the
+     * fallback security controller.
+     * @param id of the controller
+     * @return the counts, or null if the controller is not found or does not track its
+     *         controlled objects
+     * @see AbstractSecurityController#getControlledObjectCounts()
+     */
+    public ControlledObjectCounts getControlledObjectCounts(String id) {
+        return getControlledObjectCounts( findSecurityController( id ) );
+    }
+
+    /**
+     * Get the number of controlled objects of all registered security controllers,
+     * keyed by alias.
+     * @return map of alias to {@link ControlledObjectCounts}
+     * @see #getControlledObjectCounts(String)
+     */
+    public Map getControlledObjectCounts() {
+        Map counts = new TreeMap();
+        for( Iterator i = securityControllerMap.entrySet().iterator(); i.hasNext(); ) {
+            Map.Entry entry = (Map.Entry) i.next();
+            ControlledObjectCounts controllerCounts = getControlledObjectCounts( (SecurityController) entry
+                    .getValue() );
+            if( controllerCounts != null ) {
+                counts.put( entry.getKey(), controllerCounts );
+            }
+        }
+        return counts;
+    }
+
+    private ControlledObjectCounts getControlledObjectCounts(SecurityController controller) {
+        if( !(controller instanceof AbstractSecurityController) ) {
+            return null;
+        }
+        return ((AbstractSecurityController) controller).getControlledObjectCounts();
+    }
 }
@@ -17,18 +17,28 @@ package org.springframework.richclient.table;
 
 import java.awt.EventQueue;
 import java.awt.Toolkit;
-import java.lang.reflect.InvocationTargetException;
 import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import javax.swing.RepaintManager;
 import javax.swing.SwingUtilities;
 
+import org.springframework.richclient.task.DefaultTaskExecutionService;
+
 /**
- * Thread responsible for publishing changes to the Model. Sleeps for a defined
- * amount of time, waits for no activity in the UI and then users invokeAndWait
- * to publish changes.
+ * Publishes changes to the Model. Every defined amount of time, it waits for no
+ * activity in the UI and then uses invokeLater to publish changes.
+ * <p>
+ * The checks run on the scheduler of the application's
+ * {@link org.springframework.richclient.task.TaskExecutionService}, so no thread is
+ * kept per table. While the UI is busy or updates are disabled, the check is retried
+ * after a shorter delay instead of blocking a thread. The scheduler thread is shared
+ * by the whole application, so it never waits for the event dispatching thread: the
+ * next check is scheduled by the event dispatching thread once the changes have been
+ * published.
  */
-public class TableUpdater extends Thread {
+public class TableUpdater implements Runnable {
     private int sleepTime = 3000;
 
     private int eqSleepTime = 1000;
@@ -37,17 +47,15 @@ public class TableUpdater extends Thread {
 
     private Runnable publishRunnable;
 
-    private Runnable emptyRunnable;
-
     private TableDataProvider tableDataProvider;
 
     private MutableTableModel tableModel;
 
-    private boolean done;
+    private volatile boolean done;
+
+    private ScheduledFuture scheduledCheck;
 
     public TableUpdater(TableDataProvider provider, MutableTableModel tableModel) {
-        super();
-        setPriority(Thread.MIN_PRIORITY);
         this.updatesEnabled = true;
         this.tableDataProvider = provider;
         this.tableModel = tableModel;
@@ -55,93 +63,68 @@ public class TableUpdater extends Thread {
         // Runnable used to publish changes to the event dispatching thread
         this.publishRunnable = new Runnable() {
             public void run() {
-                publishChangesOnEventDispatchingThread();
-            }
-        };
-
-        // Empty runnable, used to wait until the event dispatching thread
-        // has finished processing any pending events.
-        this.emptyRunnable = new Runnable() {
-            public void run() {
+                if (done) {
+                    return;
+                }
+                try {
+                    publishChangesOnEventDispatchingThread();
+                }
+                finally {
+                    // the next check only publishes once the events triggered
+                    // by publishing these changes have been processed
+                    scheduleCheck(sleepTime);
+                }
             }
         };
     }
 
-    public void interrupt() {
-        done = true;
-        super.interrupt();
-    }
-
-    public void run() {
-        while (!isInterrupted() && !done) {
-            try {
-                sleep(sleepTime);
-                waitForUpdatesEnabled();
-                waitForIdleEventQueue();
-                publishChanges();
-            }
-            catch (InterruptedException ie) {
-            }
+    /**
+     * Starts publishing changes.
+     */
+    public synchronized void start() {
+        if (scheduledCheck != null) {
+            return;
         }
+        done = false;
+        scheduleCheck(sleepTime);
     }
 
-    private void waitForUpdatesEnabled() {
-        synchronized (this) {
-            while (!this.updatesEnabled) {
-                try {
-                    wait();
-                }
-                catch (InterruptedException ie) {
-                }
-            }
+    /**
+     * Stops publishing changes.
+     */
+    public synchronized void interrupt() {
+        done = true;
+        if (scheduledCheck != null) {
+            scheduledCheck.cancel(false);
+            scheduledCheck = null;
         }
     }
 
-    private void waitForIdleEventQueue() {
-        EventQueue queue = Toolkit.getDefaultToolkit().getSystemEventQueue();
-        while (queue.peekEvent() != null) {
-            try {
-                sleep(eqSleepTime);
-            }
-            catch (InterruptedException ie) {
-            }
+    private synchronized void scheduleCheck(long delay) {
+        if (!done) {
+            scheduledCheck = DefaultTaskExecutionService.locate().schedule(this, delay, TimeUnit.MILLISECONDS);
         }
     }
 
     /**
-     * Publishes changes on the event dispatching thread when the system isn't
-     * busy. This blocks the caller until the changes have been published.
+     * Publishes the changes if updates are enabled and the UI isn't busy, and
+     * schedules the next check.
      */
-    private void publishChanges() {
-        // And wait until there are no pending events.
-        /*
-         * try { tableModel.lock(); } catch (InterruptedException e) {
-         * System.err.println("Table updater interrupted on table lock attempt.
-         * Nothing updated."); return; }
-         */
-
-        try {
-            // publish the changes on the event dispatching thread
-            SwingUtilities.invokeAndWait(publishRunnable);
-        }
-        catch (InterruptedException ie) {
-        }
-        catch (InvocationTargetException ite) {
-        }
-
-        try {
-            // Wait until the system has completed processing of any
-            // events we triggered as part of publishing changes.
-            SwingUtilities.invokeAndWait(emptyRunnable);
-        }
-        catch (InterruptedException ie) {
+    public void run() {
+        if (done) {
+            return;
         }
-        catch (InvocationTargetException ite) {
+        if (!getUpdatesEnabled() || !isEventQueueIdle()) {
+            scheduleCheck(eqSleepTime);
+            return;
         }
+        // the next check is scheduled once the changes have been published
+        SwingUtilities.invokeLater(publishRunnable);
+    }
 
-        /*
-         * tableModel.unlock();
-         */
+    private boolean isEventQueueIdle() {
+        EventQueue queue = Toolkit.getDefaultToolkit().getSystemEventQueue();
+        return queue.peekEvent() == null;
     }
 
     /**
@@ -160,16 +143,11 @@ public class TableUpdater extends Thread {
      * If enable is true, we are allowed to publish changes, otherwise we
      * aren't.
      */
-    public void setUpdatesEnabled(boolean enable) {
-        synchronized (this) {
-            updatesEnabled = enable;
-            if (updatesEnabled) {
-                notify();
-            }
-        }
+    public synchronized void setUpdatesEnabled(boolean enable) {
+        updatesEnabled = enable;
     }
 
-    public boolean getUpdatesEnabled() {
+    public synchronized boolean getUpdatesEnabled() {
         return updatesEnabled;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,346 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.task;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.swing.SwingUtilities;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.richclient.application.ApplicationServices;
+import org.springframework.richclient.application.ApplicationServicesLocator;
+import org.springframework.util.Assert;
+
+/**
+ * Default {@link TaskExecutionService}. I/O tasks run on a pool of
+ * {@link #setIoPoolSize(int) ioPoolSize} threads, CPU tasks on a pool with a thread per
+ * processor, and periodic tasks on a single scheduler thread. All threads are named
+ * daemon threads; pools are created on first use and idle threads end after a minute.
+ * <p>
+ * On a Java runtime with virtual threads, the I/O pool can run its tasks on virtual
+ * threads by setting {@link #setUseVirtualThreads(boolean) useVirtualThreads}. The pool
+ * size still bounds the number of concurrent I/O tasks.
+ */
+public class DefaultTaskExecutionService implements TaskExecutionService, DisposableBean {
+
+    private static final Log logger = LogFactory.getLog( DefaultTaskExecutionService.class );
+
+    public static final int DEFAULT_IO_POOL_SIZE = 8;
+
+    private static TaskExecutionService sharedInstance;
+
+    private final TaskExecutionMetrics metrics = new TaskExecutionMetrics();
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private int ioPoolSize = DEFAULT_IO_POOL_SIZE;
+
+    private int cpuPoolSize = Runtime.getRuntime().availableProcessors();
+
+    private boolean useVirtualThreads = false;
+
+    private ThreadPoolExecutor ioPool;
+
+    private ThreadPoolExecutor cpuPool;
+
+    private ScheduledThreadPoolExecutor scheduler;
+
+    /**
+     * Returns the task execution service of the application services or, if no
+     * application services are available (e.g. in tests), a shared default instance.
+     */
+    public static TaskExecutionService locate() {
+        if( ApplicationServicesLocator.isLoaded() ) {
+            ApplicationServices services = ApplicationServicesLocator.services();
+            if( services != null && services.containsService( TaskExecutionService.class ) ) {
+                return (TaskExecutionService) services.getService( TaskExecutionService.class );
+            }
+        }
+        synchronized( DefaultTaskExecutionService.class ) {
+            if( sharedInstance == null ) {
+                sharedInstance = new DefaultTaskExecutionService();
+            }
+            return sharedInstance;
+        }
+    }
+
+    /**
+     * Set the maximum number of concurrent I/O tasks. Defaults to 8.
+     */
+    public synchronized void setIoPoolSize(int ioPoolSize) {
+        Assert.isTrue( ioPoolSize > 0, "ioPoolSize must be positive" );
+        this.ioPoolSize = ioPoolSize;
+        resize( ioPool, ioPoolSize );
+    }
+
+    public synchronized int getIoPoolSize() {
+        return ioPoolSize;
+    }
+
+    /**
+     * Set the maximum number of concurrent CPU tasks. Defaults to the number of
+     * processors.
+     */
+    public synchronized void setCpuPoolSize(int cpuPoolSize) {
+        Assert.isTrue( cpuPoolSize > 0, "cpuPoolSize must be positive" );
+        this.cpuPoolSize = cpuPoolSize;
+        resize( cpuPool, cpuPoolSize );
+    }
+
+    public synchronized int getCpuPoolSize() {
+        return cpuPoolSize;
+    }
+
+    /**
+     * Set whether I/O tasks run on virtual threads. Only takes effect before the first
+     * I/O task is submitted, and only on a runtime that supports virtual threads;
+     * otherwise platform threads are used. Defaults to false.
+     */
+    public synchronized void setUseVirtualThreads(boolean useVirtualThreads) {
+        this.useVirtualThreads = useVirtualThreads;
+    }
+
+    public synchronized boolean isUseVirtualThreads() {
+        return useVirtualThreads;
+    }
+
+    public void execute(Runnable task) {
+        submit( Executors.callable( task ), IO_TASK, NORMAL_PRIORITY, null );
+    }
+
+    public Future submit(Callable task, TaskCallback callback) {
+        return submit( task, IO_TASK, NORMAL_PRIORITY, callback );
+    }
+
+    public Future submit(Callable task, int kind, int priority, TaskCallback callback) {
+        Assert.notNull( task, "task cannot be null" );
+        Assert.isTrue( kind == IO_TASK || kind == CPU_TASK, "kind must be IO_TASK or CPU_TASK" );
+        ServiceTask serviceTask = new ServiceTask( task, priority, callback );
+        metrics.recordSubmitted();
+        getPool( kind ).execute( serviceTask );
+        return serviceTask;
+    }
+
+    public ScheduledFuture schedule(Runnable task, long delay, TimeUnit unit) {
+        return getScheduler().schedule( task, delay, unit );
+    }
+
+    public ScheduledFuture scheduleWithFixedDelay(Runnable task, long initialDelay, long delay, TimeUnit unit) {
+        return getScheduler().scheduleWithFixedDelay( task, initialDelay, delay, unit );
+    }
+
+    public synchronized int getQueueSize() {
+        int size = 0;
+        if( ioPool != null ) {
+            size += ioPool.getQueue().size();
+        }
+        if( cpuPool != null ) {
+            size += cpuPool.getQueue().size();
+        }
+        return size;
+    }
+
+    public TaskExecutionMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Stop all threads, running tasks are interrupted.
+     */
+    public synchronized void destroy() {
+        if( ioPool != null ) {
+            ioPool.shutdownNow();
+            ioPool = null;
+        }
+        if( cpuPool != null ) {
+            cpuPool.shutdownNow();
+            cpuPool = null;
+        }
+        if( scheduler != null ) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    private synchronized ThreadPoolExecutor getPool(int kind) {
+        if( kind == CPU_TASK ) {
+            if( cpuPool == null ) {
+                cpuPool = createPool( cpuPoolSize, createThreadFactory( "rcp-cpu", false ) );
+            }
+            return cpuPool;
+        }
+        if( ioPool == null ) {
+            ioPool = createPool( ioPoolSize, createThreadFactory( "rcp-io", useVirtualThreads ) );
+        }
+        return ioPool;
+    }
+
+    private synchronized ScheduledThreadPoolExecutor getScheduler() {
+        if( scheduler == null ) {
+            scheduler = new ScheduledThreadPoolExecutor( 1, createThreadFactory( "rcp-scheduler", false ) );
+        }
+        return scheduler;
+    }
+
+    private static ThreadPoolExecutor createPool(int size, ThreadFactory threadFactory) {
+        // the queue is unbounded, so the pool never grows beyond its core size
+        ThreadPoolExecutor pool = new ThreadPoolExecutor( size, size, 60, TimeUnit.SECONDS,
+                new PriorityBlockingQueue(), threadFactory );
+        pool.allowCoreThreadTimeOut( true );
+        return pool;
+    }
+
+    private static void resize(ThreadPoolExecutor pool, int size) {
+        if( pool == null ) {
+            return;
+        }
+        if( size > pool.getMaximumPoolSize() ) {
+            pool.setMaximumPoolSize( size );
+            pool.setCorePoolSize( size );
+        } else {
+            pool.setCorePoolSize( size );
+            pool.setMaximumPoolSize( size );
+        }
+    }
+
+    private static ThreadFactory createThreadFactory(final String prefix, boolean virtual) {
+        if( virtual ) {
+            ThreadFactory virtualThreadFactory = createVirtualThreadFactory( prefix );
+            if( virtualThreadFactory != null ) {
+                return virtualThreadFactory;
+            }
+        }
+        final AtomicInteger threadCount = new AtomicInteger();
+        return new ThreadFactory() {
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread( r, prefix + "-" + threadCount.incrementAndGet() );
+                thread.setDaemon( true );
+                return thread;
+            }
+        };
+    }
+
+    /**
+     * Create a factory of named virtual threads through reflection, so this class still
+     * runs on runtimes without virtual threads.
+     * @return the factory, or <code>null</code> if virtual threads are not available
+     */
+    private static ThreadFactory createVirtualThreadFactory(String prefix) {
+        try {
+            Class builderClass = Class.forName( "java.lang.Thread$Builder" );
+            Object builder = Thread.class.getMethod( "ofVirtual" ).invoke( null );
+            builder = builderClass.getMethod( "name", String.class, long.class ).invoke( builder, prefix + "-",
+                    new Long( 1 ) );
+            return (ThreadFactory) builderClass.getMethod( "factory" ).invoke( builder );
+        } catch( Exception e ) {
+            logger.warn( "Virtual threads are not available on this runtime, using platform threads" );
+            return null;
+        }
+    }
+
+    /**
+     * Task ordered by priority, and by submission among tasks of the same priority.
+     */
+    private class ServiceTask extends FutureTask implements Comparable {
+        private final int priority;
+
+        private final long sequenceNumber = sequence.incrementAndGet();
+
+        private final long submitTime = System.nanoTime();
+
+        private final TaskCallback callback;
+
+        private volatile long startTime;
+
+        ServiceTask(Callable task, int priority, TaskCallback callback) {
+            super( task );
+            this.priority = priority;
+            this.callback = callback;
+        }
+
+        public void run() {
+            startTime = System.nanoTime();
+            super.run();
+        }
+
+        // the outcome is recorded before it is published, so it is counted by the
+        // time get() returns
+        protected void set(Object result) {
+            metrics.recordRun( startTime - submitTime, System.nanoTime() - startTime, false );
+            super.set( result );
+        }
+
+        protected void setException(Throwable failure) {
+            metrics.recordRun( startTime - submitTime, System.nanoTime() - startTime, true );
+            super.setException( failure );
+        }
+
+        protected void done() {
+            if( isCancelled() ) {
+                metrics.recordCancelled();
+                return;
+            }
+            Object result = null;
+            Throwable failure = null;
+            try {
+                result = get();
+            } catch( ExecutionException e ) {
+                failure = e.getCause();
+            } catch( InterruptedException e ) {
+                // cannot happen, the task is done
+                Thread.currentThread().interrupt();
+            }
+
+            if( callback != null ) {
+                final Object taskResult = result;
+                final Throwable taskFailure = failure;
+                SwingUtilities.invokeLater( new Runnable() {
+                    public void run() {
+                        if( taskFailure != null ) {
+                            callback.onFailure( taskFailure );
+                        } else {
+                            callback.onSuccess( taskResult );
+                        }
+                    }
+                } );
+            } else if( failure != null ) {
+                logger.error( "Background task failed", failure );
+            }
+        }
+
+        public int compareTo(Object o) {
+            ServiceTask other = (ServiceTask) o;
+            if( priority != other.priority ) {
+                return priority > other.priority ? -1 : 1;
+            }
+            return sequenceNumber < other.sequenceNumber ? -1 : (sequenceNumber == other.sequenceNumber ? 0 : 1);
+        }
+    }
+}
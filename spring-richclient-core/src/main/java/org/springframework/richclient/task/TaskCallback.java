@@ -0,0 +1,38 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.task;
+
+/**
+ * Receives the outcome of a task submitted to a {@link TaskExecutionService}. Both
+ * methods are called on the event dispatch thread, so they may update Swing components.
+ * Neither is called when the task was cancelled.
+ */
+public interface TaskCallback {
+
+    /**
+     * Called when the task has completed.
+     *
+     * @param result the result of the task
+     */
+    void onSuccess(Object result);
+
+    /**
+     * Called when the task has thrown an exception.
+     *
+     * @param cause the exception thrown by the task
+     */
+    void onFailure(Throwable cause);
+}
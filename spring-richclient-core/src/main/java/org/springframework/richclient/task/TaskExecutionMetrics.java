@@ -0,0 +1,132 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.task;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.core.style.ToStringCreator;
+
+/**
+ * Thread-safe counters of the tasks run by a {@link TaskExecutionService}. The wait time
+ * is the time a task spent in the queue, the run time the time it spent executing.
+ */
+public class TaskExecutionMetrics {
+
+    private final AtomicLong submittedCount = new AtomicLong();
+
+    private final AtomicLong completedCount = new AtomicLong();
+
+    private final AtomicLong failedCount = new AtomicLong();
+
+    private final AtomicLong cancelledCount = new AtomicLong();
+
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    private final AtomicLong totalRunNanos = new AtomicLong();
+
+    private final AtomicLong maxRunNanos = new AtomicLong();
+
+    public void recordSubmitted() {
+        submittedCount.incrementAndGet();
+    }
+
+    /**
+     * Record a task that has run.
+     * @param waitNanos time between submission and start
+     * @param runNanos time between start and end
+     * @param failed whether the task threw an exception
+     */
+    public void recordRun(long waitNanos, long runNanos, boolean failed) {
+        if( failed ) {
+            failedCount.incrementAndGet();
+        } else {
+            completedCount.incrementAndGet();
+        }
+        totalWaitNanos.addAndGet( waitNanos );
+        totalRunNanos.addAndGet( runNanos );
+        updateMax( maxWaitNanos, waitNanos );
+        updateMax( maxRunNanos, runNanos );
+    }
+
+    public void recordCancelled() {
+        cancelledCount.incrementAndGet();
+    }
+
+    private static void updateMax(AtomicLong max, long value) {
+        long current = max.get();
+        while( value > current && !max.compareAndSet( current, value ) ) {
+            current = max.get();
+        }
+    }
+
+    public long getSubmittedCount() {
+        return submittedCount.get();
+    }
+
+    public long getCompletedCount() {
+        return completedCount.get();
+    }
+
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    public long getCancelledCount() {
+        return cancelledCount.get();
+    }
+
+    public double getAverageWaitMillis() {
+        long count = completedCount.get() + failedCount.get();
+        return count == 0 ? 0 : totalWaitNanos.get() / (count * 1000000.0);
+    }
+
+    public double getMaxWaitMillis() {
+        return maxWaitNanos.get() / 1000000.0;
+    }
+
+    public double getAverageRunMillis() {
+        long count = completedCount.get() + failedCount.get();
+        return count == 0 ? 0 : totalRunNanos.get() / (count * 1000000.0);
+    }
+
+    public double getMaxRunMillis() {
+        return maxRunNanos.get() / 1000000.0;
+    }
+
+    /**
+     * Reset all counters to zero.
+     */
+    public void reset() {
+        submittedCount.set( 0 );
+        completedCount.set( 0 );
+        failedCount.set( 0 );
+        cancelledCount.set( 0 );
+        totalWaitNanos.set( 0 );
+        maxWaitNanos.set( 0 );
+        totalRunNanos.set( 0 );
+        maxRunNanos.set( 0 );
+    }
+
+    public String toString() {
+        return new ToStringCreator( this ).append( "submittedCount", getSubmittedCount() ).append(
+                "completedCount", getCompletedCount() ).append( "failedCount", getFailedCount() ).append(
+                "cancelledCount", getCancelledCount() ).append( "averageWaitMillis", getAverageWaitMillis() )
+                .append( "maxWaitMillis", getMaxWaitMillis() ).append( "averageRunMillis", getAverageRunMillis() )
+                .append( "maxRunMillis", getMaxRunMillis() ).toString();
+    }
+}
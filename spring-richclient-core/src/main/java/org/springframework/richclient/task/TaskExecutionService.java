@@ -0,0 +1,99 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.task;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Application-wide service that runs background work on bounded, named thread pools,
+ * instead of each component starting its own threads.
+ * <p>
+ * Tasks are either I/O bound (remote calls, file access), which spend most of their time
+ * waiting, or CPU bound (sorting, filtering, parsing), which should not outnumber the
+ * processors. Each kind has its own pool, and queued tasks of higher priority run first.
+ * Delayed and periodic tasks run on a scheduler thread, so they should be short or hand
+ * their work to one of the pools. The {@link #execute(Runnable)} method of the
+ * {@link Executor} interface runs an I/O task of normal priority.
+ *
+ * @see org.springframework.richclient.application.ApplicationServices
+ */
+public interface TaskExecutionService extends Executor {
+
+    /** Kind of tasks that mostly wait, e.g. for the server. */
+    int IO_TASK = 0;
+
+    /** Kind of tasks that mostly compute. */
+    int CPU_TASK = 1;
+
+    int LOW_PRIORITY = 0;
+
+    int NORMAL_PRIORITY = 5;
+
+    int HIGH_PRIORITY = 10;
+
+    /**
+     * Submit an I/O task of normal priority.
+     *
+     * @param task the task
+     * @param callback receives the outcome on the event dispatch thread, may be
+     * <code>null</code>
+     * @return future of the task, which may be used to cancel it
+     */
+    Future submit(Callable task, TaskCallback callback);
+
+    /**
+     * Submit a task.
+     *
+     * @param task the task
+     * @param kind {@link #IO_TASK} or {@link #CPU_TASK}
+     * @param priority priority among the queued tasks of the same kind, higher runs
+     * first
+     * @param callback receives the outcome on the event dispatch thread, may be
+     * <code>null</code>
+     * @return future of the task, which may be used to cancel it
+     */
+    Future submit(Callable task, int kind, int priority, TaskCallback callback);
+
+    /**
+     * Run a task once after a delay.
+     *
+     * @see java.util.concurrent.ScheduledExecutorService#schedule(Runnable, long,
+     * TimeUnit)
+     */
+    ScheduledFuture schedule(Runnable task, long delay, TimeUnit unit);
+
+    /**
+     * Run a task periodically, e.g. to poll for changes.
+     *
+     * @see java.util.concurrent.ScheduledExecutorService#scheduleWithFixedDelay(Runnable,
+     * long, long, TimeUnit)
+     */
+    ScheduledFuture scheduleWithFixedDelay(Runnable task, long initialDelay, long delay, TimeUnit unit);
+
+    /**
+     * @return the number of tasks waiting to run
+     */
+    int getQueueSize();
+
+    /**
+     * @return the counters of the executed tasks
+     */
+    TaskExecutionMetrics getMetrics();
+}
@@ -67,6 +67,29 @@ public class OverlayHelper implements SwingConstants
 
     private Runnable overlayUpdater = new OverlayUpdater();
 
+    private static boolean sharedOverlayLayer;
+
+    /**
+     * Sets whether overlays are attached to the shared {@link OverlayLayer} of
+     * their window instead of tracking their target component themselves.
+     * Defaults to <code>false</code>. Windows showing many overlays, such as
+     * large forms with a validation overlay per field, are resized and
+     * scrolled much faster with the shared layer.
+     */
+    public static void setSharedOverlayLayer(boolean sharedOverlayLayer)
+    {
+        OverlayHelper.sharedOverlayLayer = sharedOverlayLayer;
+    }
+
+    /**
+     * Returns whether overlays are attached to the shared {@link OverlayLayer}
+     * of their window.
+     */
+    public static boolean isSharedOverlayLayer()
+    {
+        return sharedOverlayLayer;
+    }
+
     /**
      * Attaches an overlay to the specified component.
      *
@@ -83,10 +106,27 @@ public class OverlayHelper implements SwingConstants
      */
     public static void attachOverlay(JComponent overlay, JComponent overlayTarget, int center, int xOffset, int yOffset)
     {
-        new OverlayHelper(overlay, overlayTarget, center, xOffset, yOffset);
+        if (sharedOverlayLayer)
+        {
+            OverlayLayer.attachOverlay(overlay, overlayTarget, center, xOffset, yOffset);
+        }
+        else
+        {
+            new OverlayHelper(overlay, overlayTarget, center, xOffset, yOffset);
+        }
     }
 
     protected OverlayHelper(JComponent overlay, JComponent overlayTarget, int center, int xOffset, int yOffset)
+    {
+        this(overlay, overlayTarget, center, xOffset, yOffset, true);
+    }
+
+    /**
+     * Creates the helper, without listening to the overlay and its target if
+     * they are tracked by an {@link OverlayLayer}.
+     */
+    OverlayHelper(JComponent overlay, JComponent overlayTarget, int center, int xOffset, int yOffset,
+            boolean installListeners)
     {
         this.overlay = overlay;
         this.overlayTarget = overlayTarget;
@@ -97,7 +137,10 @@ public class OverlayHelper implements SwingConstants
         this.overlayClipper.setLayout(null);
         this.overlayClipper.add(overlay);
         this.overlayClipper.setOpaque(false);
-        installListeners();
+        if (installListeners)
+        {
+            installListeners();
+        }
     }
 
     final class OverlayChangeHandler implements ComponentListener, PropertyChangeListener
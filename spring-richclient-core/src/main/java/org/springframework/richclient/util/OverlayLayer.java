@@ -0,0 +1,312 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.util;
+
+import java.awt.Container;
+import java.awt.event.ComponentEvent;
+import java.awt.event.ComponentListener;
+import java.awt.event.HierarchyBoundsListener;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.HierarchyListener;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.swing.JComponent;
+import javax.swing.JLayeredPane;
+import javax.swing.JRootPane;
+import javax.swing.SwingUtilities;
+
+/**
+ * The overlays of a window, kept in the palette layer of its
+ * {@link JLayeredPane} and repositioned together.
+ * <p>
+ * An overlay attached with {@link OverlayHelper} schedules its own update
+ * each time its target or one of the target's ancestors moves or is resized,
+ * so resizing a window with hundreds of overlays queues hundreds of updates.
+ * The overlays of an <code>OverlayLayer</code> share a single stateless
+ * listener that only marks the layer of their window as out of date; the
+ * layer then repositions all its overlays in one pass, once all pending
+ * layout and scroll events have been handled.
+ * <p>
+ * Use {@link OverlayHelper#setSharedOverlayLayer(boolean)} to attach all
+ * overlays, such as the validation overlays of the form builders, to the
+ * layer of their window.
+ */
+public final class OverlayLayer
+{
+    private static final String HELPERS_KEY = OverlayLayer.class.getName() + ".helpers";
+
+    private static final String LAYER_KEY = OverlayLayer.class.getName() + ".layer";
+
+    private static final String TARGET_KEY = OverlayLayer.class.getName() + ".target";
+
+    private static final TargetChangeHandler TARGET_CHANGE_HANDLER = new TargetChangeHandler();
+
+    private static final OverlayChangeHandler OVERLAY_CHANGE_HANDLER = new OverlayChangeHandler();
+
+    private final JRootPane rootPane;
+
+    private final Set helpers = new LinkedHashSet();
+
+    private boolean updateScheduled;
+
+    private final Runnable overlayUpdater = new Runnable()
+    {
+        public void run()
+        {
+            updateOverlays();
+        }
+    };
+
+    private OverlayLayer(JRootPane rootPane)
+    {
+        this.rootPane = rootPane;
+    }
+
+    /**
+     * Attaches an overlay to the specified component and keeps it in the
+     * overlay layer of the component's window.
+     *
+     * @see OverlayHelper#attachOverlay(JComponent, JComponent, int, int, int)
+     */
+    public static void attachOverlay(JComponent overlay, JComponent overlayTarget, int center, int xOffset, int yOffset)
+    {
+        OverlayHelper helper = new OverlayHelper(overlay, overlayTarget, center, xOffset, yOffset, false);
+        List targetHelpers = (List) overlayTarget.getClientProperty(HELPERS_KEY);
+        if (targetHelpers == null)
+        {
+            targetHelpers = new ArrayList(2);
+            overlayTarget.putClientProperty(HELPERS_KEY, targetHelpers);
+            overlayTarget.addHierarchyListener(TARGET_CHANGE_HANDLER);
+            overlayTarget.addHierarchyBoundsListener(TARGET_CHANGE_HANDLER);
+            overlayTarget.addComponentListener(TARGET_CHANGE_HANDLER);
+        }
+        targetHelpers.add(helper);
+        overlay.putClientProperty(TARGET_KEY, overlayTarget);
+        overlay.addComponentListener(OVERLAY_CHANGE_HANDLER);
+        overlay.addPropertyChangeListener(OVERLAY_CHANGE_HANDLER);
+
+        OverlayLayer layer = (OverlayLayer) overlayTarget.getClientProperty(LAYER_KEY);
+        if (layer != null)
+        {
+            layer.helpers.add(helper);
+            layer.scheduleUpdate();
+        }
+        else
+        {
+            targetChanged(overlayTarget);
+        }
+    }
+
+    /**
+     * Returns the overlay layer of the given root pane, creating it if needed.
+     */
+    public static OverlayLayer getOverlayLayer(JRootPane rootPane)
+    {
+        OverlayLayer layer = (OverlayLayer) rootPane.getClientProperty(LAYER_KEY);
+        if (layer == null)
+        {
+            layer = new OverlayLayer(rootPane);
+            rootPane.putClientProperty(LAYER_KEY, layer);
+        }
+        return layer;
+    }
+
+    /**
+     * Returns the number of overlays in this layer.
+     */
+    public int getOverlayCount()
+    {
+        return helpers.size();
+    }
+
+    /**
+     * Repositions all overlays of this layer, after the events currently
+     * queued have been handled. Calls made before that happens are coalesced.
+     */
+    public void scheduleUpdate()
+    {
+        if (updateScheduled)
+        {
+            return;
+        }
+        updateScheduled = true;
+        // updating the overlays at the end of the event queue to avoid race
+        // conditions, see RCP-126
+        SwingUtilities.invokeLater(overlayUpdater);
+    }
+
+    void updateOverlays()
+    {
+        updateScheduled = false;
+        JLayeredPane layeredPane = rootPane.getLayeredPane();
+        for (Iterator i = helpers.iterator(); i.hasNext();)
+        {
+            OverlayHelper helper = (OverlayHelper) i.next();
+            Container overlayCapableParent = helper.getOverlayCapableParent(helper.overlayTarget);
+            if (overlayCapableParent != rootPane)
+            {
+                // the target has left this window; another layer may already
+                // hold the overlay
+                if (helper.overlayClipper.getParent() == layeredPane)
+                {
+                    layeredPane.remove(helper.overlayClipper);
+                    layeredPane.repaint();
+                }
+                i.remove();
+            }
+            else if (!helper.overlayTarget.isShowing() || !helper.overlay.isVisible())
+            {
+                helper.hideOverlay();
+            }
+            else if (layeredPane.isVisible() && layeredPane.isShowing())
+            {
+                helper.putOverlay(layeredPane);
+                helper.positionOverlay(layeredPane);
+            }
+        }
+    }
+
+    /**
+     * Moves the overlays of the target to the layer of the window it is shown
+     * in now.
+     */
+    static void targetChanged(JComponent overlayTarget)
+    {
+        OverlayLayer oldLayer = (OverlayLayer) overlayTarget.getClientProperty(LAYER_KEY);
+        JRootPane rootPane = SwingUtilities.getRootPane(overlayTarget);
+        OverlayLayer layer = rootPane != null ? getOverlayLayer(rootPane) : null;
+        if (layer != oldLayer)
+        {
+            // the old layer drops the overlays when it is updated
+            if (oldLayer != null)
+            {
+                oldLayer.scheduleUpdate();
+            }
+            if (layer != null)
+            {
+                List targetHelpers = (List) overlayTarget.getClientProperty(HELPERS_KEY);
+                layer.helpers.addAll(targetHelpers);
+            }
+            overlayTarget.putClientProperty(LAYER_KEY, layer);
+        }
+        if (layer != null)
+        {
+            layer.scheduleUpdate();
+        }
+    }
+
+    static void targetMoved(JComponent overlayTarget)
+    {
+        OverlayLayer layer = (OverlayLayer) overlayTarget.getClientProperty(LAYER_KEY);
+        if (layer != null)
+        {
+            layer.scheduleUpdate();
+        }
+    }
+
+    /**
+     * Listener shared by all overlay targets.
+     */
+    static final class TargetChangeHandler implements HierarchyListener, HierarchyBoundsListener, ComponentListener
+    {
+        public void hierarchyChanged(HierarchyEvent e)
+        {
+            targetChanged((JComponent) e.getComponent());
+        }
+
+        public void ancestorMoved(HierarchyEvent e)
+        {
+            targetMoved((JComponent) e.getComponent());
+        }
+
+        public void ancestorResized(HierarchyEvent e)
+        {
+            targetMoved((JComponent) e.getComponent());
+        }
+
+        public void componentHidden(ComponentEvent e)
+        {
+            targetMoved((JComponent) e.getComponent());
+        }
+
+        public void componentMoved(ComponentEvent e)
+        {
+            targetMoved((JComponent) e.getComponent());
+        }
+
+        public void componentResized(ComponentEvent e)
+        {
+            targetMoved((JComponent) e.getComponent());
+        }
+
+        public void componentShown(ComponentEvent e)
+        {
+            targetMoved((JComponent) e.getComponent());
+        }
+    }
+
+    /**
+     * Listener shared by all overlays. Moving and resizing an overlay is left
+     * to the layer, so only changes of its visibility or its properties
+     * require an update.
+     */
+    static final class OverlayChangeHandler implements ComponentListener, PropertyChangeListener
+    {
+        public void componentHidden(ComponentEvent e)
+        {
+            overlayChanged((JComponent) e.getComponent());
+        }
+
+        public void componentMoved(ComponentEvent e)
+        {
+            // ignore
+        }
+
+        public void componentResized(ComponentEvent e)
+        {
+            // ignore
+        }
+
+        public void componentShown(ComponentEvent e)
+        {
+            overlayChanged((JComponent) e.getComponent());
+        }
+
+        public void propertyChange(PropertyChangeEvent e)
+        {
+            if ("ancestor".equals(e.getPropertyName()) || "layeredContainerLayer".equals(e.getPropertyName()))
+            {
+                return;
+            }
+            overlayChanged((JComponent) e.getSource());
+        }
+
+        private void overlayChanged(JComponent overlay)
+        {
+            JComponent overlayTarget = (JComponent) overlay.getClientProperty(TARGET_KEY);
+            if (overlayTarget != null)
+            {
+                targetMoved(overlayTarget);
+            }
+        }
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import org.springframework.core.style.ToStringCreator;
+import org.springframework.util.Assert;
+
+/**
+ * Thread-safe cache of results with a time-to-live and a maximum size. When the cache
+ * is full, the least recently used entry is evicted. <code>null</code> results are not
+ * cached.
+ * <p>
+ * The cache counts hits, misses, evictions, expirations and invalidations, so its
+ * effectiveness can be monitored.
+ */
+public class ResultCache
+{
+    public static final int DEFAULT_MAX_SIZE = 100;
+
+    public static final long DEFAULT_TIME_TO_LIVE = 5 * 60 * 1000;
+
+    private final LinkedHashMap entries = new LinkedHashMap(16, 0.75f, true);
+
+    private int maxSize = DEFAULT_MAX_SIZE;
+
+    private long timeToLive = DEFAULT_TIME_TO_LIVE;
+
+    private long hitCount;
+
+    private long missCount;
+
+    private long evictionCount;
+
+    private long expirationCount;
+
+    private long invalidationCount;
+
+    /**
+     * Set the maximum number of cached results. Defaults to 100.
+     */
+    public synchronized void setMaxSize(int maxSize)
+    {
+        Assert.isTrue(maxSize > 0, "maxSize must be positive");
+        this.maxSize = maxSize;
+        evictExcess();
+    }
+
+    public synchronized int getMaxSize()
+    {
+        return maxSize;
+    }
+
+    /**
+     * Set the time in milliseconds a result stays valid. 0 means results never expire.
+     * Defaults to 5 minutes.
+     */
+    public synchronized void setTimeToLive(long timeToLive)
+    {
+        Assert.isTrue(timeToLive >= 0, "timeToLive cannot be negative");
+        this.timeToLive = timeToLive;
+    }
+
+    public synchronized long getTimeToLive()
+    {
+        return timeToLive;
+    }
+
+    /**
+     * Get a cached result.
+     *
+     * @param key
+     *            key of the result.
+     * @return the result, or <code>null</code> if not cached or expired.
+     */
+    public synchronized Object get(Object key)
+    {
+        Entry entry = (Entry) entries.get(key);
+        if (entry != null && entry.isExpired(System.currentTimeMillis()))
+        {
+            entries.remove(key);
+            expirationCount++;
+            entry = null;
+        }
+        if (entry == null)
+        {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        return entry.value;
+    }
+
+    /**
+     * Cache a result.
+     *
+     * @param key
+     *            key of the result.
+     * @param value
+     *            result to cache, a <code>null</code> result removes the key.
+     */
+    public synchronized void put(Object key, Object value)
+    {
+        if (value == null)
+        {
+            entries.remove(key);
+            return;
+        }
+        long expiry = timeToLive == 0 ? Long.MAX_VALUE : System.currentTimeMillis() + timeToLive;
+        entries.put(key, new Entry(value, expiry));
+        evictExcess();
+    }
+
+    /**
+     * Remove a cached result.
+     *
+     * @return <code>true</code> if a result was removed.
+     */
+    public synchronized boolean invalidate(Object key)
+    {
+        if (entries.remove(key) != null)
+        {
+            invalidationCount++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Remove all cached results.
+     */
+    public synchronized void invalidateAll()
+    {
+        invalidationCount += entries.size();
+        entries.clear();
+    }
+
+    /**
+     * @return the number of cached results, including expired ones not yet removed.
+     */
+    public synchronized int size()
+    {
+        return entries.size();
+    }
+
+    private void evictExcess()
+    {
+        for (Iterator iter = entries.entrySet().iterator(); entries.size() > maxSize && iter.hasNext();)
+        {
+            iter.next();
+            iter.remove();
+            evictionCount++;
+        }
+    }
+
+    public synchronized long getHitCount()
+    {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount()
+    {
+        return missCount;
+    }
+
+    /**
+     * @return the fraction of lookups that were hits, 0 if there were no lookups.
+     */
+    public synchronized double getHitRatio()
+    {
+        long lookups = hitCount + missCount;
+        return lookups == 0 ? 0 : (double) hitCount / lookups;
+    }
+
+    public synchronized long getEvictionCount()
+    {
+        return evictionCount;
+    }
+
+    public synchronized long getExpirationCount()
+    {
+        return expirationCount;
+    }
+
+    public synchronized long getInvalidationCount()
+    {
+        return invalidationCount;
+    }
+
+    /**
+     * Reset the statistics, the cached results are kept.
+     */
+    public synchronized void resetStatistics()
+    {
+        hitCount = 0;
+        missCount = 0;
+        evictionCount = 0;
+        expirationCount = 0;
+        invalidationCount = 0;
+    }
+
+    public synchronized String toString()
+    {
+        return new ToStringCreator(this).append("size", entries.size()).append("hitCount", hitCount).append(
+                "missCount", missCount).append("evictionCount", evictionCount).append("expirationCount",
+                expirationCount).append("invalidationCount", invalidationCount).toString();
+    }
+
+    private static final class Entry
+    {
+        private final Object value;
+
+        private final long expiry;
+
+        Entry(Object value, long expiry)
+        {
+            this.value = value;
+            this.expiry = expiry;
+        }
+
+        boolean isExpired(long now)
+        {
+            return now >= expiry;
+        }
+    }
+}
@@ -21,6 +21,7 @@ import javax.swing.SwingUtilities;
 import EDU.oswego.cs.dl.util.concurrent.Callable;
 import EDU.oswego.cs.dl.util.concurrent.FutureResult;
 import EDU.oswego.cs.dl.util.concurrent.TimedCallable;
+import org.springframework.richclient.task.DefaultTaskExecutionService;
 
 /**
  * An abstract class that you subclass to perform GUI-related work in a
@@ -86,6 +87,27 @@ public abstract class SwingWorker extends FutureResult implements Runnable {
      * invokes the <code>finished</code> method on the event dispatch thread.
      */
     public void run() {
+        // remember the executing pool thread while running, so interrupt() can reach it
+        boolean pooled;
+        synchronized (this) {
+            pooled = (thread == null);
+            if (pooled) {
+                thread = Thread.currentThread();
+            }
+        }
+        try {
+            computeAndFinish();
+        }
+        finally {
+            if (pooled) {
+                synchronized (this) {
+                    thread = null;
+                }
+            }
+        }
+    }
+
+    private void computeAndFinish() {
         Callable function = new Callable() {
             public Object call() throws Exception {
                 return construct();
@@ -106,13 +128,11 @@ public abstract class SwingWorker extends FutureResult implements Runnable {
     }
 
     /**
-     * Starts the worker thread.
+     * Starts the worker on the application's
+     * {@link org.springframework.richclient.task.TaskExecutionService}.
      */
     public synchronized void start() {
-        if (thread == null) {
-            thread = new Thread(this);
-        }
-        thread.start();
+        DefaultTaskExecutionService.locate().execute(this);
     }
 
     /**
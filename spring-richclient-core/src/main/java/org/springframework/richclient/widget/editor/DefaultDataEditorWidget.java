@@ -14,6 +14,7 @@ import org.springframework.richclient.core.DefaultMessage;
 import org.springframework.richclient.core.Severity;
 import org.springframework.richclient.form.AbstractForm;
 import org.springframework.richclient.form.FilterForm;
+import org.springframework.richclient.task.DefaultTaskExecutionService;
 import org.springframework.richclient.util.RcpSupport;
 import org.springframework.richclient.widget.AbstractWidget;
 import org.springframework.richclient.widget.Widget;
@@ -500,7 +501,7 @@ public class DefaultDataEditorWidget extends AbstractDataEditorWidget
             listWorker.parameters = parameters;
             log.debug("Execute Filter with criteria: " + listWorker.filterCriteria + " and parameters: "
                     + parameters);
-            listWorker.execute();
+            DefaultTaskExecutionService.locate().execute(listWorker);
         }
     }
 
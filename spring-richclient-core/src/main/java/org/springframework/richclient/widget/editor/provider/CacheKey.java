@@ -0,0 +1,88 @@
+package org.springframework.richclient.widget.editor.provider;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Key of a cached result, holding a serialized snapshot of the arguments it was
+ * fetched for.
+ * <p>
+ * Criteria are often mutable, e.g. the form object of a filter form, which is edited
+ * in place. Keying on the arguments themselves would either return stale results
+ * (identity equality) or lose entries whose hash code changed (value equality). The
+ * snapshot captures the state of the arguments at the time of the lookup instead.
+ */
+final class CacheKey
+{
+    private final Object discriminator;
+
+    private final byte[] snapshot;
+
+    private final int hashCode;
+
+    private CacheKey(Object discriminator, byte[] snapshot)
+    {
+        this.discriminator = discriminator;
+        this.snapshot = snapshot;
+        this.hashCode = discriminator.hashCode() * 31 + Arrays.hashCode(snapshot);
+    }
+
+    /**
+     * Create the key of a result.
+     *
+     * @param discriminator immutable object telling apart the kinds of results, e.g. a
+     * method.
+     * @param arguments the arguments the result is fetched for.
+     * @return the key, or <code>null</code> if one of the arguments cannot be
+     * serialized, in which case the result should not be cached.
+     */
+    static CacheKey create(Object discriminator, Object[] arguments)
+    {
+        if (arguments != null)
+        {
+            for (int i = 0; i < arguments.length; i++)
+            {
+                if (arguments[i] != null && !(arguments[i] instanceof Serializable))
+                {
+                    return null;
+                }
+            }
+        }
+        try
+        {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            ObjectOutputStream out = new ObjectOutputStream(bytes);
+            out.writeObject(arguments);
+            out.close();
+            return new CacheKey(discriminator, bytes.toByteArray());
+        }
+        catch (IOException e)
+        {
+            // e.g. a non-serializable object referenced by one of the arguments
+            return null;
+        }
+        catch (RuntimeException e)
+        {
+            // e.g. a custom writeObject method that fails
+            return null;
+        }
+    }
+
+    public boolean equals(Object o)
+    {
+        if (!(o instanceof CacheKey))
+        {
+            return false;
+        }
+        CacheKey other = (CacheKey) o;
+        return discriminator.equals(other.discriminator) && Arrays.equals(snapshot, other.snapshot);
+    }
+
+    public int hashCode()
+    {
+        return hashCode;
+    }
+}
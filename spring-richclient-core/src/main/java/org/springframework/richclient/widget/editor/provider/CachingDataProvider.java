@@ -0,0 +1,230 @@
+package org.springframework.richclient.widget.editor.provider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Observable;
+
+import org.springframework.richclient.util.ResultCache;
+import org.springframework.util.Assert;
+
+/**
+ * DataProvider decorator that caches the lists and detail objects fetched from the
+ * back-end, so reference data isn't fetched again each time a screen is opened.
+ * <p>
+ * Lists are cached per criteria, detail objects per selected object. Criteria and
+ * selected objects are often edited in place, e.g. the form object of a filter form, so
+ * results are keyed on a serialized snapshot of them; results for objects that cannot
+ * be serialized are not cached. Each call returns a new copy of a cached list, so
+ * callers may modify it. Detail objects requested with <code>forceLoad</code> are
+ * always fetched, and the fresh result replaces the cached one. All cached results are invalidated when data is created,
+ * updated or deleted, either through this provider or through the decorated provider
+ * (as signalled by a {@link DataProviderEvent}), and when the base criteria change.
+ * Events of the decorated provider are passed on to the listeners of this provider
+ * after the cache has been invalidated.
+ * <p>
+ * The {@link ResultCache} determines the time-to-live and size of the cache and holds
+ * the statistics. It may be shared, e.g. by providers of related data.
+ */
+public class CachingDataProvider extends Observable implements DataProvider, DataProviderListener
+{
+    private static final String LIST = "list";
+
+    private static final String DETAIL = "detail";
+
+    private final DataProvider delegate;
+
+    private final ResultCache cache;
+
+    public CachingDataProvider(DataProvider delegate)
+    {
+        this(delegate, new ResultCache());
+    }
+
+    public CachingDataProvider(DataProvider delegate, ResultCache cache)
+    {
+        Assert.notNull(delegate, "delegate cannot be null");
+        Assert.notNull(cache, "cache cannot be null");
+        this.delegate = delegate;
+        this.cache = cache;
+        delegate.addDataProviderListener(this);
+    }
+
+    public DataProvider getDelegate()
+    {
+        return delegate;
+    }
+
+    /**
+     * @return the cache, which also holds the statistics.
+     */
+    public ResultCache getCache()
+    {
+        return cache;
+    }
+
+    /**
+     * Remove all cached results.
+     */
+    public void invalidate()
+    {
+        cache.invalidateAll();
+    }
+
+    public List getList(Object criteria)
+    {
+        CacheKey key = CacheKey.create(LIST, new Object[]{criteria});
+        if (key == null)
+        {
+            return delegate.getList(criteria);
+        }
+        List list = (List) cache.get(key);
+        if (list == null)
+        {
+            list = delegate.getList(criteria);
+            if (list == null)
+            {
+                return null;
+            }
+            list = new ArrayList(list);
+            cache.put(key, list);
+        }
+        return new ArrayList(list);
+    }
+
+    public Object getDetailObject(Object selectedObject, boolean forceLoad)
+    {
+        CacheKey key = CacheKey.create(DETAIL, new Object[]{selectedObject});
+        if (key == null)
+        {
+            return delegate.getDetailObject(selectedObject, forceLoad);
+        }
+        Object detail = forceLoad ? null : cache.get(key);
+        if (detail == null)
+        {
+            detail = delegate.getDetailObject(selectedObject, forceLoad);
+            cache.put(key, detail);
+        }
+        return detail;
+    }
+
+    public Object getSimpleObject(Object selectedObject)
+    {
+        return delegate.getSimpleObject(selectedObject);
+    }
+
+    public boolean supportsFiltering()
+    {
+        return delegate.supportsFiltering();
+    }
+
+    public boolean supportsUpdate()
+    {
+        return delegate.supportsUpdate();
+    }
+
+    public Object update(Object updatedData)
+    {
+        try
+        {
+            return delegate.update(updatedData);
+        }
+        finally
+        {
+            invalidate();
+        }
+    }
+
+    public boolean supportsCreate()
+    {
+        return delegate.supportsCreate();
+    }
+
+    public Object create(Object newData)
+    {
+        try
+        {
+            return delegate.create(newData);
+        }
+        finally
+        {
+            invalidate();
+        }
+    }
+
+    public Object newInstance(Object criteria)
+    {
+        return delegate.newInstance(criteria);
+    }
+
+    public boolean supportsClone()
+    {
+        return delegate.supportsClone();
+    }
+
+    public Object clone(Object sampleData)
+    {
+        return delegate.clone(sampleData);
+    }
+
+    public boolean supportsDelete()
+    {
+        return delegate.supportsDelete();
+    }
+
+    public void delete(Object dataToRemove)
+    {
+        try
+        {
+            delegate.delete(dataToRemove);
+        }
+        finally
+        {
+            invalidate();
+        }
+    }
+
+    public boolean supportsBaseCriteria()
+    {
+        return delegate.supportsBaseCriteria();
+    }
+
+    public void setBaseCriteria(Object criteria)
+    {
+        delegate.setBaseCriteria(criteria);
+        invalidate();
+    }
+
+    public boolean exists(Object data)
+    {
+        return delegate.exists(data);
+    }
+
+    public RefreshPolicy getRefreshPolicy()
+    {
+        return delegate.getRefreshPolicy();
+    }
+
+    /**
+     * Invalidate the cache on a {@link DataProviderEvent} of the decorated provider and
+     * pass the event on.
+     */
+    public void update(Observable source, Object arg)
+    {
+        if (arg instanceof DataProviderEvent)
+        {
+            invalidate();
+        }
+        setChanged();
+        notifyObservers(arg);
+    }
+
+    public void addDataProviderListener(DataProviderListener dataProviderListener)
+    {
+        addObserver(dataProviderListener);
+    }
+
+    public void removeDataProviderListener(DataProviderListener dataProviderListener)
+    {
+        deleteObserver(dataProviderListener);
+    }
+}
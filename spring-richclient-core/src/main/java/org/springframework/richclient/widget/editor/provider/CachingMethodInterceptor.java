@@ -0,0 +1,156 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.widget.editor.provider;
+
+import java.util.Observable;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.richclient.util.ResultCache;
+import org.springframework.util.Assert;
+import org.springframework.util.PatternMatchUtils;
+
+/**
+ * Interceptor that caches the results of read-only methods of a (remote) service, keyed
+ * by method and arguments. Typically used on a remoting proxy for reference data, so
+ * repeated lookups don't hit the server:
+ *
+ * <pre>
+ *   &lt;bean id=&quot;clinic&quot; class=&quot;org.springframework.aop.framework.ProxyFactoryBean&quot;&gt;
+ *       &lt;property name=&quot;target&quot; ref=&quot;remoteClinic&quot; /&gt;
+ *       &lt;property name=&quot;interceptorNames&quot; value=&quot;clinicCache&quot; /&gt;
+ *   &lt;/bean&gt;
+ *   &lt;bean id=&quot;clinicCache&quot; class=&quot;org.springframework.richclient.widget.editor.provider.CachingMethodInterceptor&quot;&gt;
+ *       &lt;property name=&quot;cachedMethodNames&quot; value=&quot;getVets,getPetTypes&quot; /&gt;
+ *       &lt;property name=&quot;invalidatingMethodNames&quot; value=&quot;store*&quot; /&gt;
+ *   &lt;/bean&gt;
+ * </pre>
+ *
+ * Results are keyed on the method and a serialized snapshot of the arguments, so
+ * arguments modified after a call don't return stale results; calls with arguments that
+ * cannot be serialized are not cached. Method names may contain <code>*</code>
+ * wildcards. All cached results are invalidated
+ * after an invalidating method is called, and when a {@link DataProviderEvent} is
+ * received, so the interceptor can be registered as listener of data providers that
+ * modify the same data.
+ * <p>
+ * Cached results are shared by all callers, so they should not be modified.
+ */
+public class CachingMethodInterceptor implements MethodInterceptor, DataProviderListener
+{
+    private static final Log logger = LogFactory.getLog(CachingMethodInterceptor.class);
+
+    private ResultCache cache = new ResultCache();
+
+    private String[] cachedMethodNames = new String[0];
+
+    private String[] invalidatingMethodNames = new String[0];
+
+    /**
+     * Set the cache to use, which determines the time-to-live and size bounds.
+     */
+    public void setCache(ResultCache cache)
+    {
+        Assert.notNull(cache, "cache cannot be null");
+        this.cache = cache;
+    }
+
+    /**
+     * @return the cache, which also holds the statistics
+     */
+    public ResultCache getCache()
+    {
+        return cache;
+    }
+
+    /**
+     * Set the names of the methods whose results are cached.
+     */
+    public void setCachedMethodNames(String[] cachedMethodNames)
+    {
+        this.cachedMethodNames = cachedMethodNames;
+    }
+
+    /**
+     * Set the names of the methods that invalidate all cached results.
+     */
+    public void setInvalidatingMethodNames(String[] invalidatingMethodNames)
+    {
+        this.invalidatingMethodNames = invalidatingMethodNames;
+    }
+
+    public Object invoke(MethodInvocation invocation) throws Throwable
+    {
+        String methodName = invocation.getMethod().getName();
+        if (matches(methodName, cachedMethodNames))
+        {
+            CacheKey key = CacheKey.create(invocation.getMethod(), invocation.getArguments());
+            if (key == null)
+            {
+                return invocation.proceed();
+            }
+            Object result = cache.get(key);
+            if (result == null)
+            {
+                result = invocation.proceed();
+                cache.put(key, result);
+            }
+            else if (logger.isDebugEnabled())
+            {
+                logger.debug("Returning cached result of " + methodName);
+            }
+            return result;
+        }
+
+        if (matches(methodName, invalidatingMethodNames))
+        {
+            try
+            {
+                return invocation.proceed();
+            }
+            finally
+            {
+                cache.invalidateAll();
+            }
+        }
+        return invocation.proceed();
+    }
+
+    /**
+     * Invalidate all cached results when data is created, updated or deleted.
+     */
+    public void update(Observable source, Object arg)
+    {
+        if (arg instanceof DataProviderEvent)
+        {
+            cache.invalidateAll();
+        }
+    }
+
+    private static boolean matches(String methodName, String[] patterns)
+    {
+        for (int i = 0; i < patterns.length; i++)
+        {
+            if (PatternMatchUtils.simpleMatch(patterns[i], methodName))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+}
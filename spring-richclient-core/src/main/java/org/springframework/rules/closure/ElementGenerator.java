@@ -94,6 +94,25 @@ public interface ElementGenerator extends ClosureTemplate {
 	 */
 	ElementGenerator findAll(Constraint constraint);
 
+	/**
+	 * Transform all elements produced by this template with the specified
+	 * closure. The transformation is lazy: elements are transformed one by one
+	 * while the returned generator runs.
+	 *
+	 * @param closure the transformation
+	 * @return the transformed elements
+	 */
+	ElementGenerator map(Closure closure);
+
+	/**
+	 * Produce at most <code>maxElements</code> elements of this template. This
+	 * template is stopped as soon as the limit has been reached.
+	 *
+	 * @param maxElements the maximum number of elements
+	 * @return the first <code>maxElements</code> elements
+	 */
+	ElementGenerator limit(int maxElements);
+
 	/**
 	 * Execute the template until the specified condition is true
 	 *
@@ -18,6 +18,7 @@ package org.springframework.rules.closure.support;
 import org.springframework.rules.closure.Closure;
 import org.springframework.rules.constraint.Constraint;
 import org.springframework.rules.closure.ElementGenerator;
+import org.springframework.util.Assert;
 
 /**
  * Base superclass for process templates.
@@ -94,6 +95,45 @@ public abstract class AbstractElementGenerator implements ElementGenerator {
 		};
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	public ElementGenerator map(final Closure transformation) {
+		return new AbstractElementGenerator(this) {
+			public void run(final Closure closure) {
+				getWrappedTemplate().run(new Block() {
+					protected void handle(Object element) {
+						closure.call(transformation.call(element));
+					}
+				});
+			}
+		};
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public ElementGenerator limit(final int maxElements) {
+		Assert.isTrue(maxElements >= 0, "maxElements must not be negative");
+		return new AbstractElementGenerator(this) {
+			public void run(final Closure closure) {
+				if (maxElements == 0) {
+					return;
+				}
+				getWrappedTemplate().run(new Block() {
+					private int count;
+
+					protected void handle(Object element) {
+						closure.call(element);
+						if (++count >= maxElements) {
+							getWrappedTemplate().stop();
+						}
+					}
+				});
+			}
+		};
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -18,14 +18,37 @@ package org.springframework.rules.closure.support;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.springframework.rules.closure.Closure;
 import org.springframework.rules.constraint.Constraint;
 import org.springframework.rules.closure.ElementGenerator;
+import org.springframework.util.Assert;
 
 /**
  * Convenience utility class which provides a number of algorithms involving
  * function objects such as closures and constraints.
+ * <p>
+ * The <code>parallel</code> variants split large collections into chunks that
+ * are processed concurrently on an {@link ExecutorService}. The closures and
+ * constraints passed to them must therefore be thread-safe. Collections
+ * smaller than the {@link #setParallelThreshold(int) parallel threshold} are
+ * processed sequentially on the calling thread.
+ * <p>
+ * The parallel algorithms wait for their chunks to complete, so they must not
+ * be nested on a bounded executor: chunks waiting for nested chunks could
+ * occupy all its threads and deadlock. A parallel algorithm called from a
+ * closure or constraint of another parallel algorithm therefore runs
+ * sequentially on the current thread. For the same reason, the closures and
+ * constraints must not wait for other tasks submitted to the executor.
  *
  * @author Keith Donald
  */
@@ -34,6 +57,21 @@ public class Algorithms {
 	/** The shared instance. */
 	private static Algorithms INSTANCE = new Algorithms();
 
+	/** Default minimum collection size for parallel processing. */
+	public static final int DEFAULT_PARALLEL_THRESHOLD = 1000;
+
+	/** Executor used when none is configured, created on first use. */
+	private static ExecutorService defaultExecutorService;
+
+	/** Set while the current thread processes a chunk. */
+	private static final ThreadLocal PROCESSING_CHUNK = new ThreadLocal();
+
+	private ExecutorService executorService;
+
+	private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+
+	private int parallelism = Runtime.getRuntime().availableProcessors();
+
 	/**
 	 * Load the shared instance
 	 *
@@ -174,4 +212,201 @@ public class Algorithms {
 	public void forEach(Iterator it, Closure closure) {
 		new IteratorTemplate(it).run(closure);
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Set the executor used by the parallel algorithms. Defaults to a shared
+	 * pool of daemon threads sized to the number of available processors.
+	 *
+	 * @param executorService the executor.
+	 */
+	public void setExecutorService(ExecutorService executorService) {
+		this.executorService = executorService;
+	}
+
+	/**
+	 * Set the minimum collection size for which the parallel algorithms
+	 * actually split the work. Defaults to {@link #DEFAULT_PARALLEL_THRESHOLD}.
+	 *
+	 * @param parallelThreshold the threshold.
+	 */
+	public void setParallelThreshold(int parallelThreshold) {
+		this.parallelThreshold = parallelThreshold;
+	}
+
+	/**
+	 * Set the maximum number of chunks a collection is split into. Defaults to
+	 * the number of available processors.
+	 *
+	 * @param parallelism the number of chunks, must be positive.
+	 */
+	public void setParallelism(int parallelism) {
+		Assert.isTrue(parallelism > 0, "parallelism must be positive");
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Execute the provided closure for each element in the collection,
+	 * processing chunks of the collection concurrently.
+	 *
+	 * @param collection the collection
+	 * @param closure the thread-safe callback
+	 */
+	public void parallelForEach(Collection collection, final Closure closure) {
+		if (!isParallel(collection)) {
+			forEach(collection, closure);
+			return;
+		}
+		invokeChunks(collection, new ChunkProcessor() {
+			public Object process(List chunk) {
+				forEach(chunk, closure);
+				return null;
+			}
+		});
+	}
+
+	/**
+	 * Find all the elements in the collection that match the specified
+	 * constraint, testing chunks of the collection concurrently. The order of
+	 * the collection is preserved in the result.
+	 *
+	 * @param collection the collection
+	 * @param constraint the thread-safe constraint
+	 * @return The objects that match, or a empty collection if none match
+	 */
+	public Collection parallelFindAll(Collection collection, final Constraint constraint) {
+		if (!isParallel(collection)) {
+			return findAll(collection, constraint);
+		}
+		List partialResults = invokeChunks(collection, new ChunkProcessor() {
+			public Object process(List chunk) {
+				return findAll(chunk, constraint);
+			}
+		});
+		Collection results = new ArrayList();
+		for (Iterator it = partialResults.iterator(); it.hasNext();) {
+			results.addAll((Collection) it.next());
+		}
+		return results;
+	}
+
+	/**
+	 * Returns true if any elements in the given collection meet the specified
+	 * predicate condition, testing chunks of the collection concurrently. All
+	 * chunks stop as soon as one match is found.
+	 *
+	 * @param collection the collection
+	 * @param constraint the thread-safe constraint
+	 * @return true or false
+	 */
+	public boolean parallelAnyTrue(Collection collection, final Constraint constraint) {
+		if (!isParallel(collection)) {
+			return anyTrue(collection, constraint);
+		}
+		final AtomicBoolean found = new AtomicBoolean(false);
+		invokeChunks(collection, new ChunkProcessor() {
+			public Object process(List chunk) {
+				for (Iterator it = chunk.iterator(); it.hasNext() && !found.get();) {
+					if (constraint.test(it.next())) {
+						found.set(true);
+					}
+				}
+				return null;
+			}
+		});
+		return found.get();
+	}
+
+	private boolean isParallel(Collection collection) {
+		// nested parallel calls run inline, see class comment
+		return parallelism > 1 && collection.size() >= parallelThreshold && PROCESSING_CHUNK.get() == null;
+	}
+
+	/**
+	 * Split the collection in chunks and process them concurrently. The first
+	 * chunk is processed on the calling thread.
+	 *
+	 * @return the results of the processor, in chunk order.
+	 */
+	private List invokeChunks(Collection collection, final ChunkProcessor processor) {
+		List elements = (collection instanceof List) ? (List) collection : new ArrayList(collection);
+		int size = elements.size();
+		int chunkSize = (size + parallelism - 1) / parallelism;
+		List futures = new ArrayList(parallelism);
+		ExecutorService executor = getExecutorService();
+		for (int start = chunkSize; start < size; start += chunkSize) {
+			final List chunk = elements.subList(start, Math.min(start + chunkSize, size));
+			futures.add(executor.submit(new Callable() {
+				public Object call() throws Exception {
+					return processChunk(processor, chunk);
+				}
+			}));
+		}
+		List results = new ArrayList(futures.size() + 1);
+		try {
+			results.add(processChunk(processor, elements.subList(0, Math.min(chunkSize, size))));
+			for (Iterator it = futures.iterator(); it.hasNext();) {
+				results.add(((Future) it.next()).get());
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for parallel processing to complete");
+		}
+		catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			IllegalStateException ise = new IllegalStateException("Parallel processing failed");
+			ise.initCause(cause);
+			throw ise;
+		}
+		finally {
+			for (Iterator it = futures.iterator(); it.hasNext();) {
+				((Future) it.next()).cancel(false);
+			}
+		}
+		return results;
+	}
+
+	private static Object processChunk(ChunkProcessor processor, List chunk) {
+		PROCESSING_CHUNK.set(Boolean.TRUE);
+		try {
+			return processor.process(chunk);
+		}
+		finally {
+			PROCESSING_CHUNK.set(null);
+		}
+	}
+
+	protected ExecutorService getExecutorService() {
+		if (executorService != null) {
+			return executorService;
+		}
+		synchronized (Algorithms.class) {
+			if (defaultExecutorService == null) {
+				defaultExecutorService = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+						new ThreadFactory() {
+							private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+							public Thread newThread(Runnable r) {
+								Thread thread = new Thread(r, "algorithms-" + threadNumber.getAndIncrement());
+								thread.setDaemon(true);
+								return thread;
+							}
+						});
+			}
+			return defaultExecutorService;
+		}
+	}
+
+	/**
+	 * Processes a single chunk of a collection.
+	 */
+	private static interface ChunkProcessor {
+		Object process(List chunk);
+	}
+}
@@ -104,4 +104,25 @@ public abstract class AlgorithmsAccessor {
 		getAlgorithms().forEach(it, closure);
 	}
 
+	/**
+	 * @see Algorithms#parallelAnyTrue(Collection, Constraint)
+	 */
+	public boolean parallelAnyTrue(Collection collection, Constraint constraint) {
+		return getAlgorithms().parallelAnyTrue(collection, constraint);
+	}
+
+	/**
+	 * @see Algorithms#parallelFindAll(Collection, Constraint)
+	 */
+	public Collection parallelFindAll(Collection collection, Constraint constraint) {
+		return getAlgorithms().parallelFindAll(collection, constraint);
+	}
+
+	/**
+	 * @see Algorithms#parallelForEach(Collection, Closure)
+	 */
+	public void parallelForEach(Collection collection, Closure closure) {
+		getAlgorithms().parallelForEach(collection, closure);
+	}
+
 }
\ No newline at end of file
@@ -15,48 +15,94 @@
  */
 package org.springframework.rules.constraint;
 
+import java.util.regex.Pattern;
+
 import org.springframework.rules.constraint.Constraint;
+import org.springframework.rules.support.PatternCache;
 import org.springframework.core.enums.StringCodedLabeledEnum;
+import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
 /**
  * A like constraint, supporting "starts with%", "%ends with", and "%contains%".
+ * <p>
+ * Simple like strings are evaluated with a plain prefix, suffix or contains
+ * check. Like strings with wildcards in the middle (e.g. "a%b%c") are
+ * compiled once to a regular expression shared through
+ * {@link PatternCache#INSTANCE}.
  *
  * @author Keith Donald
  */
 public class Like implements Constraint {
 
+	private static final String WILDCARD = "%";
+
 	public static final LikeType STARTS_WITH = new LikeType("startsWith");
 
 	public static final LikeType ENDS_WITH = new LikeType("endsWith");
 
 	public static final LikeType CONTAINS = new LikeType("contains");
 
+	public static final LikeType MATCHES = new LikeType("matches");
+
 	private LikeType type;
 
 	private String stringToMatch;
 
+	private Pattern pattern;
+
 	public Like(LikeType type, String likeString) {
+		Assert.isTrue(type != MATCHES, "Use Like(String) for encoded wildcard patterns");
 		this.type = type;
 		this.stringToMatch = likeString;
 	}
 
 	public Like(String encodedLikeString) {
-		if (encodedLikeString.startsWith("%")) {
-			if (encodedLikeString.endsWith("%")) {
+		boolean leading = encodedLikeString.startsWith(WILDCARD);
+		boolean trailing = encodedLikeString.length() > (leading ? 1 : 0) && encodedLikeString.endsWith(WILDCARD);
+		String inner = encodedLikeString.substring(leading ? 1 : 0, encodedLikeString.length()
+				- (trailing ? 1 : 0));
+		if (inner.indexOf(WILDCARD) != -1 && StringUtils.hasLength(StringUtils.deleteAny(inner, WILDCARD))) {
+			this.type = MATCHES;
+			this.stringToMatch = encodedLikeString;
+			this.pattern = PatternCache.INSTANCE.getPattern(toRegex(leading, inner, trailing), Pattern.DOTALL);
+			return;
+		}
+		if (leading) {
+			if (trailing) {
 				this.type = CONTAINS;
 			}
 			else {
 				this.type = ENDS_WITH;
 			}
 		}
-		else if (encodedLikeString.endsWith("%")) {
+		else if (trailing) {
 			this.type = STARTS_WITH;
 		}
 		else {
 			this.type = CONTAINS;
 		}
-		stringToMatch = StringUtils.deleteAny(encodedLikeString, "%");
+		stringToMatch = StringUtils.deleteAny(encodedLikeString, WILDCARD);
+	}
+
+	private static String toRegex(boolean leading, String inner, boolean trailing) {
+		StringBuffer regex = new StringBuffer();
+		if (leading) {
+			regex.append(".*");
+		}
+		String[] parts = StringUtils.delimitedListToStringArray(inner, WILDCARD);
+		for (int i = 0; i < parts.length; i++) {
+			if (i > 0) {
+				regex.append(".*");
+			}
+			if (parts[i].length() > 0) {
+				regex.append(Pattern.quote(parts[i]));
+			}
+		}
+		if (trailing) {
+			regex.append(".*");
+		}
+		return regex.toString();
 	}
 
 	public boolean test(Object argument) {
@@ -67,6 +113,9 @@ public class Like implements Constraint {
 		else if (type == ENDS_WITH) {
 			return value.endsWith(stringToMatch);
 		}
+		else if (type == MATCHES) {
+			return pattern.matcher(value).matches();
+		}
 		else {
 			return value.indexOf(stringToMatch) != -1;
 		}
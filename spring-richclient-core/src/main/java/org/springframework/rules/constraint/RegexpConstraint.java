@@ -21,12 +21,15 @@ import java.util.regex.Pattern;
 import org.springframework.rules.constraint.Constraint;
 import org.springframework.rules.reporting.TypeResolvable;
 import org.springframework.rules.reporting.TypeResolvableSupport;
+import org.springframework.rules.support.PatternCache;
 
 /**
- * A constraint based on a regular expression pattern.
+ * A constraint based on a regular expression pattern. Compiled patterns are
+ * shared between constraints through {@link PatternCache#INSTANCE}.
  *
  * @see TypeResolvable
  * @see Pattern
+ * @see PatternCache
  *
  * @author Keith Donald
  */
@@ -53,7 +56,7 @@ public class RegexpConstraint extends TypeResolvableSupport implements Constrain
 	 */
 	public RegexpConstraint(String regex, String type) {
 		super(type);
-		pattern = Pattern.compile(regex);
+		pattern = PatternCache.INSTANCE.getPattern(regex);
 	}
 
 	/**
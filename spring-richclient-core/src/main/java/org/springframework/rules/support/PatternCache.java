@@ -0,0 +1,166 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.rules.support;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.springframework.util.Assert;
+
+/**
+ * Bounded, least-recently-used cache of compiled regular expression
+ * {@link Pattern}s.
+ * <p>
+ * Constraint factories tend to create many constraints for the same
+ * expression. {@link Pattern} instances are immutable and thread-safe, so all
+ * string-matching constraints can share the compiled form through
+ * {@link #INSTANCE}.
+ */
+public class PatternCache {
+
+	/**
+	 * Default maximum number of patterns kept in the cache.
+	 */
+	public static final int DEFAULT_MAX_SIZE = 256;
+
+	/**
+	 * Shared cache used by the string-matching constraints.
+	 */
+	public static final PatternCache INSTANCE = new PatternCache();
+
+	private final Object lock = new Object();
+
+	private int maxSize;
+
+	private final Map patterns = new LinkedHashMap(16, 0.75f, true) {
+		protected boolean removeEldestEntry(Map.Entry eldest) {
+			return size() > maxSize;
+		}
+	};
+
+	/**
+	 * Creates a cache holding at most {@link #DEFAULT_MAX_SIZE} patterns.
+	 */
+	public PatternCache() {
+		this(DEFAULT_MAX_SIZE);
+	}
+
+	/**
+	 * Creates a cache holding at most <code>maxSize</code> patterns.
+	 *
+	 * @param maxSize the maximum number of cached patterns, must be positive.
+	 */
+	public PatternCache(int maxSize) {
+		setMaxSize(maxSize);
+	}
+
+	/**
+	 * Returns the compiled pattern for the given regular expression, compiling
+	 * and caching it on first use.
+	 *
+	 * @param regex the regular expression.
+	 * @return the compiled pattern.
+	 */
+	public Pattern getPattern(String regex) {
+		return getPattern(regex, 0);
+	}
+
+	/**
+	 * Returns the compiled pattern for the given regular expression and match
+	 * flags, compiling and caching it on first use.
+	 *
+	 * @param regex the regular expression.
+	 * @param flags the match flags, see {@link Pattern#compile(String, int)}.
+	 * @return the compiled pattern.
+	 */
+	public Pattern getPattern(String regex, int flags) {
+		Assert.notNull(regex, "regex must not be null");
+		PatternKey key = new PatternKey(regex, flags);
+		synchronized (lock) {
+			Pattern pattern = (Pattern) patterns.get(key);
+			if (pattern != null) {
+				return pattern;
+			}
+		}
+		// compile outside the lock; a concurrent duplicate compile is harmless
+		Pattern pattern = Pattern.compile(regex, flags);
+		synchronized (lock) {
+			patterns.put(key, pattern);
+		}
+		return pattern;
+	}
+
+	/**
+	 * Sets the maximum number of cached patterns. Shrinking the cache evicts
+	 * the least recently used patterns on the next insertion.
+	 *
+	 * @param maxSize the maximum number of cached patterns, must be positive.
+	 */
+	public void setMaxSize(int maxSize) {
+		Assert.isTrue(maxSize > 0, "maxSize must be positive");
+		synchronized (lock) {
+			this.maxSize = maxSize;
+		}
+	}
+
+	public int getMaxSize() {
+		synchronized (lock) {
+			return maxSize;
+		}
+	}
+
+	/**
+	 * @return the number of patterns currently cached.
+	 */
+	public int size() {
+		synchronized (lock) {
+			return patterns.size();
+		}
+	}
+
+	/**
+	 * Removes all cached patterns.
+	 */
+	public void clear() {
+		synchronized (lock) {
+			patterns.clear();
+		}
+	}
+
+	private static final class PatternKey {
+		private final String regex;
+
+		private final int flags;
+
+		PatternKey(String regex, int flags) {
+			this.regex = regex;
+			this.flags = flags;
+		}
+
+		public boolean equals(Object o) {
+			if (!(o instanceof PatternKey)) {
+				return false;
+			}
+			PatternKey other = (PatternKey) o;
+			return flags == other.flags && regex.equals(other.regex);
+		}
+
+		public int hashCode() {
+			return regex.hashCode() * 31 + flags;
+		}
+	}
+}
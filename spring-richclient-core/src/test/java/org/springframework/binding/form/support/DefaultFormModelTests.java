@@ -35,6 +35,10 @@ import org.springframework.binding.value.ValueModel;
 import org.springframework.binding.value.support.ValueHolder;
 import org.springframework.richclient.core.Severity;
 
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -266,6 +270,88 @@ public class DefaultFormModelTests extends AbstractFormModelTests {
         assertEquals(testBean, model.getFormObject());
     }
 
+    public void testSetFormObjectValidatesOnce() {
+        DefaultFormModel fm = (DefaultFormModel) getFormModel(new TestBean());
+        TestValidator v = new TestValidator();
+        fm.setValidator(v);
+        fm.getValueModel("simpleProperty");
+        fm.getValueModel("numberProperty");
+        fm.getValueModel("dateProperty");
+        TestPropertyChangeListener pcl = new TestPropertyChangeListener(AbstractFormModel.UPDATED_FIELDS_PROPERTY);
+        fm.addPropertyChangeListener(AbstractFormModel.UPDATED_FIELDS_PROPERTY, pcl);
+        int count = v.count;
+
+        TestBean newBean = new TestBean();
+        newBean.setSimpleProperty("new");
+        newBean.setNumberProperty(new Integer(1));
+        fm.setFormObject(newBean);
+        assertEquals(count + 1, v.count);
+        assertEquals(1, pcl.eventCount());
+        Set updatedFields = (Set) pcl.lastEvent().getNewValue();
+        assertEquals(2, updatedFields.size());
+        assertTrue(updatedFields.contains("simpleProperty"));
+        assertTrue(updatedFields.contains("numberProperty"));
+        assertFalse(fm.isUpdating());
+    }
+
+    public void testUpdateDefersValueChangeEvents() {
+        DefaultFormModel fm = (DefaultFormModel) getFormModel(new TestBean());
+        TestValidator v = new TestValidator();
+        fm.setValidator(v);
+        ValueModel vm = fm.getValueModel("simpleProperty");
+        TestPropertyChangeListener pcl = new TestPropertyChangeListener(ValueModel.VALUE_PROPERTY);
+        vm.addValueChangeListener(pcl);
+        int count = v.count;
+
+        fm.beginUpdate();
+        fm.beginUpdate();
+        vm.setValue("1");
+        vm.setValue("2");
+        fm.endUpdate();
+        assertEquals(0, pcl.eventCount());
+        assertEquals(count, v.count);
+
+        fm.endUpdate();
+        assertEquals(1, pcl.eventCount());
+        assertEquals("2", pcl.lastEvent().getNewValue());
+        assertEquals(count + 1, v.count);
+        assertTrue(fm.isDirty());
+    }
+
+    public void testSetFormObjectInUpdateKeepsLaterChangesDirty() {
+        DefaultFormModel fm = (DefaultFormModel) getFormModel(new TestBean());
+        ValueModel vm = fm.getValueModel("simpleProperty");
+        fm.getValueModel("numberProperty").setValue(new Integer(5));
+        assertTrue(fm.isDirty());
+
+        fm.beginUpdate();
+        fm.setFormObject(new TestBean());
+        vm.setValue("changed");
+        fm.endUpdate();
+
+        assertTrue(fm.isDirty());
+        assertTrue(fm.getFieldMetadata("simpleProperty").isDirty());
+        assertFalse(fm.getFieldMetadata("numberProperty").isDirty());
+    }
+
+    public void testUpdatedFieldsOnlyFiredToNamedListeners() {
+        DefaultFormModel fm = (DefaultFormModel) getFormModel(new TestBean());
+        fm.getValueModel("simpleProperty");
+        final List updatedFieldsEvents = new ArrayList();
+        fm.addPropertyChangeListener(new PropertyChangeListener() {
+            public void propertyChange(PropertyChangeEvent evt) {
+                if (AbstractFormModel.UPDATED_FIELDS_PROPERTY.equals(evt.getPropertyName())) {
+                    updatedFieldsEvents.add(evt);
+                }
+            }
+        });
+
+        TestBean newBean = new TestBean();
+        newBean.setSimpleProperty("new");
+        fm.setFormObject(newBean);
+        assertEquals(0, updatedFieldsEvents.size());
+    }
+
     private DefaultValidationResults getValidationResults(String message) {
         DefaultValidationResults res = new DefaultValidationResults();
         res.addMessage("simpleProperty", Severity.ERROR, message);
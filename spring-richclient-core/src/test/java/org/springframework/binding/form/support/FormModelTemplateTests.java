@@ -0,0 +1,86 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.binding.form.support;
+
+import org.springframework.binding.form.FieldMetadata;
+import org.springframework.binding.support.TestBean;
+import org.springframework.richclient.test.SpringRichTestCase;
+
+/**
+ * Tests class {@link FormModelTemplate}.
+ */
+public class FormModelTemplateTests extends SpringRichTestCase {
+
+	private DefaultFormModel prototype;
+
+	protected void doSetUp() throws Exception {
+		prototype = new DefaultFormModel(new TestBean());
+		prototype.setId("testForm");
+		prototype.add("simpleProperty");
+		prototype.add("readOnly");
+		prototype.getFieldMetadata("simpleProperty").setUserMetadata("custom", "value");
+	}
+
+	public void testCapturesFields() {
+		FormModelTemplate template = new FormModelTemplate(prototype);
+		assertEquals(2, template.getFieldNames().size());
+
+		TestBean bean = new TestBean();
+		bean.setSimpleProperty("test");
+		DefaultFormModel formModel = template.createFormModel(bean);
+
+		assertEquals("testForm", formModel.getId());
+		assertTrue(formModel.isBuffered());
+		assertSame(bean, formModel.getFormObject());
+		assertEquals(prototype.getFieldNames(), formModel.getFieldNames());
+		assertEquals("test", formModel.getValueModel("simpleProperty").getValue());
+
+		FieldMetadata metadata = formModel.getFieldMetadata("simpleProperty");
+		assertEquals(String.class, metadata.getPropertyType());
+		assertEquals("value", metadata.getUserMetadata("custom"));
+		assertFalse(metadata.isReadOnly());
+		assertTrue(formModel.getFieldMetadata("readOnly").isReadOnly());
+	}
+
+	public void testFormModelsAreIndependent() {
+		FormModelTemplate template = new FormModelTemplate(prototype);
+		DefaultFormModel first = template.createFormModel(new TestBean());
+		DefaultFormModel second = template.createFormModel(new TestBean());
+
+		first.getValueModel("simpleProperty").setValue("changed");
+		assertTrue(first.isDirty());
+		assertFalse(second.isDirty());
+
+		first.getFieldMetadata("simpleProperty").setUserMetadata("custom", "other");
+		assertEquals("value", second.getFieldMetadata("simpleProperty").getUserMetadata("custom"));
+	}
+
+	public void testValidatesOnce() {
+		FormModelTemplate template = new FormModelTemplate(prototype);
+		DefaultFormModelTests.TestValidator validator = new DefaultFormModelTests.TestValidator();
+		template.setValidator(validator);
+
+		DefaultFormModel formModel = template.createFormModel(new TestBean());
+		assertEquals(1, validator.count);
+		assertTrue(formModel.isValidating());
+	}
+
+	public void testSkipsDerivedFields() {
+		prototype.addMethod("equals", "simpleProperty");
+		FormModelTemplate template = new FormModelTemplate(prototype);
+		assertFalse(template.getFieldNames().contains("equals"));
+	}
+}
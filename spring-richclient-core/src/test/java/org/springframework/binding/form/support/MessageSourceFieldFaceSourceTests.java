@@ -16,6 +16,8 @@
 package org.springframework.binding.form.support;
 
 import java.awt.Color;
+import java.io.File;
+import java.util.Collections;
 import java.util.Locale;
 
 import javax.swing.Icon;
@@ -24,6 +26,8 @@ import org.easymock.EasyMock;
 import org.springframework.binding.form.FieldFace;
 import org.springframework.context.support.MessageSourceAccessor;
 import org.springframework.context.support.StaticMessageSource;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
 import org.springframework.richclient.image.IconSource;
 import org.springframework.richclient.test.SpringRichTestCase;
 import org.springframework.richclient.test.TestIcon;
@@ -64,4 +68,67 @@ public class MessageSourceFieldFaceSourceTests extends SpringRichTestCase {
 		EasyMock.verify(mockIconSource);
 	}
 
+	public void testPrewarmResolvesMessagesOnce() throws Exception {
+		StaticMessageSource messageSource = new StaticMessageSource();
+		messageSource.addMessage("context.field.caption", Locale.getDefault(), "the caption");
+		CountingFieldFaceSource fieldFaceSource = new CountingFieldFaceSource();
+		fieldFaceSource.setMessageSourceAccessor(new MessageSourceAccessor(messageSource));
+
+		fieldFaceSource.prewarm(Collections.singletonMap("context", Collections.singletonList("field"))).get();
+		int count = fieldFaceSource.count;
+		assertTrue(count > 0);
+
+		assertEquals("the caption", fieldFaceSource.getFieldFace("field", "context").getCaption());
+		assertEquals(count, fieldFaceSource.count);
+	}
+
+	public void testSnapshot() throws Exception {
+		File snapshotDirectory = File.createTempFile("fieldfaces", "");
+		snapshotDirectory.delete();
+		snapshotDirectory.mkdir();
+		try {
+			StaticMessageSource messageSource = new StaticMessageSource();
+			messageSource.addMessage("context.field.caption", Locale.getDefault(), "the caption");
+			MessageSourceFieldFaceSource fieldFaceSource = createSnapshotFieldFaceSource(messageSource,
+					snapshotDirectory, "context.field.caption=the caption");
+			fieldFaceSource.prewarm(Collections.singletonMap("context", Collections.singletonList("field"))).get();
+			assertEquals(1, snapshotDirectory.listFiles().length);
+
+			// unchanged bundles, the messages come from the snapshot
+			fieldFaceSource = createSnapshotFieldFaceSource(new StaticMessageSource(), snapshotDirectory,
+					"context.field.caption=the caption");
+			assertEquals("the caption", fieldFaceSource.getFieldFace("field", "context").getCaption());
+
+			// changed bundles, the snapshot is ignored
+			fieldFaceSource = createSnapshotFieldFaceSource(new StaticMessageSource(), snapshotDirectory,
+					"context.field.caption=another caption");
+			assertNull(fieldFaceSource.getFieldFace("field", "context").getCaption());
+		}
+		finally {
+			File[] files = snapshotDirectory.listFiles();
+			for (int i = 0; i < files.length; i++) {
+				files[i].delete();
+			}
+			snapshotDirectory.delete();
+		}
+	}
+
+	private MessageSourceFieldFaceSource createSnapshotFieldFaceSource(StaticMessageSource messageSource,
+			File snapshotDirectory, String bundle) {
+		MessageSourceFieldFaceSource fieldFaceSource = new MessageSourceFieldFaceSource();
+		fieldFaceSource.setMessageSourceAccessor(new MessageSourceAccessor(messageSource));
+		fieldFaceSource.setSnapshotDirectory(snapshotDirectory);
+		fieldFaceSource.setMessageResources(new Resource[] { new ByteArrayResource(bundle.getBytes()) });
+		return fieldFaceSource;
+	}
+
+	private static class CountingFieldFaceSource extends MessageSourceFieldFaceSource {
+
+		private volatile int count;
+
+		protected String[] getMessageKeys(String contextId, String fieldPath, String[] faceDescriptorProperties) {
+			count++;
+			return super.getMessageKeys(contextId, fieldPath, faceDescriptorProperties);
+		}
+	}
 }
@@ -268,6 +268,31 @@ public abstract class AbstractPropertyAccessStrategyTests extends SpringRichTest
                 testBeanPCP2.getPropertyChangeListeners("boundProperty").length);
     }
 
+    public void testLazyBeanPropertyListeners() {
+        pas.setLazyBeanPropertyListeners(true);
+        TestBeanWithPCP testBeanPCP = new TestBeanWithPCP();
+        pas.getDomainObjectHolder().setValue(testBeanPCP);
+
+        vm = pas.getPropertyValueModel("boundProperty");
+        assertEquals("ValueModel without listeners should not listen to the bean", 0,
+                testBeanPCP.getPropertyChangeListeners("boundProperty").length);
+
+        testBeanPCP.setBoundProperty("1");
+        vm.addValueChangeListener(pcl);
+        assertEquals("ValueModel should have registered a PropertyChangeListener", 1,
+                testBeanPCP.getPropertyChangeListeners("boundProperty").length);
+
+        testBeanPCP.setBoundProperty("2");
+        assertEquals(1, pcl.getEventsRecevied().size());
+        PropertyChangeEvent e = (PropertyChangeEvent)pcl.getEventsRecevied().get(0);
+        assertEquals("1", e.getOldValue());
+        assertEquals("2", e.getNewValue());
+
+        vm.removeValueChangeListener(pcl);
+        assertEquals("ValueModel should have removed the PropertyChangeListener", 0,
+                testBeanPCP.getPropertyChangeListeners("boundProperty").length);
+    }
+
     private void testSettingAndGetting(Object[] valuesToTest, Closure getValueDirectly, Block setValueDirectly) {
         vm.addValueChangeListener(pcl);
         for (int i = 0; i < valuesToTest.length; i++) {
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.binding.support;
+
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests class {@link PropertyMetadataRegistry}.
+ */
+public class PropertyMetadataRegistryTests extends TestCase {
+
+	public void testClassIsIntrospectedOnce() {
+		PropertyMetadataRegistry registry = new PropertyMetadataRegistry();
+		PropertyMetadataRegistry.ClassMetadata metadata = registry.getClassMetadata(TestBean.class);
+		assertSame(metadata, registry.getClassMetadata(TestBean.class));
+		assertEquals(1, registry.size());
+
+		registry.clear(TestBean.class);
+		assertEquals(0, registry.size());
+		assertNotSame(metadata, registry.getClassMetadata(TestBean.class));
+	}
+
+	public void testPropertyMetadata() {
+		PropertyMetadataRegistry registry = new PropertyMetadataRegistry();
+		assertPropertyMetadata(registry.getPropertyMetadata(TestBean.class, "simpleProperty"), String.class, true,
+				true);
+		assertPropertyMetadata(registry.getPropertyMetadata(TestBean.class, "readOnly"), Object.class, true, false);
+		assertPropertyMetadata(registry.getPropertyMetadata(TestBean.class, "writeOnly"), Object.class, false, true);
+		assertNull(registry.getPropertyMetadata(TestBean.class, "unknown"));
+	}
+
+	public void testSimplePropertyName() {
+		assertTrue(PropertyMetadataRegistry.isSimplePropertyName("simpleProperty"));
+		assertFalse(PropertyMetadataRegistry.isSimplePropertyName("nestedProperty.simpleProperty"));
+		assertFalse(PropertyMetadataRegistry.isSimplePropertyName("mapProperty[key]"));
+		assertFalse(PropertyMetadataRegistry.isSimplePropertyName(""));
+	}
+
+	public void testAnnotationsAreSharedByStrategies() {
+		AnnotationAwareBeanPropertyAccessStrategy first = new AnnotationAwareBeanPropertyAccessStrategy(
+				new AnnotationAwareBeanPropertyAccessStrategyTests.TestBean());
+		AnnotationAwareBeanPropertyAccessStrategy second = new AnnotationAwareBeanPropertyAccessStrategy(
+				new AnnotationAwareBeanPropertyAccessStrategyTests.TestBean());
+
+		Map firstMetadata = first.getMetadataAccessStrategy().getAllUserMetadata("age");
+		PropertyMetadataRegistry.PropertyMetadata metadata = PropertyMetadataRegistry.getInstance()
+				.getPropertyMetadata(AnnotationAwareBeanPropertyAccessStrategyTests.TestBean.class, "age");
+		assertSame(metadata.getAnnotations(), metadata.getAnnotations());
+
+		Map secondMetadata = second.getMetadataAccessStrategy().getAllUserMetadata("age");
+		assertEquals(4, secondMetadata.size());
+		assertEquals(firstMetadata, secondMetadata);
+		assertNotSame("every caller receives its own map", firstMetadata, secondMetadata);
+	}
+
+	public void testChildStrategyIsReused() {
+		TestBean testBean = new TestBean();
+		testBean.setNestedProperty(new TestBean());
+		BeanPropertyAccessStrategy pas = new BeanPropertyAccessStrategy(testBean);
+		assertSame(pas.getPropertyAccessStrategyForPath("nestedProperty"), pas
+				.getPropertyAccessStrategyForPath("nestedProperty"));
+		assertEquals(String.class, pas.getPropertyAccessStrategyForPath("nestedProperty").getMetadataAccessStrategy()
+				.getPropertyType("simpleProperty"));
+	}
+
+	private void assertPropertyMetadata(PropertyMetadataRegistry.PropertyMetadata metadata, Class type,
+			boolean readable, boolean writeable) {
+		assertNotNull(metadata);
+		assertEquals(type, metadata.getPropertyType());
+		assertEquals(readable, metadata.isReadable());
+		assertEquals(writeable, metadata.isWriteable());
+	}
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.binding.value.support;
+
+import org.springframework.binding.support.TestPropertyChangeListener;
+import org.springframework.binding.value.ValueModel;
+import org.springframework.richclient.test.SpringRichTestCase;
+
+/**
+ * Tests class {@link ValueHolder}.
+ */
+public class ValueHolderTests extends SpringRichTestCase {
+
+    private CountingValueChangeDetector detector;
+
+    private ValueHolder vm;
+
+    public void doSetUp() {
+        detector = new CountingValueChangeDetector();
+        vm = new ValueHolder("1");
+        vm.setValueChangeDetector(detector);
+    }
+
+    public void testValuesAreComparedOnce() {
+        TestPropertyChangeListener pcl = new TestPropertyChangeListener(ValueModel.VALUE_PROPERTY);
+        vm.addValueChangeListener(pcl);
+
+        vm.setValue("2");
+        assertEquals(1, detector.count);
+        pcl.assertLastEvent(1, "1", "2");
+
+        vm.setValue("2");
+        assertEquals(2, detector.count);
+        pcl.assertEventCount(1);
+    }
+
+    public void testNoEventWithoutListeners() {
+        vm.setValue("2");
+        assertEquals("2", vm.getValue());
+        assertEquals(1, detector.count);
+
+        vm.fireValueChange("2", "3");
+        vm.fireValueChange(1, 2);
+        assertEquals("values are only compared for listeners", 1, detector.count);
+    }
+
+    public void testPrimitiveValuesAreComparedDirectly() {
+        TestPropertyChangeListener pcl = new TestPropertyChangeListener(ValueModel.VALUE_PROPERTY);
+        vm.addValueChangeListener(pcl);
+
+        vm.fireValueChange(1, 1);
+        vm.fireValueChange(1l, 1l);
+        vm.fireValueChange(1d, 1d);
+        vm.fireValueChange(Double.NaN, Double.NaN);
+        pcl.assertEventCount(0);
+
+        vm.fireValueChange(1, 2);
+        pcl.assertLastEvent(1, new Integer(1), new Integer(2));
+        vm.fireValueChange(1l, 2l);
+        pcl.assertLastEvent(2, new Long(1), new Long(2));
+        vm.fireValueChange(1d, 2d);
+        pcl.assertLastEvent(3, new Double(1), new Double(2));
+        assertEquals("the detector is not consulted for primitives", 0, detector.count);
+    }
+
+    public void testIdenticalValuesHaveNotChanged() {
+        DefaultValueChangeDetector defaultDetector = new DefaultValueChangeDetector();
+        Object value = new Object();
+        assertFalse(defaultDetector.hasValueChanged(value, value));
+        assertFalse(defaultDetector.hasValueChanged(null, null));
+        assertFalse(defaultDetector.hasValueChanged(new Integer(1), new Integer(1)));
+        assertTrue(defaultDetector.hasValueChanged(value, new Object()));
+        assertTrue(defaultDetector.hasValueChanged(null, value));
+    }
+
+    private static class CountingValueChangeDetector extends DefaultValueChangeDetector {
+
+        private int count;
+
+        public boolean hasValueChanged(Object oldValue, Object newValue) {
+            count++;
+            return super.hasValueChanged(oldValue, newValue);
+        }
+    }
+}
@@ -4,10 +4,16 @@
 package org.springframework.core.closure;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import junit.framework.TestCase;
 
+import org.springframework.rules.closure.support.AbstractClosure;
+import org.springframework.rules.closure.support.Algorithms;
 import org.springframework.rules.closure.support.Block;
 import org.springframework.rules.closure.support.IteratorTemplate;
 import org.springframework.rules.constraint.Constraint;
@@ -156,4 +162,90 @@ public class ClosureTests extends TestCase {
 		});
 		assertEquals(3, runUntilCounter);
 	}
+
+	public void testLazyChaining() {
+		List collection = new ArrayList();
+		for (int i = 0; i < 10; i++) {
+			collection.add(new Integer(i));
+		}
+		IteratorTemplate template = new IteratorTemplate(collection);
+		final List results = new ArrayList();
+		template.findAll(new Constraint() {
+			public boolean test(Object o) {
+				return ((Integer) o).intValue() % 2 == 0;
+			}
+		}).map(new AbstractClosure() {
+			public Object call(Object o) {
+				return "Item " + o;
+			}
+		}).limit(3).run(new Block() {
+			protected void handle(Object o) {
+				results.add(o);
+			}
+		});
+		assertEquals(Arrays.asList(new Object[] { "Item 0", "Item 2", "Item 4" }), results);
+	}
+
+	public void testParallelAlgorithms() {
+		List collection = new ArrayList();
+		for (int i = 0; i < 100; i++) {
+			collection.add(new Integer(i));
+		}
+		Algorithms algorithms = new Algorithms();
+		algorithms.setParallelThreshold(10);
+		algorithms.setParallelism(4);
+		Constraint even = new Constraint() {
+			public boolean test(Object o) {
+				return ((Integer) o).intValue() % 2 == 0;
+			}
+		};
+		assertEquals(algorithms.findAll(collection, even), algorithms.parallelFindAll(collection, even));
+		assertTrue(algorithms.parallelAnyTrue(collection, even));
+		assertFalse(algorithms.parallelAnyTrue(collection, new Constraint() {
+			public boolean test(Object o) {
+				return ((Integer) o).intValue() < 0;
+			}
+		}));
+		final int[] count = new int[1];
+		algorithms.parallelForEach(collection, new Block() {
+			protected void handle(Object o) {
+				synchronized (count) {
+					count[0]++;
+				}
+			}
+		});
+		assertEquals(100, count[0]);
+	}
+
+	public void testNestedParallelAlgorithms() {
+		final List collection = new ArrayList();
+		for (int i = 0; i < 100; i++) {
+			collection.add(new Integer(i));
+		}
+		final Algorithms algorithms = new Algorithms();
+		algorithms.setParallelThreshold(10);
+		algorithms.setParallelism(4);
+		// a single thread would deadlock if the nested calls waited for it
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		algorithms.setExecutorService(executor);
+		try {
+			final int[] count = new int[1];
+			algorithms.parallelForEach(collection, new Block() {
+				protected void handle(Object o) {
+					Collection found = algorithms.parallelFindAll(collection, new Constraint() {
+						public boolean test(Object o) {
+							return ((Integer) o).intValue() < 2;
+						}
+					});
+					synchronized (count) {
+						count[0] += found.size();
+					}
+				}
+			});
+			assertEquals(200, count[0]);
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
 }
\ No newline at end of file
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.command.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import javax.swing.SwingUtilities;
+
+import junit.framework.TestCase;
+
+import org.springframework.richclient.progress.NullProgressMonitor;
+import org.springframework.richclient.progress.ProgressMonitor;
+
+public class AsyncActionCommandTests extends TestCase {
+
+    private List submitted;
+
+    private TestAsyncCommand command;
+
+    protected void setUp() throws Exception {
+        submitted = new ArrayList();
+        command = new TestAsyncCommand();
+        command.setProgressMonitor(new NullProgressMonitor());
+        command.setExecutor(new Executor() {
+            public void execute(Runnable task) {
+                submitted.add(task);
+            }
+        });
+    }
+
+    public void testDisabledWhileRunning() throws Exception {
+        assertTrue(command.isEnabled());
+        command.execute();
+        assertTrue(command.isRunning());
+        assertFalse(command.isEnabled());
+
+        // executing again while running is ignored
+        command.execute();
+        assertEquals(1, submitted.size());
+
+        runSubmitted();
+        assertEquals("result", command.result);
+        assertTrue(command.completedOnEventDispatchThread);
+        assertFalse(command.isRunning());
+        assertTrue(command.isEnabled());
+    }
+
+    public void testCancel() throws Exception {
+        command.execute();
+        command.cancel();
+        runSubmitted();
+        assertTrue(command.cancelled);
+        assertNull(command.result);
+        assertTrue(command.isEnabled());
+    }
+
+    public void testFailure() throws Exception {
+        command.failure = new IllegalStateException("test");
+        command.execute();
+        runSubmitted();
+        assertSame(command.failure, command.reportedFailure);
+        assertTrue(command.isEnabled());
+    }
+
+    private void runSubmitted() throws Exception {
+        for (int i = 0; i < submitted.size(); i++) {
+            ((Runnable) submitted.get(i)).run();
+        }
+        submitted.clear();
+        // let the completion run on the event dispatch thread
+        SwingUtilities.invokeAndWait(new Runnable() {
+            public void run() {
+            }
+        });
+    }
+
+    private static class TestAsyncCommand extends AsyncActionCommand {
+        private Exception failure;
+
+        private Object result;
+
+        private Throwable reportedFailure;
+
+        private boolean cancelled;
+
+        private boolean completedOnEventDispatchThread;
+
+        TestAsyncCommand() {
+            super("asyncCommand");
+        }
+
+        protected Object doInBackground(ProgressMonitor progressMonitor) throws Exception {
+            if (failure != null) {
+                throw failure;
+            }
+            return "result";
+        }
+
+        protected void onSuccess(Object result) {
+            this.result = result;
+            this.completedOnEventDispatchThread = SwingUtilities.isEventDispatchThread();
+        }
+
+        protected void onFailure(Throwable cause) {
+            this.reportedFailure = cause;
+        }
+
+        protected void onCancelled() {
+            this.cancelled = true;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.command.support;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+
+import javax.swing.AbstractButton;
+
+import org.springframework.richclient.command.ActionCommand;
+import org.springframework.richclient.test.SpringRichTestCase;
+
+public class CommandStateSchedulerTests extends SpringRichTestCase {
+
+    private CommandStateScheduler scheduler;
+
+    protected void doSetUp() throws Exception {
+        scheduler = new CommandStateScheduler();
+        CommandStateScheduler.setInstance( scheduler );
+    }
+
+    protected void doTearDown() throws Exception {
+        CommandStateScheduler.setInstance( new CommandStateScheduler() );
+    }
+
+    public void testRunsImmediatelyByDefault() {
+        final int[] runs = new int[1];
+        scheduler.schedule( new Runnable() {
+            public void run() {
+                runs[0]++;
+            }
+        } );
+        assertEquals( 1, runs[0] );
+    }
+
+    public void testCoalescesUpdates() {
+        final int[] runs = new int[1];
+        Runnable update = new Runnable() {
+            public void run() {
+                runs[0]++;
+            }
+        };
+        scheduler.setCoalescing( true );
+        for( int i = 0; i < 10; i++ ) {
+            scheduler.schedule( update );
+        }
+        assertEquals( 0, runs[0] );
+        assertEquals( 1, scheduler.getPendingCount() );
+
+        scheduler.flush();
+        assertEquals( 1, runs[0] );
+        assertEquals( 0, scheduler.getPendingCount() );
+    }
+
+    public void testButtonsReceiveNetState() {
+        ActionCommand command = new ActionCommand( "test" ) {
+            protected void doExecuteCommand() {
+            }
+        };
+        AbstractButton button = command.createButton();
+        final int[] changes = new int[1];
+        button.addPropertyChangeListener( "enabled", new PropertyChangeListener() {
+            public void propertyChange(PropertyChangeEvent evt) {
+                changes[0]++;
+            }
+        } );
+
+        scheduler.setCoalescing( true );
+        for( int i = 0; i < 5; i++ ) {
+            command.setEnabled( false );
+            command.setEnabled( true );
+        }
+        command.setEnabled( false );
+        assertTrue( "Button not updated before flush", button.isEnabled() );
+
+        scheduler.flush();
+        assertFalse( button.isEnabled() );
+        assertEquals( 1, changes[0] );
+
+        command.setEnabled( true );
+        command.setEnabled( false );
+        scheduler.flush();
+        assertFalse( button.isEnabled() );
+        assertEquals( "No net change", 1, changes[0] );
+    }
+
+    public void testButtonsFollowStateWithoutCoalescing() {
+        ActionCommand command = new ActionCommand( "test" ) {
+            protected void doExecuteCommand() {
+            }
+        };
+        AbstractButton button = command.createButton();
+
+        command.setEnabled( false );
+        assertFalse( button.isEnabled() );
+        assertTrue( "Visible state must not change", button.isVisible() );
+
+        command.setEnabled( true );
+        assertTrue( button.isEnabled() );
+
+        command.setVisible( false );
+        assertFalse( button.isVisible() );
+        assertTrue( "Enabled state must not change", button.isEnabled() );
+    }
+}
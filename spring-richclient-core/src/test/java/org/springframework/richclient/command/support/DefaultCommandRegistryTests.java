@@ -80,6 +80,55 @@ public class DefaultCommandRegistryTests extends AbstractCommandRegistryTests {
         assertEquals("registry not removed from parent", 1, parent2.removedListeners.size());
     }
 
+    public void testLookupViewFollowsParentRegistrations() {
+        DefaultCommandRegistry parent = new DefaultCommandRegistry();
+        DefaultCommandRegistry registry = new DefaultCommandRegistry(parent);
+
+        assertNull("command not registered yet", registry.getCommand("testCommand"));
+        assertFalse("command not registered yet", registry.containsCommand("testCommand"));
+        long version = registry.getLookupVersion();
+
+        TestCommand parentCommand = new TestCommand("testCommand");
+        parent.registerCommand(parentCommand);
+        assertTrue("lookup view not invalidated", registry.getLookupVersion() > version);
+        assertSame("cached miss not discarded", parentCommand, registry.getCommand("testCommand"));
+        assertTrue(registry.containsCommand("testCommand"));
+
+        TestCommand localCommand = new TestCommand("testCommand");
+        registry.registerCommand(localCommand);
+        assertSame("local command must hide parent command", localCommand, registry.getCommand("testCommand"));
+
+        registry.setParent(null);
+        parent.registerCommand(new TestCommand("otherCommand"));
+        assertNull("former parent must not be consulted", registry.getCommand("otherCommand"));
+    }
+
+    public void testMissesAreCachedUpToBound() {
+        CountingCommandRegistry parent = new CountingCommandRegistry();
+        DefaultCommandRegistry registry = new DefaultCommandRegistry(parent);
+
+        assertNull(registry.getCommand("missing"));
+        assertNull(registry.getCommand("missing"));
+        assertEquals("miss not cached", 1, parent.lookupCount);
+
+        for (int i = 0; i < DefaultCommandRegistry.MAX_CACHED_MISSES; i++) {
+            registry.getCommand("missing" + i);
+        }
+        parent.lookupCount = 0;
+        registry.getCommand("missing" + DefaultCommandRegistry.MAX_CACHED_MISSES);
+        registry.getCommand("missing" + DefaultCommandRegistry.MAX_CACHED_MISSES);
+        assertEquals("misses beyond the bound must not be cached", 2, parent.lookupCount);
+    }
+
+    private static class CountingCommandRegistry extends DefaultCommandRegistry {
+        private int lookupCount;
+
+        public Object getCommand(String commandId) {
+            lookupCount++;
+            return super.getCommand(commandId);
+        }
+    }
+
     private static class TestCommandRegistry implements CommandRegistry {
         private List addedListeners = new ArrayList();
 
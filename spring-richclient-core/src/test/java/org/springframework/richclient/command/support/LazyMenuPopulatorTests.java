@@ -0,0 +1,90 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.command.support;
+
+import javax.swing.JMenu;
+import javax.swing.JPopupMenu;
+
+import org.springframework.richclient.command.CommandGroup;
+import org.springframework.richclient.test.SpringRichTestCase;
+
+public class LazyMenuPopulatorTests extends SpringRichTestCase {
+
+    protected void doSetUp() throws Exception {
+        LazyMenuPopulator.resetCounts();
+    }
+
+    public void testPopulatesOnceWhenSelected() {
+        final int[] runs = new int[1];
+        JMenu menu = new JMenu();
+        LazyMenuPopulator.bind(menu, new Runnable() {
+            public void run() {
+                runs[0]++;
+            }
+        });
+        assertTrue(LazyMenuPopulator.isPending(menu));
+        assertEquals(0, runs[0]);
+
+        menu.setSelected(true);
+        menu.setSelected(false);
+        menu.setSelected(true);
+        assertEquals(1, runs[0]);
+        assertFalse(LazyMenuPopulator.isPending(menu));
+        assertEquals(1, LazyMenuPopulator.getDeferredCount());
+        assertEquals(1, LazyMenuPopulator.getPopulatedCount());
+    }
+
+    public void testPopulateInAdvance() {
+        final int[] runs = new int[1];
+        JPopupMenu popup = new JPopupMenu();
+        LazyMenuPopulator.bind(popup, new Runnable() {
+            public void run() {
+                runs[0]++;
+            }
+        });
+        LazyMenuPopulator.populate(popup);
+        LazyMenuPopulator.populate(popup);
+        assertEquals(1, runs[0]);
+        assertEquals(0, popup.getPopupMenuListeners().length);
+    }
+
+    public void testLazyCommandGroupMenu() {
+        CommandGroup group = new CommandGroup("group");
+        group.add(new TestCommand("first"));
+        group.add(new TestCommand("second"));
+        group.setLazyMaterialization(true);
+
+        JMenu menu = (JMenu) group.createMenuItem();
+        assertTrue(LazyMenuPopulator.isPending(menu));
+        assertEquals(0, menu.getMenuComponentCount());
+
+        menu.setSelected(true);
+        assertEquals(2, menu.getMenuComponentCount());
+
+        // members added after population are bound like those of an eager menu
+        group.add(new TestCommand("third"));
+        assertEquals(3, menu.getMenuComponentCount());
+    }
+
+    public void testEagerByDefault() {
+        CommandGroup group = new CommandGroup("group");
+        group.add(new TestCommand("first"));
+
+        JMenu menu = (JMenu) group.createMenuItem();
+        assertFalse(LazyMenuPopulator.isPending(menu));
+        assertEquals(1, menu.getMenuComponentCount());
+    }
+}
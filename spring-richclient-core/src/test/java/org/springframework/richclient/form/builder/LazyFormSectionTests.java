@@ -0,0 +1,83 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.form.builder;
+
+import java.awt.Dimension;
+
+import javax.swing.JComponent;
+import javax.swing.JTextField;
+
+import org.springframework.binding.form.FormModel;
+import org.springframework.binding.form.support.DefaultFormModel;
+import org.springframework.richclient.test.SpringRichTestCase;
+
+/**
+ * Tests class {@link LazyFormSection}.
+ */
+public class LazyFormSectionTests extends SpringRichTestCase {
+
+	private FormModel formModel;
+
+	protected void doSetUp() throws Exception {
+		formModel = new DefaultFormModel(new TestBean());
+	}
+
+	public void testFieldsAreAddedBeforeCreation() {
+		CountingSection section = new CountingSection(formModel);
+
+		assertFalse(section.isCreated());
+		assertEquals(0, section.count);
+		assertTrue(formModel.hasValueModel("property"));
+		assertEquals(0, section.getComponent().getComponentCount());
+		assertEquals(new Dimension(0, LazyFormSection.DEFAULT_ROW_HEIGHT), section.getComponent().getPreferredSize());
+	}
+
+	public void testContentIsCreatedOnce() {
+		CountingSection section = new CountingSection(formModel);
+
+		section.ensureCreated();
+		section.ensureCreated();
+
+		assertTrue(section.isCreated());
+		assertEquals(1, section.count);
+		assertSame(section.content, section.getComponent().getComponent(0));
+		assertEquals(section.content.getPreferredSize(), section.getComponent().getPreferredSize());
+	}
+
+	public void testHiddenSectionIsNotCreated() {
+		CountingSection section = new CountingSection(formModel);
+		section.getComponent().setSize(100, 100);
+
+		assertFalse("section is not showing", section.isCreated());
+	}
+
+	private static class CountingSection extends LazyFormSection {
+
+		private int count;
+
+		private JComponent content;
+
+		CountingSection(FormModel formModel) {
+			super(formModel, new String[] { "property" });
+		}
+
+		protected JComponent createContent() {
+			count++;
+			content = new JTextField(20);
+			return content;
+		}
+	}
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.security.remoting;
+
+import junit.framework.TestCase;
+
+import org.springframework.remoting.httpinvoker.HttpInvokerClientConfiguration;
+import org.springframework.remoting.httpinvoker.HttpInvokerRequestExecutor;
+import org.springframework.remoting.support.RemoteInvocation;
+import org.springframework.remoting.support.RemoteInvocationResult;
+
+/**
+ * Tests batching against a {@link BatchingHttpInvokerServiceExporter}, called in-process
+ * by the request executor.
+ */
+public class BatchingHttpInvokerProxyFactoryBeanTests extends TestCase {
+
+    private BatchingHttpInvokerProxyFactoryBean factory;
+
+    private EchoService proxy;
+
+    private int requestCount;
+
+    protected void setUp() throws Exception {
+        final EchoService service = new EchoService() {
+            public Object echo(Object value) {
+                return value;
+            }
+
+            public int fail() {
+                throw new IllegalStateException( "failed" );
+            }
+        };
+        final BatchingHttpInvokerServiceExporter exporter = new BatchingHttpInvokerServiceExporter();
+        exporter.setService( service );
+        exporter.setServiceInterface( EchoService.class );
+        exporter.afterPropertiesSet();
+
+        factory = new BatchingHttpInvokerProxyFactoryBean();
+        factory.setServiceInterface( EchoService.class );
+        factory.setServiceUrl( "http://localhost/echo" );
+        factory.setHttpInvokerRequestExecutor( new HttpInvokerRequestExecutor() {
+            public RemoteInvocationResult executeRequest(HttpInvokerClientConfiguration config,
+                    RemoteInvocation invocation) {
+                synchronized( BatchingHttpInvokerProxyFactoryBeanTests.this ) {
+                    requestCount++;
+                }
+                return exporter.invokeAndCreateResult( invocation, service );
+            }
+        } );
+        factory.afterPropertiesSet();
+        proxy = (EchoService) factory.getObject();
+    }
+
+    public void testUnbatchedCalls() {
+        assertEquals( "a", proxy.echo( "a" ) );
+        assertEquals( "b", proxy.echo( "b" ) );
+        assertEquals( 2, requestCount );
+    }
+
+    public void testExecuteBatch() {
+        Object[] results = factory.executeBatch( new Runnable() {
+            public void run() {
+                assertNull( "Recorded calls return null", proxy.echo( "a" ) );
+                proxy.echo( "b" );
+                proxy.echo( "c" );
+            }
+        } );
+        assertEquals( 1, requestCount );
+        assertEquals( 3, results.length );
+        assertEquals( "a", results[0] );
+        assertEquals( "b", results[1] );
+        assertEquals( "c", results[2] );
+    }
+
+    public void testExecuteBatchWithFailure() {
+        try {
+            factory.executeBatch( new Runnable() {
+                public void run() {
+                    proxy.echo( "a" );
+                    assertEquals( "Primitive default value", 0, proxy.fail() );
+                }
+            } );
+            fail( "Should rethrow the remote exception" );
+        } catch( IllegalStateException e ) {
+            assertEquals( "failed", e.getMessage() );
+        }
+        assertEquals( 1, requestCount );
+    }
+
+    public void testObjectMethodsAreNotRecorded() {
+        Object[] results = factory.executeBatch( new Runnable() {
+            public void run() {
+                proxy.echo( "a" );
+                assertTrue( proxy.equals( proxy ) );
+                assertFalse( proxy.equals( "a" ) );
+                assertEquals( System.identityHashCode( proxy ), proxy.hashCode() );
+                assertNotNull( proxy.toString() );
+            }
+        } );
+        assertEquals( 1, requestCount );
+        assertEquals( 1, results.length );
+        assertEquals( "a", results[0] );
+    }
+
+    public void testBatchWindow() throws Exception {
+        factory.setBatchWindow( 200 );
+        Thread[] threads = new Thread[5];
+        final Object[] results = new Object[threads.length];
+        for( int i = 0; i < threads.length; i++ ) {
+            final int index = i;
+            threads[i] = new Thread() {
+                public void run() {
+                    results[index] = proxy.echo( new Integer( index ) );
+                }
+            };
+            threads[i].start();
+        }
+        for( int i = 0; i < threads.length; i++ ) {
+            threads[i].join();
+        }
+        for( int i = 0; i < threads.length; i++ ) {
+            assertEquals( new Integer( i ), results[i] );
+        }
+        assertTrue( "Calls should be batched", requestCount < threads.length );
+    }
+
+    public void testMaxBatchSize() throws Exception {
+        factory.setBatchWindow( 60000 );
+        factory.setMaxBatchSize( 2 );
+        Thread other = new Thread() {
+            public void run() {
+                proxy.echo( "a" );
+            }
+        };
+        other.start();
+        // Completes the batch, so neither call waits for the window
+        Thread.sleep( 100 );
+        assertEquals( "b", proxy.echo( "b" ) );
+        other.join( 5000 );
+        assertFalse( other.isAlive() );
+        assertEquals( 1, requestCount );
+    }
+
+    public interface EchoService {
+        Object echo(Object value);
+
+        int fail();
+
+        // declared so calls reach the proxy's interceptor
+        boolean equals(Object other);
+
+        int hashCode();
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.security.remoting;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import junit.framework.TestCase;
+
+import org.springframework.remoting.httpinvoker.HttpInvokerClientConfiguration;
+import org.springframework.remoting.support.RemoteInvocation;
+import org.springframework.remoting.support.RemoteInvocationResult;
+import org.springframework.security.providers.TestingAuthenticationToken;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Runs the executor against an embedded HTTP server that echoes the first argument of
+ * each invocation.
+ */
+public class PooledHttpInvokerRequestExecutorTests extends TestCase {
+
+    private HttpServer server;
+
+    private PooledHttpInvokerRequestExecutor executor;
+
+    private HttpInvokerClientConfiguration config;
+
+    private String lastAuthorization;
+
+    private boolean lastRequestCompressed;
+
+    protected void setUp() throws Exception {
+        server = HttpServer.create( new InetSocketAddress( "localhost", 0 ), 0 );
+        server.createContext( "/echo", new EchoHandler() );
+        server.start();
+
+        final String url = "http://localhost:" + server.getAddress().getPort() + "/echo";
+        config = new HttpInvokerClientConfiguration() {
+            public String getServiceUrl() {
+                return url;
+            }
+
+            public String getCodebaseUrl() {
+                return null;
+            }
+        };
+        executor = new PooledHttpInvokerRequestExecutor();
+    }
+
+    protected void tearDown() throws Exception {
+        server.stop( 0 );
+    }
+
+    public void testInvocation() throws Exception {
+        assertEquals( "hello", invoke( "hello" ) );
+        assertFalse( lastRequestCompressed );
+        assertNull( lastAuthorization );
+
+        HttpInvokerMetrics metrics = executor.getMetrics();
+        assertEquals( 1, metrics.getRequestCount() );
+        assertEquals( 0, metrics.getFailureCount() );
+        assertTrue( metrics.getBytesSent() > 0 );
+        assertTrue( metrics.getBytesReceived() > 0 );
+    }
+
+    public void testCompressedRequest() throws Exception {
+        executor.setCompressRequest( true );
+        StringBuffer value = new StringBuffer();
+        for( int i = 0; i < 1000; i++ ) {
+            value.append( "compressible " );
+        }
+        assertEquals( value.toString(), invoke( value.toString() ) );
+        assertTrue( lastRequestCompressed );
+        assertTrue( "Request should be compressed", executor.getMetrics().getBytesSent() < value.length() );
+    }
+
+    public void testAuthorizationHeader() throws Exception {
+        executor.setAuthenticationToken( new TestingAuthenticationToken( "user", "secret" ) );
+        invoke( "a" );
+        assertEquals( "Basic dXNlcjpzZWNyZXQ=", lastAuthorization );
+
+        executor.setAuthenticationToken( new TestingAuthenticationToken( "other", "secret" ) );
+        invoke( "b" );
+        assertEquals( "Basic b3RoZXI6c2VjcmV0", lastAuthorization );
+
+        executor.setAuthenticationToken( null );
+        invoke( "c" );
+        assertNull( lastAuthorization );
+    }
+
+    public void testConcurrentInvocations() throws Exception {
+        executor.setMaxConnections( 2 );
+        Thread[] threads = new Thread[4];
+        final Throwable[] failure = new Throwable[1];
+        for( int i = 0; i < threads.length; i++ ) {
+            final String value = "value" + i;
+            threads[i] = new Thread() {
+                public void run() {
+                    try {
+                        for( int j = 0; j < 10; j++ ) {
+                            assertEquals( value, invoke( value ) );
+                        }
+                    } catch( Throwable t ) {
+                        failure[0] = t;
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for( int i = 0; i < threads.length; i++ ) {
+            threads[i].join();
+        }
+        assertNull( failure[0] );
+        assertEquals( 40, executor.getMetrics().getRequestCount() );
+    }
+
+    private Object invoke(Object argument) throws Exception {
+        RemoteInvocation invocation = new RemoteInvocation( "echo", new Class[] { Object.class },
+                new Object[] { argument } );
+        RemoteInvocationResult result = executor.executeRequest( config, invocation );
+        return result.recreate();
+    }
+
+    private class EchoHandler implements HttpHandler {
+        public void handle(HttpExchange exchange) throws IOException {
+            lastAuthorization = exchange.getRequestHeaders().getFirst( "Authorization" );
+            lastRequestCompressed = "gzip".equals( exchange.getRequestHeaders().getFirst( "Content-Encoding" ) );
+
+            InputStream in = exchange.getRequestBody();
+            if( lastRequestCompressed ) {
+                in = new GZIPInputStream( in );
+            }
+            RemoteInvocation invocation;
+            try {
+                invocation = (RemoteInvocation) new ObjectInputStream( in ).readObject();
+            } catch( ClassNotFoundException e ) {
+                throw new IOException( e.getMessage() );
+            }
+
+            boolean compress = "gzip".equals( exchange.getRequestHeaders().getFirst( "Accept-Encoding" ) );
+            if( compress ) {
+                exchange.getResponseHeaders().set( "Content-Encoding", "gzip" );
+            }
+            exchange.sendResponseHeaders( 200, 0 );
+            OutputStream out = exchange.getResponseBody();
+            if( compress ) {
+                out = new GZIPOutputStream( out );
+            }
+            ObjectOutputStream oos = new ObjectOutputStream( out );
+            oos.writeObject( new RemoteInvocationResult( invocation.getArguments()[0] ) );
+            oos.close();
+        }
+    }
+}
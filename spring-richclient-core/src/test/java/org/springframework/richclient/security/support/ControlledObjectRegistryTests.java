@@ -0,0 +1,77 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.security.support;
+
+import java.util.List;
+
+import junit.framework.TestCase;
+
+public class ControlledObjectRegistryTests extends TestCase {
+
+    private ControlledObjectRegistry registry;
+
+    protected void setUp() throws Exception {
+        registry = new ControlledObjectRegistry();
+    }
+
+    public void testAddAndRemove() {
+        Object a = new Object();
+        Object b = new Object();
+        assertTrue( registry.add( a ) );
+        assertTrue( registry.add( b ) );
+        assertFalse( "Object already registered", registry.add( a ) );
+        assertEquals( 2, registry.getLiveCount() );
+        assertEquals( 0, registry.getStaleCount() );
+
+        assertTrue( registry.remove( a ) );
+        assertFalse( registry.remove( a ) );
+
+        List live = registry.getLiveObjects();
+        assertEquals( 1, live.size() );
+        assertSame( b, live.get( 0 ) );
+        assertEquals( 1, registry.getLiveCount() );
+        assertEquals( 0, registry.getStaleCount() );
+    }
+
+    public void testComparesByIdentity() {
+        String a = new String( "a" );
+        String b = new String( "a" );
+        registry.add( a );
+        assertTrue( "Equal object should be added", registry.add( b ) );
+        assertFalse( "Equal object should not be removed", registry.remove( new String( "a" ) ) );
+        assertEquals( 2, registry.getLiveCount() );
+    }
+
+    public void testCollectedObjectsAreNotReturned() {
+        Object live = new Object();
+        registry.add( live );
+        for( int i = 0; i < 10; i++ ) {
+            registry.add( new Object() );
+        }
+
+        // when, or whether, the garbage collector clears the other objects is up to the
+        // VM, so only what holds either way is checked
+        System.gc();
+        List liveObjects = registry.getLiveObjects();
+        assertTrue( liveObjects.contains( live ) );
+        assertTrue( registry.getLiveCount() >= 1 );
+        assertTrue( registry.getLiveCount() <= liveObjects.size() );
+        assertTrue( registry.getStaleCount() >= 0 );
+        for( int i = 0; i < liveObjects.size(); i++ ) {
+            assertNotNull( liveObjects.get( i ) );
+        }
+    }
+}
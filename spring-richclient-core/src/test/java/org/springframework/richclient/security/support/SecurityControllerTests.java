@@ -147,6 +147,58 @@ public class SecurityControllerTests extends TestCase {
         assertTrue( "Object should not be updated", a.getAuthCount() == 0 );
     }
 
+    /**
+     * Test that cached decisions are reused for the same token only.
+     */
+    public void testDecisionCache() {
+        AuthorizationDecisionCache cache = new AuthorizationDecisionCache();
+        controller.setDecisionCache( cache );
+        accessDecisionManager.setDecisionValue( true );
+
+        TestingAuthenticationToken token = new TestingAuthenticationToken( "USER2", "FOO" );
+        controller.setAuthenticationToken( token );
+        assertEquals( 1, cache.size() );
+
+        // A changed decision is not seen while the token is the same
+        accessDecisionManager.setDecisionValue( false );
+        TestAuthorizable a = new TestAuthorizable( false );
+        controller.addControlledObject( a );
+        assertTrue( "Cached decision should be used", a.isAuthorized() );
+
+        // A new token is evaluated again
+        controller.setAuthenticationToken( new TestingAuthenticationToken( "USER2", "FOO" ) );
+        assertFalse( "Object should not be authorized", a.isAuthorized() );
+        assertEquals( 1, cache.size() );
+    }
+
+    /**
+     * Test that controllers sharing a cache don't share the decisions of different
+     * access decision managers.
+     */
+    public void testDecisionCacheSeparatesAccessDecisionManagers() {
+        AuthorizationDecisionCache cache = new AuthorizationDecisionCache();
+        controller.setDecisionCache( cache );
+        accessDecisionManager.setDecisionValue( true );
+
+        TestAccessDecisionManager otherAccessDecisionManager = new TestAccessDecisionManager();
+        otherAccessDecisionManager.setDecisionValue( false );
+        TestAbstractSecurityController other = new TestAbstractSecurityController();
+        other.setAccessDecisionManager( otherAccessDecisionManager );
+        other.setDecisionCache( cache );
+
+        TestAuthorizable a = new TestAuthorizable( false );
+        TestAuthorizable b = new TestAuthorizable( true );
+        controller.addControlledObject( a );
+        other.addControlledObject( b );
+
+        TestingAuthenticationToken token = new TestingAuthenticationToken( "USER2", "FOO" );
+        controller.setAuthenticationToken( token );
+        other.setAuthenticationToken( token );
+        assertTrue( "Object should be authorized", a.isAuthorized() );
+        assertFalse( "Object should not be authorized", b.isAuthorized() );
+        assertEquals( 2, cache.size() );
+    }
+
     /**
      * Concrete implementation under test.
      */
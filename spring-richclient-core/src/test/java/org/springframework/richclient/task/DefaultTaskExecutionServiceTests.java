@@ -0,0 +1,123 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.task;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.SwingUtilities;
+
+import junit.framework.TestCase;
+
+public class DefaultTaskExecutionServiceTests extends TestCase {
+
+    private DefaultTaskExecutionService service;
+
+    protected void setUp() throws Exception {
+        service = new DefaultTaskExecutionService();
+    }
+
+    protected void tearDown() throws Exception {
+        service.destroy();
+    }
+
+    public void testCallbackOnEventDispatchThread() throws Exception {
+        final Object[] outcome = new Object[2];
+        final CountDownLatch latch = new CountDownLatch( 1 );
+        service.submit( new Callable() {
+            public Object call() {
+                return "result";
+            }
+        }, new TaskCallback() {
+            public void onSuccess(Object result) {
+                outcome[0] = result;
+                outcome[1] = Boolean.valueOf( SwingUtilities.isEventDispatchThread() );
+                latch.countDown();
+            }
+
+            public void onFailure(Throwable cause) {
+                outcome[0] = cause;
+                latch.countDown();
+            }
+        } );
+        assertTrue( latch.await( 5, TimeUnit.SECONDS ) );
+        assertEquals( "result", outcome[0] );
+        assertEquals( Boolean.TRUE, outcome[1] );
+        assertEquals( 1, service.getMetrics().getCompletedCount() );
+    }
+
+    public void testHigherPriorityRunsFirst() throws Exception {
+        service.setCpuPoolSize( 1 );
+        final CountDownLatch blocker = new CountDownLatch( 1 );
+        final List order = Collections.synchronizedList( new ArrayList() );
+
+        // occupy the only thread, so the other tasks are queued
+        service.submit( new Callable() {
+            public Object call() throws Exception {
+                blocker.await();
+                return null;
+            }
+        }, TaskExecutionService.CPU_TASK, TaskExecutionService.NORMAL_PRIORITY, null );
+        Future low = service.submit( new RecordingTask( order, "low" ), TaskExecutionService.CPU_TASK,
+                TaskExecutionService.LOW_PRIORITY, null );
+        Future high = service.submit( new RecordingTask( order, "high" ), TaskExecutionService.CPU_TASK,
+                TaskExecutionService.HIGH_PRIORITY, null );
+        assertEquals( 2, service.getQueueSize() );
+
+        blocker.countDown();
+        low.get( 5, TimeUnit.SECONDS );
+        high.get( 5, TimeUnit.SECONDS );
+        assertEquals( "high", order.get( 0 ) );
+        assertEquals( "low", order.get( 1 ) );
+    }
+
+    public void testFailureIsCounted() throws Exception {
+        Future future = service.submit( new Callable() {
+            public Object call() throws Exception {
+                throw new IllegalStateException( "test" );
+            }
+        }, null );
+        try {
+            future.get( 5, TimeUnit.SECONDS );
+            fail( "Should have thrown ExecutionException" );
+        } catch( java.util.concurrent.ExecutionException e ) {
+            // expected
+        }
+        assertEquals( 1, service.getMetrics().getSubmittedCount() );
+        assertEquals( 1, service.getMetrics().getFailedCount() );
+    }
+
+    private static class RecordingTask implements Callable {
+        private final List order;
+
+        private final String name;
+
+        RecordingTask(List order, String name) {
+            this.order = order;
+            this.name = name;
+        }
+
+        public Object call() {
+            order.add( name );
+            return name;
+        }
+    }
+}
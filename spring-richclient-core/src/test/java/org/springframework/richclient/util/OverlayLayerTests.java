@@ -0,0 +1,166 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.util;
+
+import java.awt.GridLayout;
+
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+import javax.swing.JLayeredPane;
+import javax.swing.JPanel;
+import javax.swing.JRootPane;
+import javax.swing.JTextField;
+import javax.swing.SwingUtilities;
+
+import org.springframework.richclient.test.SpringRichTestCase;
+
+/**
+ * Tests class {@link OverlayLayer}.
+ */
+public class OverlayLayerTests extends SpringRichTestCase {
+
+    private static final int FIELD_COUNT = 50;
+
+    private JRootPane rootPane;
+
+    private int paletteCount;
+
+    protected void doSetUp() throws Exception {
+        rootPane = new JRootPane() {
+            public boolean isVisible() {
+                return true;
+            }
+
+            public boolean isShowing() {
+                return true;
+            }
+
+            protected JLayeredPane createLayeredPane() {
+                return new JLayeredPane() {
+                    public boolean isVisible() {
+                        return true;
+                    }
+
+                    public boolean isShowing() {
+                        return true;
+                    }
+                };
+            }
+        };
+        rootPane.setSize(400, 1000);
+        paletteCount = getPaletteCount();
+    }
+
+    protected void doTearDown() throws Exception {
+        OverlayHelper.setSharedOverlayLayer(false);
+    }
+
+    public void testOverlaysShareTheLayerOfTheirWindow() throws Exception {
+        OverlayHelper.setSharedOverlayLayer(true);
+        JPanel form = new JPanel(new GridLayout(FIELD_COUNT, 1));
+        for (int i = 0; i < FIELD_COUNT; i++) {
+            JComponent field = createTestComponent();
+            OverlayHelper.attachOverlay(createTestOverlay(), field, OverlayHelper.NORTH_WEST, 0, 0);
+            form.add(field);
+        }
+
+        rootPane.getContentPane().add(form);
+        waitForUpdate();
+
+        OverlayLayer layer = OverlayLayer.getOverlayLayer(rootPane);
+        assertEquals(FIELD_COUNT, layer.getOverlayCount());
+        assertEquals(paletteCount + FIELD_COUNT, getPaletteCount());
+
+        rootPane.getContentPane().remove(form);
+        waitForUpdate();
+
+        assertEquals(0, layer.getOverlayCount());
+        assertEquals(paletteCount, getPaletteCount());
+    }
+
+    public void testOverlayFollowsItsTarget() throws Exception {
+        JComponent field = createTestComponent();
+        JComponent overlay = createTestOverlay();
+        OverlayLayer.attachOverlay(overlay, field, OverlayHelper.NORTH_WEST, 0, 0);
+        rootPane.getContentPane().setLayout(null);
+        rootPane.getContentPane().add(field);
+        field.setBounds(10, 10, 100, 20);
+        waitForUpdate();
+
+        JComponent clipper = (JComponent) overlay.getParent();
+        int x = clipper.getX();
+
+        field.setLocation(60, 10);
+        waitForUpdate();
+
+        assertEquals(x + 50, clipper.getX());
+    }
+
+    public void testOverlaysAreNotSharedByDefault() throws Exception {
+        JComponent field = createTestComponent();
+        OverlayHelper.attachOverlay(createTestOverlay(), field, OverlayHelper.NORTH_WEST, 0, 0);
+        rootPane.getContentPane().add(field);
+        waitForUpdate();
+
+        assertEquals(paletteCount + 1, getPaletteCount());
+        assertEquals(0, OverlayLayer.getOverlayLayer(rootPane).getOverlayCount());
+    }
+
+    private int getPaletteCount() {
+        return rootPane.getLayeredPane().getComponentCountInLayer(JLayeredPane.PALETTE_LAYER.intValue());
+    }
+
+    private void waitForUpdate() throws Exception {
+        // events posted by the components are handled before the update, so
+        // wait twice
+        SwingUtilities.invokeAndWait(new Runnable() {
+            public void run() {
+            }
+        });
+        SwingUtilities.invokeAndWait(new Runnable() {
+            public void run() {
+            }
+        });
+    }
+
+    private JComponent createTestComponent() {
+        return new JTextField("Hello, world!") {
+            // This is to force the overlay to be installed, even though we
+            // don't have a UI visible.
+            public boolean isVisible() {
+                return true;
+            }
+
+            public boolean isShowing() {
+                return true;
+            }
+        };
+    }
+
+    private JComponent createTestOverlay() {
+        final JComponent overlay = new JLabel("x") {
+            public boolean isVisible() {
+                return true;
+            }
+
+            public boolean isShowing() {
+                return true;
+            }
+        };
+        overlay.setOpaque(false);
+        return overlay;
+    }
+}
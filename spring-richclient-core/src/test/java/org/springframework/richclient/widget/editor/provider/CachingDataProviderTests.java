@@ -0,0 +1,197 @@
+package org.springframework.richclient.widget.editor.provider;
+
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Observable;
+
+import junit.framework.TestCase;
+
+import org.springframework.richclient.util.ResultCache;
+
+public class CachingDataProviderTests extends TestCase
+{
+    private TestDataProvider delegate;
+
+    private CachingDataProvider provider;
+
+    protected void setUp() throws Exception
+    {
+        delegate = new TestDataProvider();
+        provider = new CachingDataProvider(delegate);
+    }
+
+    public void testListIsCachedPerCriteria()
+    {
+        List first = provider.getList("a");
+        assertEquals(first, provider.getList("a"));
+        assertEquals(1, delegate.listCount);
+
+        provider.getList("b");
+        provider.getList(null);
+        provider.getList(null);
+        assertEquals(3, delegate.listCount);
+
+        ResultCache cache = provider.getCache();
+        assertEquals(2, cache.getHitCount());
+        assertEquals(3, cache.getMissCount());
+    }
+
+    public void testCriteriaEditedInPlace()
+    {
+        Criteria criteria = new Criteria();
+        criteria.name = "a";
+        provider.getList(criteria);
+        criteria.name = "b";
+        provider.getList(criteria);
+        assertEquals("edited criteria must not hit the cache", 2, delegate.listCount);
+
+        criteria.name = "a";
+        provider.getList(criteria);
+        assertEquals(2, delegate.listCount);
+    }
+
+    public void testUnserializableCriteriaAreNotCached()
+    {
+        Object criteria = new Object();
+        provider.getList(criteria);
+        provider.getList(criteria);
+        assertEquals(2, delegate.listCount);
+        assertEquals(0, provider.getCache().size());
+    }
+
+    public void testCriteriaFailingToSerializeAreNotCached()
+    {
+        Object criteria = new FailingCriteria();
+        provider.getList(criteria);
+        provider.getList(criteria);
+        assertEquals(2, delegate.listCount);
+        assertEquals(0, provider.getCache().size());
+    }
+
+    public void testCachedListIsCopied()
+    {
+        List first = provider.getList("a");
+        first.clear();
+        List second = provider.getList("a");
+        assertNotSame(first, second);
+        assertEquals(1, second.size());
+        assertEquals(1, delegate.listCount);
+    }
+
+    public void testForceLoadBypassesCache()
+    {
+        provider.getDetailObject("a", false);
+        provider.getDetailObject("a", false);
+        assertEquals(1, delegate.detailCount);
+
+        provider.getDetailObject("a", true);
+        assertEquals(2, delegate.detailCount);
+    }
+
+    public void testInvalidatedOnDelegateEvent()
+    {
+        final List events = new ArrayList();
+        provider.addDataProviderListener(new DataProviderListener()
+        {
+            public void update(Observable o, Object arg)
+            {
+                // the cache must be invalidated before listeners refresh
+                assertEquals(0, provider.getCache().size());
+                events.add(arg);
+            }
+        });
+
+        provider.getList("a");
+        delegate.create("new");
+        assertEquals(1, events.size());
+
+        provider.getList("a");
+        assertEquals(2, delegate.listCount);
+    }
+
+    public void testTimeToLiveAndSize() throws Exception
+    {
+        provider.getCache().setTimeToLive(50);
+        provider.getList("a");
+        Thread.sleep(100);
+        provider.getList("a");
+        assertEquals(2, delegate.listCount);
+        assertEquals(1, provider.getCache().getExpirationCount());
+
+        provider.getCache().setMaxSize(2);
+        provider.getList("b");
+        provider.getList("c");
+        assertEquals(2, provider.getCache().size());
+        assertEquals(1, provider.getCache().getEvictionCount());
+    }
+
+    private static class Criteria implements Serializable
+    {
+        String name;
+    }
+
+    private static class FailingCriteria implements Serializable
+    {
+        private void writeObject(ObjectOutputStream out)
+        {
+            throw new IllegalStateException("cannot be serialized");
+        }
+    }
+
+    private static class TestDataProvider extends AbstractDataProvider
+    {
+        int listCount;
+
+        int detailCount;
+
+        public List getList(Object criteria)
+        {
+            listCount++;
+            return Collections.singletonList(criteria);
+        }
+
+        protected Object loadDetailObject(Object baseObject)
+        {
+            detailCount++;
+            return "detail of " + baseObject;
+        }
+
+        protected boolean isDetailObject(Object objectToCheck)
+        {
+            return false;
+        }
+
+        public Object doCreate(Object newData)
+        {
+            return newData;
+        }
+
+        public boolean supportsFiltering()
+        {
+            return false;
+        }
+
+        public boolean supportsUpdate()
+        {
+            return false;
+        }
+
+        public boolean supportsCreate()
+        {
+            return true;
+        }
+
+        public boolean supportsClone()
+        {
+            return false;
+        }
+
+        public boolean supportsDelete()
+        {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.rules.constraint;
+
+import junit.framework.TestCase;
+
+/**
+ * Testcase for Like
+ */
+public class LikeTests extends TestCase {
+
+	public void testSimpleLikeStrings() {
+		Like startsWith = new Like("abc%");
+		assertEquals(Like.STARTS_WITH, startsWith.getType());
+		assertTrue(startsWith.test("abcdef"));
+		assertFalse(startsWith.test("xabc"));
+
+		Like endsWith = new Like("%abc");
+		assertEquals(Like.ENDS_WITH, endsWith.getType());
+		assertTrue(endsWith.test("xyzabc"));
+		assertFalse(endsWith.test("abcx"));
+
+		Like contains = new Like("%abc%");
+		assertEquals(Like.CONTAINS, contains.getType());
+		assertEquals("abc", contains.getString());
+		assertTrue(contains.test("xabcx"));
+		assertFalse(contains.test("xabx"));
+	}
+
+	public void testInnerWildcardsAreMatchedAsPattern() {
+		Like like = new Like("a%c");
+		assertEquals(Like.MATCHES, like.getType());
+		assertTrue(like.test("abc"));
+		assertTrue(like.test("ac"));
+		assertFalse(like.test("abcd"));
+		assertFalse(like.test("xabc"));
+
+		Like open = new Like("%a.b%c%");
+		assertTrue(open.test("xxa.byyczz"));
+		assertFalse("regex characters must be matched literally", open.test("xxaxbyyczz"));
+	}
+
+	public void testOnlyWildcardsMatchEverything() {
+		assertTrue(new Like("%").test("anything"));
+		assertTrue(new Like("%%").test("anything"));
+	}
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.rules.support;
+
+import java.util.regex.Pattern;
+
+import junit.framework.TestCase;
+
+/**
+ * Testcase for PatternCache
+ */
+public class PatternCacheTests extends TestCase {
+
+	public void testPatternsAreShared() {
+		PatternCache cache = new PatternCache();
+		Pattern pattern = cache.getPattern("[a-z]+");
+		assertSame(pattern, cache.getPattern("[a-z]+"));
+		assertNotSame(pattern, cache.getPattern("[a-z]+", Pattern.CASE_INSENSITIVE));
+		assertEquals(2, cache.size());
+	}
+
+	public void testLeastRecentlyUsedPatternIsEvicted() {
+		PatternCache cache = new PatternCache(2);
+		Pattern a = cache.getPattern("a");
+		cache.getPattern("b");
+		cache.getPattern("a");
+		cache.getPattern("c");
+		assertEquals(2, cache.size());
+		assertSame("recently used pattern must be kept", a, cache.getPattern("a"));
+	}
+}
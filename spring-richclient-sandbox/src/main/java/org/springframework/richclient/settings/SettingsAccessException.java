@@ -0,0 +1,12 @@
+package org.springframework.richclient.settings;
+
+/**
+ * Unchecked counterpart of {@link SettingsException}, thrown when a value
+ * cannot be written to or removed from the underlying store by methods that
+ * cannot throw checked exceptions.
+ */
+public class SettingsAccessException extends RuntimeException {
+	public SettingsAccessException(String msg, Throwable cause) {
+		super(msg, cause);
+	}
+}
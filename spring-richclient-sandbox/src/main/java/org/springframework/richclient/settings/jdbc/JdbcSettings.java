@@ -30,6 +30,13 @@ import org.springframework.richclient.settings.AbstractSettings;
 import org.springframework.richclient.settings.Settings;
 
 /**
+ * <code>Settings</code> stored in the <code>SETTINGS</code> and
+ * <code>SETTINGS_VALUES</code> tables.
+ * <p>
+ * By default <code>save()</code> writes the changes immediately. When a
+ * <code>JdbcSettingsWriter</code> is set, <code>save()</code> only marks the
+ * settings as dirty and the writer flushes all dirty settings in one batched
+ * transaction.
  * 
  * @author Peter De Bruycker
  */
@@ -46,6 +53,9 @@ public class JdbcSettings extends AbstractSettings {
 
     private String[] childKeys;
 
+    private JdbcSettingsNode node;
+    private JdbcSettingsWriter writer;
+
     public JdbcSettings( DataSource ds, String user, Integer id, String key ) {
         this( null, ds, user, id, key );
     }
@@ -61,6 +71,32 @@ public class JdbcSettings extends AbstractSettings {
         this.user = user;
     }
 
+    /**
+     * Creates settings from a preloaded node; values and child settings are
+     * taken from the node instead of being queried.
+     */
+    JdbcSettings( JdbcSettings parent, DataSource ds, String user, JdbcSettingsNode node, JdbcSettingsWriter writer ) {
+        this( parent, ds, user, node.getId(), node.getKey() );
+        this.node = node;
+        this.writer = writer;
+        values.putAll( node.getValues() );
+    }
+
+    /**
+     * Sets the writer used for write-behind persistence. If <code>null</code>,
+     * changes are written immediately on <code>save()</code>. Child settings
+     * created afterwards inherit the writer.
+     * 
+     * @param writer the writer
+     */
+    public void setWriter( JdbcSettingsWriter writer ) {
+        this.writer = writer;
+    }
+
+    public JdbcSettingsWriter getWriter() {
+        return writer;
+    }
+
     protected boolean internalContains( String key ) {
         return values.containsKey( key );
     }
@@ -73,10 +109,16 @@ public class JdbcSettings extends AbstractSettings {
     }
 
     protected Settings internalCreateChild( String key ) {
-        return new JdbcSettings( this, dataSource, user, null, key );
+        JdbcSettingsNode childNode = node == null ? null : node.getChild( key );
+        if( childNode != null ) {
+            return new JdbcSettings( this, dataSource, user, childNode, writer );
+        }
+        JdbcSettings child = new JdbcSettings( this, dataSource, user, null, key );
+        child.setWriter( writer );
+        return child;
     }
 
-    protected void internalSet( String key, String value ) {
+    protected synchronized void internalSet( String key, String value ) {
         boolean isNew = !values.containsKey( key ) || add.contains( key );
 
         values.put( key, value );
@@ -93,7 +135,7 @@ public class JdbcSettings extends AbstractSettings {
         return (String) values.get( key );
     }
 
-    protected void internalRemove( String key ) {
+    protected synchronized void internalRemove( String key ) {
         values.remove( key );
 
         if( !add.contains( key ) ) {
@@ -112,7 +154,16 @@ public class JdbcSettings extends AbstractSettings {
         return id;
     }
 
+    void setId( Integer id ) {
+        this.id = id;
+    }
+
     public void save() throws IOException {
+        if( writer != null ) {
+            writer.markDirty( this );
+            return;
+        }
+
         if( getParent() != null ) {
             getParent().save();
         }
@@ -122,30 +173,85 @@ public class JdbcSettings extends AbstractSettings {
         // if this is a new node, insert it
         if( id == null ) {
             JdbcSettings parent = (JdbcSettings) getParent();
-            template.update( "INSERT INTO SETTINGS (KEY, PARENT, USER) VALUES (?, ?, ?)", new Object[] { getName(),
-                    parent == null ? null : parent.getId(), user } );
-            id = Integer.valueOf( template.queryForInt( "SELECT MAX(ID) FROM SETTINGS" ) );
-        } else {
-            for( Iterator iter = remove.iterator(); iter.hasNext(); ) {
-                String key = (String) iter.next();
-                template.update( "REMOVE FROM SETTINGS_VALUES WHERE SETTINGS_ID=? AND KEY=?", new Object[] { id, key } );
-            }
-            for( Iterator iter = update.iterator(); iter.hasNext(); ) {
-                String key = (String) iter.next();
-                template.update( "UPDATE SETTINGS_VALUES SET VALUE=? WHERE SETTINGS_ID=? AND KEY=?", new Object[] {
-                        values.get( key ), id, key } );
-            }
+            id = insert( template, parent == null ? null : parent.getId() );
         }
 
-        for( Iterator iter = add.iterator(); iter.hasNext(); ) {
+        Changes changes = takeChanges();
+        for( Iterator iter = changes.getRemoved().iterator(); iter.hasNext(); ) {
+            String key = (String) iter.next();
+            template.update( JdbcSettingsWriter.DELETE_VALUE_SQL, new Object[] { id, key } );
+        }
+        for( Iterator iter = changes.getUpdated().iterator(); iter.hasNext(); ) {
             String key = (String) iter.next();
-            template.update( "INSERT INTO SETTINGS_VALUES (SETTINGS_ID, KEY, VALUE) VALUES (?, ?, ?)", new Object[] {
-                    id, key, values.get( key ) } );
+            template.update( JdbcSettingsWriter.UPDATE_VALUE_SQL, new Object[] { changes.getValue( key ), id, key } );
+        }
+        for( Iterator iter = changes.getAdded().iterator(); iter.hasNext(); ) {
+            String key = (String) iter.next();
+            template.update( JdbcSettingsWriter.INSERT_VALUE_SQL, new Object[] { id, key, changes.getValue( key ) } );
+        }
+    }
+
+    /**
+     * Inserts the record for this settings node.
+     * <p>
+     * The generated id is looked up by user, parent and key, which identify the
+     * node, so records inserted concurrently for other nodes or users are never
+     * picked up. Generated keys are not used, as not all drivers support them.
+     * 
+     * @return the generated id
+     */
+    Integer insert( JdbcTemplate template, Integer parentId ) {
+        template.update( "INSERT INTO SETTINGS (KEY, PARENT, USER) VALUES (?, ?, ?)", new Object[] { getName(),
+                parentId, user } );
+        if( parentId == null ) {
+            return Integer.valueOf( template.queryForInt(
+                    "SELECT MAX(ID) FROM SETTINGS WHERE KEY=? AND PARENT IS NULL AND USER=?", new Object[] {
+                            getName(), user } ) );
         }
+        return Integer.valueOf( template.queryForInt(
+                "SELECT MAX(ID) FROM SETTINGS WHERE KEY=? AND PARENT=? AND USER=?", new Object[] { getName(),
+                        parentId, user } ) );
+    }
 
-        remove.clear();
-        update.clear();
-        add.clear();
+    /**
+     * Returns the pending changes and resets the change tracking.
+     */
+    synchronized Changes takeChanges() {
+        Changes changes = new Changes( remove, update, add, values );
+        remove = new HashSet();
+        update = new HashSet();
+        add = new HashSet();
+        return changes;
+    }
+
+    /**
+     * Merges changes that could not be written back into the change tracking,
+     * so they are written with the next save. Changes made in the meantime take
+     * precedence.
+     */
+    synchronized void restoreChanges( Changes changes ) {
+        for( Iterator iter = changes.getAdded().iterator(); iter.hasNext(); ) {
+            String key = (String) iter.next();
+            if( update.remove( key ) ) {
+                add.add( key );
+            } else if( !remove.remove( key ) && !add.contains( key ) ) {
+                add.add( key );
+            }
+        }
+        for( Iterator iter = changes.getUpdated().iterator(); iter.hasNext(); ) {
+            String key = (String) iter.next();
+            if( add.remove( key ) || !remove.contains( key ) ) {
+                update.add( key );
+            }
+        }
+        for( Iterator iter = changes.getRemoved().iterator(); iter.hasNext(); ) {
+            String key = (String) iter.next();
+            if( add.remove( key ) ) {
+                update.add( key );
+            } else if( !update.contains( key ) ) {
+                remove.add( key );
+            }
+        }
     }
 
     public void load() throws IOException {
@@ -163,8 +269,17 @@ public class JdbcSettings extends AbstractSettings {
     }
 
     private void loadChildKeys() {
+        if( node != null ) {
+            childKeys = node.getChildKeys();
+            return;
+        }
+        if( id == null ) {
+            childKeys = new String[0];
+            return;
+        }
         JdbcTemplate template = new JdbcTemplate( dataSource );
-        List keys = template.queryForList( "SELECT KEY FROM SETTINGS WHERE PARENT=" + id, String.class );
+        List keys = template.queryForList( "SELECT KEY FROM SETTINGS WHERE PARENT=?", new Object[] { id },
+                String.class );
 
         childKeys = (String[]) keys.toArray( new String[keys.size()] );
     }
@@ -174,10 +289,15 @@ public class JdbcSettings extends AbstractSettings {
     }
 
     public void internalRemoveSettings() {
+        if( writer != null ) {
+            // write pending changes first, so the records to delete exist
+            writer.flush();
+        }
         if( id != null ) {
             // first delete all children
-            for( int i = 0; i < childKeys.length; i++ ) {
-                getSettings(childKeys[i]).removeSettings();
+            String[] children = internalGetChildSettings();
+            for( int i = 0; i < children.length; i++ ) {
+                getSettings(children[i]).removeSettings();
             }
 
             // now delete all values
@@ -190,9 +310,55 @@ public class JdbcSettings extends AbstractSettings {
             id = null;
         }
 
-        values.clear();
-        remove.clear();
-        add.clear();
-        update.clear();
+        synchronized( this ) {
+            values.clear();
+            remove.clear();
+            add.clear();
+            update.clear();
+        }
+    }
+
+    /**
+     * Snapshot of the changes of one settings node.
+     */
+    static class Changes {
+        private final Set removed;
+        private final Set updated;
+        private final Set added;
+        private final Map values = new HashMap();
+
+        Changes( Set removed, Set updated, Set added, Map currentValues ) {
+            this.removed = removed;
+            this.updated = updated;
+            this.added = added;
+            for( Iterator iter = updated.iterator(); iter.hasNext(); ) {
+                Object key = iter.next();
+                values.put( key, currentValues.get( key ) );
+            }
+            for( Iterator iter = added.iterator(); iter.hasNext(); ) {
+                Object key = iter.next();
+                values.put( key, currentValues.get( key ) );
+            }
+        }
+
+        Set getRemoved() {
+            return removed;
+        }
+
+        Set getUpdated() {
+            return updated;
+        }
+
+        Set getAdded() {
+            return added;
+        }
+
+        String getValue( String key ) {
+            return (String) values.get( key );
+        }
+
+        boolean isEmpty() {
+            return removed.isEmpty() && updated.isEmpty() && added.isEmpty();
+        }
     }
 }
@@ -16,10 +16,13 @@
 package org.springframework.richclient.settings.jdbc;
 
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
 
 import javax.sql.DataSource;
 
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.dao.IncorrectResultSizeDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -29,13 +32,32 @@ import org.springframework.richclient.settings.SettingsFactory;
 import org.springframework.util.Assert;
 
 /**
+ * <code>SettingsFactory</code> for <code>JdbcSettings</code>.
+ * <p>
+ * If <code>writeBehind</code> is enabled, the complete settings tree of the
+ * user is loaded once with a single query, the same root settings are returned
+ * for each key, and saved settings are written by a
+ * shared <code>JdbcSettingsWriter</code> in one batched transaction every
+ * <code>flushInterval</code> milliseconds and when the factory is destroyed.
+ * <p>
+ * The loaded tree is cached per user, so settings written to the database by
+ * others are not seen until {@link #clearCache()} is called.
  * 
  * @author Peter De Bruycker
  */
-public class JdbcSettingsFactory implements SettingsFactory, InitializingBean {
+public class JdbcSettingsFactory implements SettingsFactory, InitializingBean, DisposableBean {
+    public static final long DEFAULT_FLUSH_INTERVAL = 5000;
+
     private DataSource dataSource;
     private UserNameProvider userNameProvider;
 
+    private boolean writeBehind = false;
+    private long flushInterval = DEFAULT_FLUSH_INTERVAL;
+    private JdbcSettingsWriter writer;
+
+    // user -> (key -> root settings), only used with write-behind
+    private final Map rootSettings = new HashMap();
+
     public JdbcSettingsFactory() {
     }
 
@@ -51,6 +73,9 @@ public class JdbcSettingsFactory implements SettingsFactory, InitializingBean {
      * TODO: somehow make the key unique by adding a user name or login or something
      */
     public Settings createSettings( String key ) throws SettingsException {
+        if( writeBehind ) {
+            return createWriteBehindSettings( key );
+        }
         try {
             JdbcTemplate template = new JdbcTemplate( dataSource );
             Map result = template.queryForMap( "SELECT * FROM SETTINGS WHERE KEY=? AND USER=?", new Object[] { key,
@@ -67,6 +92,96 @@ public class JdbcSettingsFactory implements SettingsFactory, InitializingBean {
         }
     }
 
+    private synchronized Settings createWriteBehindSettings( String key ) {
+        String user = userNameProvider.getUser();
+        Map settingsByKey = (Map) rootSettings.get( user );
+        if( settingsByKey == null ) {
+            settingsByKey = new HashMap();
+            Map roots = JdbcSettingsNode.loadRoots( new JdbcTemplate( dataSource ), user );
+            for( Iterator iter = roots.values().iterator(); iter.hasNext(); ) {
+                JdbcSettingsNode node = (JdbcSettingsNode) iter.next();
+                settingsByKey.put( node.getKey(), new JdbcSettings( null, dataSource, user, node, getWriter() ) );
+            }
+            rootSettings.put( user, settingsByKey );
+        }
+
+        // settings created before are returned again, so pending changes are
+        // not lost and new settings are not inserted twice
+        JdbcSettings settings = (JdbcSettings) settingsByKey.get( key );
+        if( settings == null ) {
+            settings = new JdbcSettings( dataSource, user, null, key );
+            settings.setWriter( getWriter() );
+            settingsByKey.put( key, settings );
+        }
+        return settings;
+    }
+
+    private synchronized JdbcSettingsWriter getWriter() {
+        if( writer == null ) {
+            writer = new JdbcSettingsWriter( dataSource );
+            if( flushInterval > 0 ) {
+                writer.start( flushInterval );
+            }
+        }
+        return writer;
+    }
+
+    /**
+     * Enables write-behind persistence: <code>save()</code> only marks the
+     * settings as dirty, and the changes are written periodically in batches.
+     * 
+     * @param writeBehind <code>true</code> to enable write-behind
+     */
+    public void setWriteBehind( boolean writeBehind ) {
+        this.writeBehind = writeBehind;
+    }
+
+    public boolean isWriteBehind() {
+        return writeBehind;
+    }
+
+    /**
+     * Sets the interval between write-behind flushes. If 0, changes are only
+     * written on <code>flush()</code> or when the factory is destroyed.
+     * 
+     * @param flushInterval the interval in milliseconds
+     */
+    public void setFlushInterval( long flushInterval ) {
+        this.flushInterval = flushInterval;
+    }
+
+    public long getFlushInterval() {
+        return flushInterval;
+    }
+
+    /**
+     * Writes all pending write-behind changes.
+     */
+    public synchronized void flush() {
+        if( writer != null ) {
+            writer.flush();
+        }
+    }
+
+    /**
+     * Discards the settings trees loaded with write-behind, after writing their
+     * pending changes, so the next <code>createSettings</code> call reloads the
+     * tree of the user from the database. Settings returned before are no longer
+     * returned again.
+     */
+    public synchronized void clearCache() {
+        flush();
+        rootSettings.clear();
+    }
+
+    public synchronized void destroy() throws Exception {
+        if( writer != null ) {
+            writer.close();
+            writer = null;
+        }
+        rootSettings.clear();
+    }
+
     public void setUserNameProvider( UserNameProvider userNameProvider ) {
         this.userNameProvider = userNameProvider;
     }
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.settings.jdbc;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Preloaded row of the <code>SETTINGS</code> table together with its values
+ * and child rows. Used to build a complete <code>JdbcSettings</code> tree from a
+ * single query.
+ */
+class JdbcSettingsNode {
+    private static final String LOAD_TREE_SQL = "SELECT S.ID, S.KEY, S.PARENT, V.KEY AS VALUE_KEY, V.VALUE "
+            + "FROM SETTINGS S LEFT OUTER JOIN SETTINGS_VALUES V ON V.SETTINGS_ID = S.ID WHERE S.USER=?";
+
+    private final Integer id;
+    private final String key;
+
+    private final Map values = new HashMap();
+    private final Map children = new LinkedHashMap();
+
+    JdbcSettingsNode( Integer id, String key ) {
+        this.id = id;
+        this.key = key;
+    }
+
+    Integer getId() {
+        return id;
+    }
+
+    String getKey() {
+        return key;
+    }
+
+    Map getValues() {
+        return values;
+    }
+
+    String[] getChildKeys() {
+        return (String[]) children.keySet().toArray( new String[children.size()] );
+    }
+
+    JdbcSettingsNode getChild( String childKey ) {
+        return (JdbcSettingsNode) children.get( childKey );
+    }
+
+    /**
+     * Loads all settings of the given user with one query.
+     *
+     * @return the root nodes, keyed by settings key
+     */
+    static Map loadRoots( JdbcTemplate template, String user ) {
+        List rows = template.queryForList( LOAD_TREE_SQL, new Object[] { user } );
+
+        Map nodes = new LinkedHashMap();
+        Map parents = new HashMap();
+        for( Iterator iter = rows.iterator(); iter.hasNext(); ) {
+            Map row = (Map) iter.next();
+            Integer id = toInteger( row.get( "ID" ) );
+            JdbcSettingsNode node = (JdbcSettingsNode) nodes.get( id );
+            if( node == null ) {
+                node = new JdbcSettingsNode( id, (String) row.get( "KEY" ) );
+                nodes.put( id, node );
+                parents.put( id, toInteger( row.get( "PARENT" ) ) );
+            }
+            String valueKey = (String) row.get( "VALUE_KEY" );
+            if( valueKey != null ) {
+                node.values.put( valueKey, row.get( "VALUE" ) );
+            }
+        }
+
+        Map roots = new HashMap();
+        for( Iterator iter = nodes.values().iterator(); iter.hasNext(); ) {
+            JdbcSettingsNode node = (JdbcSettingsNode) iter.next();
+            JdbcSettingsNode parent = (JdbcSettingsNode) nodes.get( parents.get( node.id ) );
+            if( parent == null ) {
+                roots.put( node.key, node );
+            } else {
+                parent.children.put( node.key, node );
+            }
+        }
+        return roots;
+    }
+
+    private static Integer toInteger( Object value ) {
+        if( value == null || value instanceof Integer ) {
+            return (Integer) value;
+        }
+        return Integer.valueOf( ((Number) value).intValue() );
+    }
+}
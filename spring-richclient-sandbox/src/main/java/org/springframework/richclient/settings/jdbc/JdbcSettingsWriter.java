@@ -0,0 +1,239 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.settings.jdbc;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Timer;
+import java.util.TimerTask;
+
+import javax.sql.DataSource;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+/**
+ * Write-behind persistence for <code>JdbcSettings</code>.
+ * <p>
+ * Saved settings are only marked as dirty. All dirty settings are written in
+ * one transaction, using one JDBC batch per statement type, either every
+ * <code>flushInterval</code> milliseconds or when <code>flush()</code> or
+ * <code>close()</code> is called.
+ */
+public class JdbcSettingsWriter {
+    static final String DELETE_VALUE_SQL = "DELETE FROM SETTINGS_VALUES WHERE SETTINGS_ID=? AND KEY=?";
+    static final String UPDATE_VALUE_SQL = "UPDATE SETTINGS_VALUES SET VALUE=? WHERE SETTINGS_ID=? AND KEY=?";
+    static final String INSERT_VALUE_SQL = "INSERT INTO SETTINGS_VALUES (SETTINGS_ID, KEY, VALUE) VALUES (?, ?, ?)";
+
+    private static final Log logger = LogFactory.getLog( JdbcSettingsWriter.class );
+
+    private final DataSource dataSource;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Set dirty = new LinkedHashSet();
+
+    private Timer timer;
+
+    public JdbcSettingsWriter( DataSource dataSource ) {
+        Assert.notNull( dataSource, "DataSource must be set" );
+        this.dataSource = dataSource;
+        this.transactionTemplate = new TransactionTemplate( new DataSourceTransactionManager( dataSource ) );
+    }
+
+    /**
+     * Starts flushing the dirty settings periodically on a background thread.
+     *
+     * @param flushInterval the interval in milliseconds
+     */
+    public synchronized void start( long flushInterval ) {
+        Assert.isTrue( flushInterval > 0, "flushInterval must be positive" );
+        Assert.state( timer == null, "JdbcSettingsWriter already started" );
+        timer = new Timer( "JdbcSettingsWriter", true );
+        timer.schedule( new TimerTask() {
+            public void run() {
+                try {
+                    flush();
+                } catch( RuntimeException e ) {
+                    logger.warn( "Unable to write settings, will retry", e );
+                }
+            }
+        }, flushInterval, flushInterval );
+    }
+
+    /**
+     * Marks the settings and all its ancestors as dirty.
+     */
+    public void markDirty( JdbcSettings settings ) {
+        List path = new ArrayList();
+        for( JdbcSettings s = settings; s != null; s = (JdbcSettings) s.getParent() ) {
+            path.add( 0, s );
+        }
+        synchronized( dirty ) {
+            // ancestors first, so new parents are inserted before their children
+            dirty.addAll( path );
+        }
+    }
+
+    /**
+     * @return the number of settings waiting to be written
+     */
+    public int getDirtyCount() {
+        synchronized( dirty ) {
+            return dirty.size();
+        }
+    }
+
+    /**
+     * Writes all dirty settings in one transaction. If the transaction fails,
+     * the changes are kept and written with the next flush.
+     */
+    public synchronized void flush() {
+        final List settingsList;
+        synchronized( dirty ) {
+            if( dirty.isEmpty() ) {
+                return;
+            }
+            settingsList = new ArrayList( dirty );
+            dirty.clear();
+        }
+
+        final List changesList = new ArrayList( settingsList.size() );
+        for( Iterator iter = settingsList.iterator(); iter.hasNext(); ) {
+            changesList.add( ((JdbcSettings) iter.next()).takeChanges() );
+        }
+
+        final Map newIds = new HashMap();
+        try {
+            transactionTemplate.execute( new TransactionCallbackWithoutResult() {
+                protected void doInTransactionWithoutResult( TransactionStatus status ) {
+                    write( settingsList, changesList, newIds );
+                }
+            } );
+        } catch( RuntimeException e ) {
+            for( int i = 0; i < settingsList.size(); i++ ) {
+                ((JdbcSettings) settingsList.get( i )).restoreChanges( (JdbcSettings.Changes) changesList.get( i ) );
+            }
+            markDirty( settingsList );
+            throw e;
+        }
+
+        for( Iterator iter = newIds.entrySet().iterator(); iter.hasNext(); ) {
+            Map.Entry entry = (Map.Entry) iter.next();
+            ((JdbcSettings) entry.getKey()).setId( (Integer) entry.getValue() );
+        }
+    }
+
+    private void markDirty( List settingsList ) {
+        synchronized( dirty ) {
+            dirty.addAll( settingsList );
+        }
+    }
+
+    private void write( List settingsList, List changesList, Map newIds ) {
+        JdbcTemplate template = new JdbcTemplate( dataSource );
+
+        List deletes = new ArrayList();
+        List updates = new ArrayList();
+        List inserts = new ArrayList();
+        for( int i = 0; i < settingsList.size(); i++ ) {
+            JdbcSettings settings = (JdbcSettings) settingsList.get( i );
+            JdbcSettings.Changes changes = (JdbcSettings.Changes) changesList.get( i );
+
+            Integer id = getId( settings, newIds );
+            if( id == null ) {
+                id = settings.insert( template, getId( (JdbcSettings) settings.getParent(), newIds ) );
+                newIds.put( settings, id );
+            }
+
+            for( Iterator iter = changes.getRemoved().iterator(); iter.hasNext(); ) {
+                deletes.add( new Object[] { id, iter.next() } );
+            }
+            for( Iterator iter = changes.getUpdated().iterator(); iter.hasNext(); ) {
+                String key = (String) iter.next();
+                updates.add( new Object[] { changes.getValue( key ), id, key } );
+            }
+            for( Iterator iter = changes.getAdded().iterator(); iter.hasNext(); ) {
+                String key = (String) iter.next();
+                inserts.add( new Object[] { id, key, changes.getValue( key ) } );
+            }
+        }
+
+        batchUpdate( template, DELETE_VALUE_SQL, deletes );
+        batchUpdate( template, UPDATE_VALUE_SQL, updates );
+        batchUpdate( template, INSERT_VALUE_SQL, inserts );
+
+        if( logger.isDebugEnabled() ) {
+            logger.debug( "Wrote " + settingsList.size() + " settings: " + deletes.size() + " deletes, "
+                    + updates.size() + " updates, " + inserts.size() + " inserts" );
+        }
+    }
+
+    private static Integer getId( JdbcSettings settings, Map newIds ) {
+        if( settings == null ) {
+            return null;
+        }
+        Integer id = settings.getId();
+        return id != null ? id : (Integer) newIds.get( settings );
+    }
+
+    private static void batchUpdate( JdbcTemplate template, String sql, final List rows ) {
+        if( rows.isEmpty() ) {
+            return;
+        }
+        template.batchUpdate( sql, new BatchPreparedStatementSetter() {
+            public void setValues( PreparedStatement ps, int i ) throws SQLException {
+                Object[] row = (Object[]) rows.get( i );
+                for( int j = 0; j < row.length; j++ ) {
+                    if( row[j] == null ) {
+                        ps.setNull( j + 1, Types.VARCHAR );
+                    } else {
+                        ps.setObject( j + 1, row[j] );
+                    }
+                }
+            }
+
+            public int getBatchSize() {
+                return rows.size();
+            }
+        } );
+    }
+
+    /**
+     * Stops the periodic flushing and writes the remaining dirty settings.
+     */
+    public synchronized void close() {
+        if( timer != null ) {
+            timer.cancel();
+            timer = null;
+        }
+        flush();
+    }
+}
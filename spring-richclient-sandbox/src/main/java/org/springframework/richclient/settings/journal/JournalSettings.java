@@ -0,0 +1,126 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.settings.journal;
+
+import java.io.IOException;
+
+import org.springframework.richclient.settings.AbstractSettings;
+import org.springframework.richclient.settings.Settings;
+import org.springframework.richclient.settings.SettingsAccessException;
+import org.springframework.util.Assert;
+
+/**
+ * <code>Settings</code> backed by a <code>SettingsJournal</code>. Every change
+ * is appended to the journal immediately, <code>save()</code> only forces the
+ * journal to the storage device.
+ */
+public class JournalSettings extends AbstractSettings {
+	private final SettingsJournal journal;
+
+	private final String[] path;
+
+	/**
+	 * Creates root settings.
+	 * 
+	 * @param journal
+	 *            the journal
+	 * @param name
+	 *            the name of the settings
+	 */
+	public JournalSettings(SettingsJournal journal, String name) {
+		this(null, journal, new String[0], name);
+	}
+
+	private JournalSettings(JournalSettings parent, SettingsJournal journal, String[] path, String name) {
+		super(parent, name);
+		Assert.notNull(journal, "journal cannot be null");
+		this.journal = journal;
+		this.path = path;
+	}
+
+	protected boolean internalContains(String key) {
+		return journal.contains(path, key);
+	}
+
+	protected String[] internalGetChildSettings() {
+		return journal.getChildNames(path);
+	}
+
+	protected Settings internalCreateChild(String key) {
+		String[] childPath = new String[path.length + 1];
+		System.arraycopy(path, 0, childPath, 0, path.length);
+		childPath[path.length] = key;
+		return new JournalSettings(this, journal, childPath, key);
+	}
+
+	protected void internalSet(String key, String value) {
+		try {
+			journal.set(path, key, value);
+		}
+		catch (IOException e) {
+			throw new SettingsAccessException("Unable to write " + key + " of " + getName(), e);
+		}
+	}
+
+	protected String internalGet(String key) {
+		return journal.get(path, key);
+	}
+
+	protected void internalRemove(String key) {
+		try {
+			journal.remove(path, key);
+		}
+		catch (IOException e) {
+			throw new SettingsAccessException("Unable to remove " + key + " of " + getName(), e);
+		}
+	}
+
+	protected void internalRemoveSettings() {
+		if (path.length == 0) {
+			String[] keys = getKeys();
+			for (int i = 0; i < keys.length; i++) {
+				internalRemove(keys[i]);
+			}
+			String[] children = internalGetChildSettings();
+			for (int i = 0; i < children.length; i++) {
+				getSettings(children[i]).removeSettings();
+			}
+			return;
+		}
+		try {
+			journal.removeSettings(path);
+		}
+		catch (IOException e) {
+			throw new SettingsAccessException("Unable to remove settings " + getName(), e);
+		}
+	}
+
+	public String[] getKeys() {
+		return journal.getKeys(path);
+	}
+
+	public void save() throws IOException {
+		journal.force();
+	}
+
+	public void load() throws IOException {
+		// the journal is always up to date
+	}
+
+	public SettingsJournal getJournal() {
+		return journal;
+	}
+}
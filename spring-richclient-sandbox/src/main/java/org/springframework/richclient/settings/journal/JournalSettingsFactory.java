@@ -0,0 +1,97 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.settings.journal;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.richclient.settings.Settings;
+import org.springframework.richclient.settings.SettingsException;
+import org.springframework.richclient.settings.SettingsFactory;
+
+/**
+ * <code>SettingsFactory</code> for creating <code>JournalSettings</code>. Each
+ * key is stored in its own journal file in the configured location. The
+ * journals are closed when the factory is destroyed.
+ */
+public class JournalSettingsFactory implements SettingsFactory, DisposableBean {
+	private String location;
+
+	private int initialSize = SettingsJournal.DEFAULT_INITIAL_SIZE;
+
+	private final Map journals = new HashMap();
+
+	public synchronized Settings createSettings(String key) throws SettingsException {
+		SettingsJournal journal = (SettingsJournal) journals.get(key);
+		if (journal == null) {
+			try {
+				journal = new SettingsJournal(new File(getLocation(), key + ".settings.journal"), initialSize);
+			}
+			catch (IOException e) {
+				throw new SettingsException("Unable to open settings journal for " + key, e);
+			}
+			journals.put(key, journal);
+		}
+		return new JournalSettings(journal, key);
+	}
+
+	/**
+	 * Returns the location for the journal files.
+	 * 
+	 * @return the location
+	 */
+	public String getLocation() {
+		if (location == null) {
+			location = "settings";
+		}
+		return location;
+	}
+
+	/**
+	 * Sets the location of the journal files.
+	 * 
+	 * @param location
+	 *            the location
+	 */
+	public void setLocation(String location) {
+		this.location = location;
+	}
+
+	/**
+	 * Sets the initial size of new journal files. The files grow as needed.
+	 * 
+	 * @param initialSize
+	 *            the size in bytes
+	 */
+	public void setInitialSize(int initialSize) {
+		this.initialSize = initialSize;
+	}
+
+	public int getInitialSize() {
+		return initialSize;
+	}
+
+	public synchronized void destroy() throws Exception {
+		for (Iterator iter = journals.values().iterator(); iter.hasNext();) {
+			((SettingsJournal) iter.next()).close();
+		}
+		journals.clear();
+	}
+}
@@ -0,0 +1,458 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.settings.journal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import org.springframework.util.Assert;
+
+/**
+ * Append-only journal of settings changes, stored in a memory-mapped file.
+ * <p>
+ * Every change is appended as one record, protected by a CRC32 checksum. As
+ * the file is memory-mapped, an appended record survives a crash of the
+ * process without any explicit write; {@link #force()} additionally flushes it
+ * to the storage device. On open, the journal is replayed into an in-memory
+ * index, which serves all reads. Replaying stops at the first incomplete or
+ * corrupt record, so a record torn by a crash is discarded.
+ * <p>
+ * When the journal contains many more records than live values, it is
+ * compacted by writing the live values to a new file that replaces the
+ * journal.
+ */
+public class SettingsJournal {
+	public static final int DEFAULT_INITIAL_SIZE = 64 * 1024;
+
+	/** minimum number of obsolete records before compacting */
+	private static final int COMPACTION_THRESHOLD = 1000;
+
+	private static final int MAGIC = 0x534a4e4c;
+
+	private static final int VERSION = 2;
+
+	private static final int FILE_HEADER_SIZE = 8;
+
+	/** record header: payload length and checksum */
+	private static final int RECORD_HEADER_SIZE = 8;
+
+	private static final byte SET = 1;
+
+	private static final byte REMOVE = 2;
+
+	private static final byte REMOVE_SETTINGS = 3;
+
+	private final File file;
+
+	private final int initialSize;
+
+	private RandomAccessFile randomAccessFile;
+
+	private MappedByteBuffer buffer;
+
+	/** end of the valid records */
+	private int position;
+
+	private int recordCount;
+
+	private int valueCount;
+
+	private Node root = new Node();
+
+	/**
+	 * Opens the journal in the given file, creating the file if necessary.
+	 *
+	 * @param file the journal file
+	 * @throws IOException if the file cannot be opened or is not a journal
+	 */
+	public SettingsJournal(File file) throws IOException {
+		this(file, DEFAULT_INITIAL_SIZE);
+	}
+
+	public SettingsJournal(File file, int initialSize) throws IOException {
+		Assert.notNull(file, "file cannot be null");
+		Assert.isTrue(initialSize > FILE_HEADER_SIZE, "initialSize too small");
+		this.file = file;
+		this.initialSize = initialSize;
+		open();
+	}
+
+	private void open() throws IOException {
+		if (file.getParentFile() != null) {
+			file.getParentFile().mkdirs();
+		}
+		File compactFile = getCompactFile();
+		if (!file.exists() && compactFile.exists()) {
+			// a compaction was interrupted after deleting the old journal
+			if (!compactFile.renameTo(file)) {
+				throw new IOException("Unable to restore " + file + " from " + compactFile);
+			}
+		}
+		randomAccessFile = new RandomAccessFile(file, "rw");
+		map((int) Math.max(randomAccessFile.length(), initialSize));
+
+		if (buffer.getInt(0) == 0 && buffer.getInt(4) == 0) {
+			// a new file
+			buffer.putInt(0, MAGIC);
+			buffer.putInt(4, VERSION);
+		}
+		else if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+			close();
+			throw new IOException(file + " is not a settings journal");
+		}
+
+		root = new Node();
+		recordCount = 0;
+		valueCount = 0;
+		replay();
+	}
+
+	private void map(int size) throws IOException {
+		MappedByteBuffer previous = buffer;
+		buffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+		if (previous != null) {
+			unmap(previous);
+		}
+	}
+
+	/**
+	 * Releases a mapping right away instead of when the buffer is garbage
+	 * collected. A mapped file cannot be renamed or deleted on Windows, which
+	 * would make compaction fail. The buffer must not be used afterwards.
+	 */
+	private static void unmap(MappedByteBuffer buffer) {
+		try {
+			// Java 9 and later
+			Class unsafeClass = Class.forName("sun.misc.Unsafe");
+			Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+			theUnsafe.setAccessible(true);
+			Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", new Class[] { ByteBuffer.class });
+			invokeCleaner.invoke(theUnsafe.get(null), new Object[] { buffer });
+			return;
+		}
+		catch (Exception e) {
+			// not available, try the cleaner of older runtimes
+		}
+		try {
+			Method cleanerMethod = buffer.getClass().getMethod("cleaner", new Class[0]);
+			cleanerMethod.setAccessible(true);
+			Object cleaner = cleanerMethod.invoke(buffer, new Object[0]);
+			if (cleaner != null) {
+				cleaner.getClass().getMethod("clean", new Class[0]).invoke(cleaner, new Object[0]);
+			}
+		}
+		catch (Exception e) {
+			// the mapping is released when the buffer is garbage collected
+		}
+	}
+
+	private void replay() throws IOException {
+		position = FILE_HEADER_SIZE;
+		while (position + RECORD_HEADER_SIZE <= buffer.capacity()) {
+			int length = buffer.getInt(position);
+			if (length <= 0 || position + RECORD_HEADER_SIZE + length > buffer.capacity()) {
+				break;
+			}
+			byte[] payload = new byte[length];
+			buffer.position(position + RECORD_HEADER_SIZE);
+			buffer.get(payload);
+			if (checksum(payload) != buffer.getInt(position + 4)) {
+				break;
+			}
+			apply(payload);
+			position += RECORD_HEADER_SIZE + length;
+		}
+		// clear a torn record, so it is not mistaken for a valid one later
+		if (position + RECORD_HEADER_SIZE <= buffer.capacity()) {
+			buffer.putInt(position, 0);
+		}
+	}
+
+	public synchronized String get(String[] path, String key) {
+		Node node = findNode(path, false);
+		return node == null ? null : (String) node.values.get(key);
+	}
+
+	public synchronized boolean contains(String[] path, String key) {
+		Node node = findNode(path, false);
+		return node != null && node.values.containsKey(key);
+	}
+
+	public synchronized String[] getKeys(String[] path) {
+		Node node = findNode(path, false);
+		if (node == null) {
+			return new String[0];
+		}
+		return (String[]) node.values.keySet().toArray(new String[node.values.size()]);
+	}
+
+	public synchronized String[] getChildNames(String[] path) {
+		Node node = findNode(path, false);
+		if (node == null) {
+			return new String[0];
+		}
+		return (String[]) node.children.keySet().toArray(new String[node.children.size()]);
+	}
+
+	public synchronized void set(String[] path, String key, String value) throws IOException {
+		append(encode(SET, path, key, value));
+	}
+
+	public synchronized void remove(String[] path, String key) throws IOException {
+		if (contains(path, key)) {
+			append(encode(REMOVE, path, key, null));
+		}
+	}
+
+	public synchronized void removeSettings(String[] path) throws IOException {
+		Assert.isTrue(path.length > 0, "cannot remove the root settings");
+		if (findNode(path, false) != null) {
+			append(encode(REMOVE_SETTINGS, path, null, null));
+		}
+	}
+
+	/**
+	 * Flushes the appended records to the storage device.
+	 */
+	public synchronized void force() {
+		if (buffer != null) {
+			buffer.force();
+		}
+	}
+
+	/**
+	 * Flushes and closes the journal.
+	 */
+	public synchronized void close() throws IOException {
+		if (randomAccessFile != null) {
+			buffer.force();
+			unmap(buffer);
+			buffer = null;
+			randomAccessFile.close();
+			randomAccessFile = null;
+		}
+	}
+
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * @return the size of the valid records in bytes
+	 */
+	public synchronized int getSize() {
+		return position;
+	}
+
+	private void append(byte[] payload) throws IOException {
+		Assert.state(randomAccessFile != null, "journal is closed");
+
+		// keep room for the terminating zero length
+		int required = position + RECORD_HEADER_SIZE + payload.length + 4;
+		if (required > buffer.capacity()) {
+			map(Math.max(buffer.capacity() * 2, required));
+		}
+		buffer.position(position + RECORD_HEADER_SIZE);
+		buffer.put(payload);
+		buffer.putInt(position + RECORD_HEADER_SIZE + payload.length, 0);
+		buffer.putInt(position + 4, checksum(payload));
+		// the length is written last: a record without length is not replayed
+		buffer.putInt(position, payload.length);
+		position += RECORD_HEADER_SIZE + payload.length;
+		apply(payload);
+
+		if (recordCount - valueCount > COMPACTION_THRESHOLD && recordCount > 2 * valueCount) {
+			compact();
+		}
+	}
+
+	/**
+	 * Rewrites the journal with only the live values.
+	 */
+	private void compact() throws IOException {
+		File compactFile = getCompactFile();
+		compactFile.delete();
+		SettingsJournal compacted = new SettingsJournal(compactFile, Math.max(initialSize, position));
+		try {
+			compacted.copyFrom(root, new String[0]);
+		}
+		finally {
+			compacted.close();
+		}
+
+		close();
+		// File.renameTo does not replace an existing file on all platforms
+		if (!compactFile.renameTo(file)) {
+			if (!file.delete()) {
+				// the journal is intact, keep using it
+				compactFile.delete();
+			}
+			else if (!compactFile.renameTo(file)) {
+				// the compacted journal is the only copy left, open() restores it
+				throw new IOException("Unable to replace " + file + " with " + compactFile);
+			}
+		}
+		open();
+	}
+
+	private File getCompactFile() {
+		return new File(file.getPath() + ".compact");
+	}
+
+	private void copyFrom(Node node, String[] path) throws IOException {
+		for (Iterator iter = node.values.entrySet().iterator(); iter.hasNext();) {
+			Map.Entry entry = (Map.Entry) iter.next();
+			append(encode(SET, path, (String) entry.getKey(), (String) entry.getValue()));
+		}
+		for (Iterator iter = node.children.entrySet().iterator(); iter.hasNext();) {
+			Map.Entry entry = (Map.Entry) iter.next();
+			String[] childPath = new String[path.length + 1];
+			System.arraycopy(path, 0, childPath, 0, path.length);
+			childPath[path.length] = (String) entry.getKey();
+			copyFrom((Node) entry.getValue(), childPath);
+		}
+	}
+
+	private void apply(byte[] payload) throws IOException {
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+		byte operation = in.readByte();
+		String[] path = new String[in.readShort()];
+		for (int i = 0; i < path.length; i++) {
+			path[i] = readString(in);
+		}
+
+		recordCount++;
+		if (operation == SET) {
+			String key = readString(in);
+			String value = in.readBoolean() ? readString(in) : null;
+			Node node = findNode(path, true);
+			if (!node.values.containsKey(key)) {
+				valueCount++;
+			}
+			node.values.put(key, value);
+		}
+		else if (operation == REMOVE) {
+			String key = readString(in);
+			Node node = findNode(path, false);
+			if (node != null && node.values.containsKey(key)) {
+				node.values.remove(key);
+				valueCount--;
+			}
+		}
+		else if (operation == REMOVE_SETTINGS) {
+			Node parent = findNode(parentPath(path), false);
+			if (parent != null) {
+				Node removed = (Node) parent.children.remove(path[path.length - 1]);
+				if (removed != null) {
+					valueCount -= removed.countValues();
+				}
+			}
+		}
+		else {
+			throw new IOException("Unknown journal operation " + operation);
+		}
+	}
+
+	private static String[] parentPath(String[] path) {
+		String[] parentPath = new String[path.length - 1];
+		System.arraycopy(path, 0, parentPath, 0, parentPath.length);
+		return parentPath;
+	}
+
+	private Node findNode(String[] path, boolean create) {
+		Node node = root;
+		for (int i = 0; i < path.length && node != null; i++) {
+			Node child = (Node) node.children.get(path[i]);
+			if (child == null && create) {
+				child = new Node();
+				node.children.put(path[i], child);
+			}
+			node = child;
+		}
+		return node;
+	}
+
+	private static byte[] encode(byte operation, String[] path, String key, String value) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeByte(operation);
+		out.writeShort(path.length);
+		for (int i = 0; i < path.length; i++) {
+			writeString(out, path[i]);
+		}
+		if (key != null) {
+			writeString(out, key);
+		}
+		if (operation == SET) {
+			out.writeBoolean(value != null);
+			if (value != null) {
+				writeString(out, value);
+			}
+		}
+		out.flush();
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Writes a string of any length, unlike <code>writeUTF</code>, which is
+	 * limited to 64 KB.
+	 */
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		byte[] bytes = value.getBytes("UTF-8");
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		byte[] bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+		return new String(bytes, "UTF-8");
+	}
+
+	private static int checksum(byte[] payload) {
+		CRC32 crc = new CRC32();
+		crc.update(payload);
+		return (int) crc.getValue();
+	}
+
+	private static class Node {
+		private final Map values = new LinkedHashMap();
+
+		private final Map children = new LinkedHashMap();
+
+		int countValues() {
+			int count = values.size();
+			for (Iterator iter = children.values().iterator(); iter.hasNext();) {
+				count += ((Node) iter.next()).countValues();
+			}
+			return count;
+		}
+	}
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.settings.xml;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Timer;
+import java.util.TimerTask;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.richclient.settings.SettingsException;
+import org.springframework.util.Assert;
+import org.w3c.dom.Document;
+
+/**
+ * <code>XmlSettingsReaderWriter</code> decorator that writes asynchronously.
+ * <p>
+ * <code>write</code> only takes a copy of the settings document and returns
+ * immediately. The copy is written by the delegate on a background thread
+ * after <code>writeDelay</code> milliseconds; saves of the same settings within
+ * that delay are coalesced into one write.
+ */
+public class AsyncXmlSettingsReaderWriter implements XmlSettingsReaderWriter {
+	public static final long DEFAULT_WRITE_DELAY = 1000;
+
+	private static final Log logger = LogFactory.getLog(AsyncXmlSettingsReaderWriter.class);
+
+	private final XmlSettingsReaderWriter delegate;
+
+	private final long writeDelay;
+
+	/** pending documents, keyed by settings name */
+	private final Map pending = new LinkedHashMap();
+
+	/** serializes the writes, so an older document never overwrites a newer one */
+	private final Object writeLock = new Object();
+
+	private Timer timer;
+
+	private boolean writeScheduled;
+
+	public AsyncXmlSettingsReaderWriter(XmlSettingsReaderWriter delegate) {
+		this(delegate, DEFAULT_WRITE_DELAY);
+	}
+
+	public AsyncXmlSettingsReaderWriter(XmlSettingsReaderWriter delegate, long writeDelay) {
+		Assert.notNull(delegate, "delegate cannot be null");
+		Assert.isTrue(writeDelay >= 0, "writeDelay cannot be negative");
+		this.delegate = delegate;
+		this.writeDelay = writeDelay;
+	}
+
+	public void write(RootXmlSettings settings) throws SettingsException {
+		Document copy = (Document) settings.getDocument().cloneNode(true);
+		synchronized (pending) {
+			pending.put(settings.getName(), copy);
+			if (!writeScheduled) {
+				writeScheduled = true;
+				getTimer().schedule(new TimerTask() {
+					public void run() {
+						try {
+							flush();
+						} catch (SettingsException e) {
+							logger.warn("Unable to write settings", e);
+						}
+					}
+				}, writeDelay);
+			}
+		}
+	}
+
+	public RootXmlSettings read(String key) throws SettingsException {
+		// pending changes must be written before reading them back
+		flush();
+		return delegate.read(key);
+	}
+
+	/**
+	 * Writes all pending settings documents on the calling thread.
+	 *
+	 * @throws SettingsException
+	 *             if a document could not be written
+	 */
+	public void flush() throws SettingsException {
+		synchronized (writeLock) {
+			Map documents;
+			synchronized (pending) {
+				documents = new LinkedHashMap(pending);
+				pending.clear();
+				writeScheduled = false;
+			}
+			for (Iterator iter = documents.entrySet().iterator(); iter.hasNext();) {
+				Map.Entry entry = (Map.Entry) iter.next();
+				try {
+					delegate.write(new RootXmlSettings((Document) entry.getValue(), delegate));
+				} catch (SettingsException e) {
+					requeue(documents);
+					throw e;
+				}
+				iter.remove();
+			}
+		}
+	}
+
+	/**
+	 * Puts back documents that were not written, unless a newer version is
+	 * already pending.
+	 */
+	private void requeue(Map documents) {
+		synchronized (pending) {
+			for (Iterator iter = documents.entrySet().iterator(); iter.hasNext();) {
+				Map.Entry entry = (Map.Entry) iter.next();
+				if (!pending.containsKey(entry.getKey())) {
+					pending.put(entry.getKey(), entry.getValue());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Writes all pending settings documents and stops the background thread.
+	 *
+	 * @throws SettingsException
+	 *             if a document could not be written
+	 */
+	public void close() throws SettingsException {
+		synchronized (pending) {
+			if (timer != null) {
+				timer.cancel();
+				timer = null;
+			}
+		}
+		flush();
+	}
+
+	public XmlSettingsReaderWriter getDelegate() {
+		return delegate;
+	}
+
+	private Timer getTimer() {
+		if (timer == null) {
+			timer = new Timer("AsyncXmlSettingsReaderWriter", true);
+		}
+		return timer;
+	}
+}
@@ -15,15 +15,21 @@
  */
 package org.springframework.richclient.settings.xml;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 
+import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.FactoryConfigurationError;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerException;
 import javax.xml.transform.TransformerFactory;
@@ -39,6 +45,10 @@ import org.xml.sax.SAXException;
 /**
  * <code>XmlSettingsReaderWriter</code> implementation that reads and writes
  * the xml from and to the file system.
+ * <p>
+ * The file is written atomically: the xml is written to a temporary file
+ * first, which then replaces the settings file. The parser and transformer are
+ * created once and reused.
  * 
  * @author Peter De Bruycker
  * 
@@ -47,6 +57,10 @@ public class FileSystemXmlSettingsReaderWriter implements XmlSettingsReaderWrite
 
 	private String location;
 
+	private DocumentBuilder documentBuilder;
+
+	private Transformer transformer;
+
 	/**
 	 * Creates a new instance.
 	 * 
@@ -57,35 +71,54 @@ public class FileSystemXmlSettingsReaderWriter implements XmlSettingsReaderWrite
 		this.location = location;
 	}
 
-	public void write(RootXmlSettings settings) throws SettingsException {
-		try {
-			File file = createFile(settings.getName());
-            file.getParentFile().mkdirs();
+	public synchronized void write(RootXmlSettings settings) throws SettingsException {
+		File file = createFile(settings.getName());
+		File tempFile = createTempFile(file);
+		file.getParentFile().mkdirs();
 
-			TransformerFactory.newInstance().newTransformer().transform(new DOMSource(settings.getDocument()),
-					new StreamResult(new FileOutputStream(file)));
+		OutputStream out = null;
+		try {
+			out = new BufferedOutputStream(new FileOutputStream(tempFile));
+			getTransformer().transform(new DOMSource(settings.getDocument()), new StreamResult(out));
+			out.close();
+			out = null;
 		} catch (TransformerConfigurationException e) {
 			throw new SettingsException("Unable to write document", e);
 		} catch (TransformerException e) {
 			throw new SettingsException("Unable to write document", e);
 		} catch (TransformerFactoryConfigurationError e) {
 			throw new SettingsException("Unable to write document", e);
-		} catch (FileNotFoundException e) {
+		} catch (IOException e) {
 			throw new SettingsException("Unable to write document", e);
+		} finally {
+			close(out);
+		}
+
+		// File.renameTo does not replace an existing file on all platforms
+		if (!tempFile.renameTo(file) && !(file.delete() && tempFile.renameTo(file))) {
+			throw new SettingsException("Unable to replace " + file + " with " + tempFile, null);
 		}
 	}
 
 	/*
 	 * TODO: create DTD + validate parsing
 	 */
-	public RootXmlSettings read(String key) throws SettingsException {
+	public synchronized RootXmlSettings read(String key) throws SettingsException {
+		InputStream in = null;
 		try {
 			File file = createFile(key);
+			File tempFile = createTempFile(file);
+			if (!file.exists() && tempFile.exists()) {
+				// a previous write was interrupted after deleting the old file
+				tempFile.renameTo(file);
+			}
+
 			Document doc = null;
 			if (file.exists()) {
-				doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new FileInputStream(file));
+				in = new BufferedInputStream(new FileInputStream(file));
+				doc = getDocumentBuilder().parse(in);
 			} else {
-				doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+				doc = getDocumentBuilder().newDocument();
 				Element element = doc.createElement("settings");
 				element.setAttribute("name", key);
 				doc.appendChild(element);
@@ -102,6 +135,36 @@ public class FileSystemXmlSettingsReaderWriter implements XmlSettingsReaderWrite
 			throw new SettingsException("Unable to read xml", e);
 		} catch (FactoryConfigurationError e) {
 			throw new SettingsException("Unable to read xml", e);
+		} finally {
+			close(in);
+		}
+	}
+
+	private DocumentBuilder getDocumentBuilder() throws ParserConfigurationException {
+		if (documentBuilder == null) {
+			documentBuilder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+		} else {
+			documentBuilder.reset();
+		}
+		return documentBuilder;
+	}
+
+	private Transformer getTransformer() throws TransformerConfigurationException {
+		if (transformer == null) {
+			transformer = TransformerFactory.newInstance().newTransformer();
+		} else {
+			transformer.reset();
+		}
+		return transformer;
+	}
+
+	private static void close(Closeable closeable) {
+		if (closeable != null) {
+			try {
+				closeable.close();
+			} catch (IOException e) {
+				// ignore
+			}
 		}
 	}
 
@@ -109,6 +172,10 @@ public class FileSystemXmlSettingsReaderWriter implements XmlSettingsReaderWrite
 		return new File(location, key + ".settings.xml");
 	}
 
+	private File createTempFile(File file) {
+		return new File(file.getParentFile(), file.getName() + ".tmp");
+	}
+
 	/**
 	 * Returns the current location.
 	 * 
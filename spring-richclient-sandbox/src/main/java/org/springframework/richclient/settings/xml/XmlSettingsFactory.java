@@ -15,20 +15,30 @@
  */
 package org.springframework.richclient.settings.xml;
 
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.richclient.settings.Settings;
 import org.springframework.richclient.settings.SettingsException;
 import org.springframework.richclient.settings.SettingsFactory;
 
 /**
  * <code>SettingsFactory</code> for creating <code>XmlSettings</code>.
+ * <p>
+ * If <code>asyncWrite</code> is enabled, the default reader/writer is wrapped
+ * in an <code>AsyncXmlSettingsReaderWriter</code>, so saving settings does not
+ * block the calling thread. Pending writes are flushed when the factory is
+ * destroyed.
  * 
  * @author Peter De Bruycker
  */
-public class XmlSettingsFactory implements SettingsFactory {
+public class XmlSettingsFactory implements SettingsFactory, DisposableBean {
 	private String location;
 
 	private XmlSettingsReaderWriter readerWriter;
 
+	private boolean asyncWrite = false;
+
+	private long writeDelay = AsyncXmlSettingsReaderWriter.DEFAULT_WRITE_DELAY;
+
 	/**
 	 * Returns the <code>XmlSettingsReaderWriter</code> used for persisting
 	 * the xml to the backing store. If no <code>XmlSettingsReaderWriter</code>
@@ -40,6 +50,9 @@ public class XmlSettingsFactory implements SettingsFactory {
 	public XmlSettingsReaderWriter getReaderWriter() {
 		if (readerWriter == null) {
 			readerWriter = new FileSystemXmlSettingsReaderWriter(getLocation());
+			if (asyncWrite) {
+				readerWriter = new AsyncXmlSettingsReaderWriter(readerWriter, writeDelay);
+			}
 		}
 
 		return readerWriter;
@@ -82,4 +95,39 @@ public class XmlSettingsFactory implements SettingsFactory {
 	public void setLocation(String location) {
 		this.location = location;
 	}
+
+	/**
+	 * Sets whether the default reader/writer writes asynchronously.
+	 * 
+	 * @param asyncWrite
+	 *            <code>true</code> to write asynchronously
+	 */
+	public void setAsyncWrite(boolean asyncWrite) {
+		this.asyncWrite = asyncWrite;
+	}
+
+	public boolean isAsyncWrite() {
+		return asyncWrite;
+	}
+
+	/**
+	 * Sets the delay before an asynchronous write; saves within this delay are
+	 * written once.
+	 * 
+	 * @param writeDelay
+	 *            the delay in milliseconds
+	 */
+	public void setWriteDelay(long writeDelay) {
+		this.writeDelay = writeDelay;
+	}
+
+	public long getWriteDelay() {
+		return writeDelay;
+	}
+
+	public void destroy() throws Exception {
+		if (readerWriter instanceof AsyncXmlSettingsReaderWriter) {
+			((AsyncXmlSettingsReaderWriter) readerWriter).close();
+		}
+	}
 }
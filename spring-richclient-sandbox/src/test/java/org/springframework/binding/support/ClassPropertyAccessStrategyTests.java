@@ -59,4 +59,9 @@ public class ClassPropertyAccessStrategyTests extends AbstractPropertyAccessStra
 		pas = new ClassPropertyAccessStrategy(TestBeanWithPCP.class);
 		super.testBeanThatImplementsPropertyChangePublisher();
 	}
+
+	public void testLazyBeanPropertyListeners() {
+		pas = new ClassPropertyAccessStrategy(TestBeanWithPCP.class);
+		super.testLazyBeanPropertyListeners();
+	}
 }
\ No newline at end of file
@@ -125,4 +125,94 @@ public class JdbcSettingsTests extends SettingsAbstractTests {
         assertEquals("string-value", second.get("KEY"));
         assertEquals("value", second.get("VALUE"));
     }
+
+    public void testWriteBehindSave() throws Exception {
+        JdbcSettingsWriter writer = new JdbcSettingsWriter(dataSource);
+        JdbcSettings settings = new JdbcSettings(dataSource, "test-user", null, "test-key");
+        settings.setWriter(writer);
+        settings.setString("string-value", "value");
+
+        JdbcSettings childSettings = (JdbcSettings) settings.getSettings("child");
+        childSettings.setInt("int-value", 5);
+        childSettings.save();
+
+        assertEquals(2, writer.getDirtyCount());
+        assertEquals("nothing written before flush", 0, jdbcTemplate.queryForInt("SELECT count(*) FROM SETTINGS"));
+
+        writer.flush();
+
+        assertEquals(0, writer.getDirtyCount());
+        assertNotNull(settings.getId());
+        assertNotNull(childSettings.getId());
+        assertEquals(settings.getId(), Integer.valueOf(jdbcTemplate.queryForInt("SELECT PARENT FROM SETTINGS WHERE ID=?",
+                new Object[] { childSettings.getId() })));
+        assertEquals(2, jdbcTemplate.queryForInt("SELECT count(*) FROM SETTINGS_VALUES"));
+
+        childSettings.setInt("int-value", 6);
+        childSettings.remove("int-value");
+        settings.setString("string-value", "changed");
+        childSettings.save();
+        writer.close();
+
+        assertEquals(1, jdbcTemplate.queryForInt("SELECT count(*) FROM SETTINGS_VALUES"));
+        assertEquals("changed", jdbcTemplate.queryForObject("SELECT VALUE FROM SETTINGS_VALUES WHERE SETTINGS_ID=?",
+                new Object[] { settings.getId() }, String.class));
+    }
+
+    public void testWriteBehindFactoryLoadsTree() throws Exception {
+        jdbcTemplate.execute("INSERT INTO SETTINGS (ID, KEY, USER) VALUES (55, 'test-key', 'test-user')");
+        jdbcTemplate.execute("INSERT INTO SETTINGS (ID, KEY, PARENT, USER) VALUES (56, 'child', 55, 'test-user')");
+        jdbcTemplate.execute("INSERT INTO SETTINGS_VALUES (SETTINGS_ID, KEY, VALUE) VALUES (55, 'key0', 'true')");
+        jdbcTemplate.execute("INSERT INTO SETTINGS_VALUES (SETTINGS_ID, KEY, VALUE) VALUES (56, 'key1', '25')");
+
+        JdbcSettingsFactory factory = new JdbcSettingsFactory();
+        factory.setDataSource(dataSource);
+        factory.setUserNameProvider(new StaticUserNameProvider("test-user"));
+        factory.setWriteBehind(true);
+        factory.setFlushInterval(0);
+        factory.afterPropertiesSet();
+
+        Settings settings = factory.createSettings("test-key");
+        assertTrue(settings.getBoolean("key0"));
+        assertEquals(1, settings.getChildSettings().length);
+        Settings child = settings.getSettings("child");
+        assertEquals(Integer.valueOf(56), ((JdbcSettings) child).getId());
+        assertEquals(25, child.getInt("key1"));
+
+        child.setInt("key1", 30);
+        child.save();
+        factory.destroy();
+
+        assertEquals(30, jdbcTemplate.queryForInt("SELECT VALUE FROM SETTINGS_VALUES WHERE SETTINGS_ID=56"));
+    }
+
+    public void testWriteBehindFactoryLoadsTreeOnce() throws Exception {
+        jdbcTemplate.execute("INSERT INTO SETTINGS (ID, KEY, USER) VALUES (55, 'test-key', 'test-user')");
+
+        JdbcSettingsFactory factory = new JdbcSettingsFactory();
+        factory.setDataSource(dataSource);
+        factory.setUserNameProvider(new StaticUserNameProvider("test-user"));
+        factory.setWriteBehind(true);
+        factory.setFlushInterval(0);
+        factory.afterPropertiesSet();
+
+        Settings settings = factory.createSettings("test-key");
+        jdbcTemplate.execute("INSERT INTO SETTINGS (ID, KEY, USER) VALUES (60, 'other-key', 'test-user')");
+        assertSame(settings, factory.createSettings("test-key"));
+
+        Settings newSettings = factory.createSettings("new-key");
+        newSettings.setString("key", "value");
+        newSettings.save();
+        assertSame(newSettings, factory.createSettings("new-key"));
+        factory.flush();
+
+        assertEquals(1, jdbcTemplate.queryForInt("SELECT count(*) FROM SETTINGS WHERE KEY='new-key'"));
+        assertEquals(jdbcTemplate.queryForInt("SELECT ID FROM SETTINGS WHERE KEY='new-key'"), ((JdbcSettings) newSettings)
+                .getId().intValue());
+
+        factory.clearCache();
+        assertNotSame(settings, factory.createSettings("test-key"));
+        assertEquals(new Integer(60), ((JdbcSettings) factory.createSettings("other-key")).getId());
+        factory.destroy();
+    }
 }
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.settings.journal;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+
+import org.springframework.richclient.settings.Settings;
+import org.springframework.richclient.settings.SettingsAbstractTests;
+
+public class JournalSettingsTests extends SettingsAbstractTests {
+    private File file;
+    private SettingsJournal journal;
+
+    protected void doSetUp() throws Exception {
+        file = File.createTempFile( "settings", ".journal" );
+        file.delete();
+        journal = new SettingsJournal( file );
+    }
+
+    protected void tearDown() throws Exception {
+        journal.close();
+        file.delete();
+    }
+
+    protected Settings createSettings() {
+        return new JournalSettings( journal, "test" );
+    }
+
+    public void testChangesSurviveReopen() throws Exception {
+        Settings settings = new JournalSettings( journal, "test" );
+        settings.setInt( "width", 100 );
+        settings.getSettings( "table" ).setString( "columns", "1,2,3" );
+        settings.setInt( "width", 200 );
+        settings.remove( "width" );
+        settings.setBoolean( "visible", true );
+
+        journal.close();
+        journal = new SettingsJournal( file );
+        settings = new JournalSettings( journal, "test" );
+
+        assertFalse( settings.contains( "width" ) );
+        assertTrue( settings.getBoolean( "visible" ) );
+        assertEquals( 1, settings.getChildSettings().length );
+        assertEquals( "1,2,3", settings.getSettings( "table" ).getString( "columns" ) );
+    }
+
+    public void testValuesLongerThan64K() throws Exception {
+        StringBuffer value = new StringBuffer();
+        for( int i = 0; i < 70000; i++ ) {
+            value.append( (char) ('a' + i % 26) );
+        }
+        new JournalSettings( journal, "test" ).setString( "long", value.toString() );
+
+        journal.close();
+        journal = new SettingsJournal( file );
+        assertEquals( value.toString(), new JournalSettings( journal, "test" ).getString( "long" ) );
+    }
+
+    public void testTornRecordIsDiscarded() throws Exception {
+        Settings settings = new JournalSettings( journal, "test" );
+        settings.setString( "kept", "value" );
+        int size = journal.getSize();
+        settings.setString( "torn", "value" );
+        journal.close();
+
+        // simulate a crash halfway writing the last record
+        RandomAccessFile raf = new RandomAccessFile( file, "rw" );
+        raf.seek( size + 12 );
+        raf.write( 0x7f );
+        raf.close();
+
+        journal = new SettingsJournal( file );
+        settings = new JournalSettings( journal, "test" );
+        assertEquals( "value", settings.getString( "kept" ) );
+        assertFalse( settings.contains( "torn" ) );
+
+        settings.setString( "after", "crash" );
+        journal.close();
+        journal = new SettingsJournal( file );
+        assertEquals( "crash", new JournalSettings( journal, "test" ).getString( "after" ) );
+    }
+}
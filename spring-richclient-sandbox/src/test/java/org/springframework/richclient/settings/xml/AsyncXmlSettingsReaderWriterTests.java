@@ -0,0 +1,87 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.settings.xml;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import junit.framework.TestCase;
+
+public class AsyncXmlSettingsReaderWriterTests extends TestCase {
+	private TestableXmlSettingsReaderWriter delegate;
+
+	private AsyncXmlSettingsReaderWriter readerWriter;
+
+	protected void setUp() throws Exception {
+		delegate = new TestableXmlSettingsReaderWriter();
+		readerWriter = new AsyncXmlSettingsReaderWriter(delegate, 60 * 1000);
+	}
+
+	protected void tearDown() throws Exception {
+		readerWriter.close();
+	}
+
+	public void testWritesAreCoalescedUntilFlush() throws Exception {
+		RootXmlSettings settings = createSettings("user");
+
+		settings.setString("key", "first");
+		readerWriter.write(settings);
+		settings.setString("key", "second");
+		readerWriter.write(settings);
+		assertNull("nothing written before the delay", delegate.getLastWritten());
+
+		readerWriter.flush();
+		RootXmlSettings written = delegate.getLastWritten();
+		assertNotNull(written);
+		assertEquals("user", written.getName());
+		assertEquals("second", written.getString("key"));
+
+		delegate.lastWritten = null;
+		readerWriter.flush();
+		assertNull("pending writes must be cleared", delegate.getLastWritten());
+	}
+
+	public void testWritesCopyOfDocument() throws Exception {
+		RootXmlSettings settings = createSettings("user");
+		settings.setString("key", "saved");
+		readerWriter.write(settings);
+
+		settings.setString("key", "changed later");
+		readerWriter.flush();
+
+		assertEquals("saved", delegate.getLastWritten().getString("key"));
+	}
+
+	public void testReadFlushesPendingWrites() throws Exception {
+		RootXmlSettings settings = createSettings("user");
+		readerWriter.write(settings);
+
+		readerWriter.read("user");
+
+		assertNotNull(delegate.getLastWritten());
+		assertEquals("user", delegate.getLastRead());
+	}
+
+	private RootXmlSettings createSettings(String name) throws Exception {
+		Document doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+		Element element = doc.createElement("settings");
+		element.setAttribute("name", name);
+		doc.appendChild(element);
+		return new RootXmlSettings(doc, readerWriter);
+	}
+}